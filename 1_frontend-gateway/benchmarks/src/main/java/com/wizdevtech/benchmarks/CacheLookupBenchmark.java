@@ -0,0 +1,121 @@
+package com.wizdevtech.benchmarks;
+
+import com.wizdevtech.controller.ApiController;
+import com.wizdevtech.model.ApiResponse;
+import com.wizdevtech.repository.ApiResponseRepository;
+import com.wizdevtech.service.ApiResponseCache;
+import com.wizdevtech.service.cache.CacheRegistry;
+import com.wizdevtech.service.cache.CacheStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product lookups: the in-process store alone, {@link ApiResponseCache} on an L1
+ * hit and on a database read, and the whole {@link ApiController#getProduct}
+ * path, including a conditional request answered with 304.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheLookupBenchmark {
+
+    @Param({"1000"})
+    public int products;
+
+    @Param({"2048"})
+    public int payloadBytes;
+
+    private ConfigurableApplicationContext context;
+    private ApiResponseCache cache;
+    private CacheStore store;
+    private ApiController controller;
+    private final List<String> ids = new ArrayList<>();
+    private final List<String> etags = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = GatewayContext.start();
+        cache = context.getBean(ApiResponseCache.class);
+        store = context.getBean(CacheRegistry.class).store(ApiResponseCache.CACHE_NAME);
+        controller = context.getBean(ApiController.class);
+
+        ApiResponseRepository repository = context.getBean(ApiResponseRepository.class);
+        String json = Payloads.productJson(payloadBytes);
+        List<ApiResponse> rows = new ArrayList<>();
+        for (int i = 0; i < products; i++) {
+            rows.add(new ApiResponse("bench-" + i, "product-api", json, Instant.now().plusSeconds(86_400)));
+        }
+        repository.saveAll(rows);
+        for (ApiResponse row : rows) {
+            ids.add(row.getId());
+            cache.warm(row);
+            etags.add(controller.getProduct(row.getId(), null, null).getHeaders().getETag());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object inProcessStoreGet() {
+        return store.get(ids.get(next()));
+    }
+
+    @Benchmark
+    public Object l1Hit() {
+        return cache.get(ids.get(next()));
+    }
+
+    @Benchmark
+    public ResponseEntity<?> controllerHit() {
+        return controller.getProduct(ids.get(next()), null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> controllerNotModified() {
+        int i = next();
+        return controller.getProduct(ids.get(i), etags.get(i), null);
+    }
+
+    /** Reads go to H2: the in-process copies are dropped before every call. */
+    @State(Scope.Thread)
+    public static class ColdL1 {
+        @Setup(Level.Invocation)
+        public void evict(CacheLookupBenchmark benchmark) {
+            benchmark.store.clear();
+        }
+    }
+
+    @Benchmark
+    public Object databaseHit(ColdL1 cold) {
+        return cache.get(ids.get(next()));
+    }
+
+    private int next() {
+        return ThreadLocalRandom.current().nextInt(ids.size());
+    }
+}
@@ -0,0 +1,37 @@
+package com.wizdevtech.benchmarks;
+
+import com.wizdevtech.GatewayApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the gateway's application context for a benchmark trial: in-memory H2
+ * in PostgreSQL mode, in-process caches, no HTTP server and no renderer or
+ * product-service, so only the gateway's own code is measured.
+ */
+final class GatewayContext {
+
+    private GatewayContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        SpringApplication application = new SpringApplication(GatewayApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        // Command-line arguments, so they win over the application.properties packaged in the gateway jar
+        return application.run(
+                "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--gateway.upstream.product.base-url=",
+                "--gateway.ssr.renderer-url=",
+                "--gateway.ssr.snapshot.file=",
+                "--gateway.warmup.enabled=false",
+                "--gateway.admission.enabled=false");
+    }
+}
@@ -0,0 +1,65 @@
+package com.wizdevtech.benchmarks;
+
+import com.wizdevtech.model.ApiResponse;
+import com.wizdevtech.service.ApiResponseCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Misses filled through {@link ApiResponseCache#getOrLoad}: the L1 and database
+ * lookups that miss, the single-flight load, the L1 put and the write-behind
+ * enqueue. The loader returns at once, so the upstream call is not measured.
+ * Every call uses a new id; rows reach H2 through the write-behind batches
+ * running alongside, as in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MissFillBenchmark {
+
+    private static final Duration TTL = Duration.ofHours(1);
+
+    @Param({"2048"})
+    public int payloadBytes;
+
+    private ConfigurableApplicationContext context;
+    private ApiResponseCache cache;
+    private String json;
+    private final AtomicLong ids = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = GatewayContext.start();
+        cache = context.getBean(ApiResponseCache.class);
+        json = Payloads.productJson(payloadBytes);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public ApiResponse missFill() {
+        return cache.getOrLoad("miss-" + ids.incrementAndGet(), "product-api", TTL, () -> json);
+    }
+}
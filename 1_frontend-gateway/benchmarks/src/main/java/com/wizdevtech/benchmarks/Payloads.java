@@ -0,0 +1,32 @@
+package com.wizdevtech.benchmarks;
+
+/**
+ * Deterministic payloads of a given size, so runs of different releases compare
+ * like with like.
+ */
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    /** A product JSON object of about {@code bytes} bytes. */
+    static String productJson(int bytes) {
+        StringBuilder json = new StringBuilder("{\"id\":42,\"name\":\"Sour Cherry Gummies\",\"price\":3.49,"
+                + "\"category\":\"candy\",\"description\":\"");
+        while (json.length() < bytes - 2) {
+            json.append("Chewy, tart and sugar-dusted. ");
+        }
+        json.setLength(Math.max(json.length(), bytes - 2));
+        return json.append("\"}").toString();
+    }
+
+    /** An SSR page of about {@code bytes} bytes of markup. */
+    static String html(int bytes) {
+        StringBuilder html = new StringBuilder("<!doctype html><html><head><title>Candy Store</title></head><body>");
+        for (int i = 0; html.length() < bytes - 14; i++) {
+            html.append("<div class=\"product-card\" data-id=\"").append(i)
+                    .append("\"><h2>Product ").append(i).append("</h2><p>In stock</p></div>");
+        }
+        return html.append("</body></html>").toString();
+    }
+}
@@ -0,0 +1,91 @@
+package com.wizdevtech.benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wizdevtech.model.ApiResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning stored {@link ApiResponse} rows into response bytes, without Spring:
+ * the UTF-8 body of a single product, the streamed JSON array of a batchGet
+ * (raw product values, as the controller writes them), the SHA-256 validator
+ * computed for each new row, and Jackson binding of the entity for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"512", "8192"})
+    public int payloadBytes;
+
+    @Param({"50"})
+    public int batchSize;
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private ApiResponse response;
+    private List<ApiResponse> batch;
+
+    @Setup
+    public void prepare() {
+        String json = Payloads.productJson(payloadBytes);
+        response = new ApiResponse("p-1", "product-api", json, Instant.now().plusSeconds(3600));
+        batch = new ArrayList<>();
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(new ApiResponse("p-" + i, "product-api", json, Instant.now().plusSeconds(3600)));
+        }
+    }
+
+    @Benchmark
+    public byte[] productBody() {
+        return response.getResponseJson().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void batchArray() throws IOException {
+        try (JsonGenerator json = mapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            json.writeStartArray();
+            for (ApiResponse product : batch) {
+                json.writeStartObject();
+                json.writeStringField("id", product.getId());
+                json.writeStringField("cache", "HIT");
+                json.writeFieldName("product");
+                json.writeRawValue(product.getResponseJson());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
+    }
+
+    @Benchmark
+    public String contentHash() {
+        // A fresh row each time: the hash is computed once per stored version
+        return new ApiResponse("p-1", "product-api", response.getResponseJson(), null).getContentHash();
+    }
+
+    @Benchmark
+    public byte[] jacksonEntity() throws IOException {
+        return mapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,110 @@
+package com.wizdevtech.benchmarks;
+
+import com.wizdevtech.model.SsrCache;
+import com.wizdevtech.repository.SsrCacheRepository;
+import com.wizdevtech.service.SsrFallbackService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SSR fallback pages: the snapshot lookup alone, and the whole
+ * {@code GET /api/fallback/{route}} route (matching, negotiation, headers and
+ * writing the stored body to the servlet response) per {@code Accept-Encoding}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SsrStreamingBenchmark {
+
+    @Param({"500"})
+    public int pages;
+
+    @Param({"32768"})
+    public int htmlBytes;
+
+    @Param({"identity", "gzip"})
+    public String acceptEncoding;
+
+    private ConfigurableApplicationContext context;
+    private SsrFallbackService fallback;
+    private RouterFunction<ServerResponse> route;
+    private final List<HttpMessageConverter<?>> converters = List.of(new ByteArrayHttpMessageConverter());
+    private final List<String> routes = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void start() {
+        context = GatewayContext.start();
+        fallback = context.getBean(SsrFallbackService.class);
+        route = context.getBean("ssrFallbackRoute", RouterFunction.class);
+
+        SsrCacheRepository repository = context.getBean(SsrCacheRepository.class);
+        String html = Payloads.html(htmlBytes);
+        List<SsrCache> rows = new ArrayList<>();
+        for (int i = 0; i < pages; i++) {
+            rows.add(new SsrCache("/page-" + i, html, Instant.now().plusSeconds(86_400)));
+            routes.add("/page-" + i);
+        }
+        repository.saveAll(rows);
+        fallback.refreshSnapshot();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<SsrFallbackService.Lookup> snapshotLookup() {
+        return fallback.find(routes.get(next()));
+    }
+
+    @Benchmark
+    public int fallbackRoute() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/fallback" + routes.get(next()));
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ServletRequestPathUtils.parseAndCache(request);
+
+        ServerRequest serverRequest = ServerRequest.create(request, converters);
+        HandlerFunction<ServerResponse> handler = route.route(serverRequest).orElseThrow();
+        handler.handle(serverRequest).writeTo(request, response, () -> converters);
+        return response.getContentLength();
+    }
+
+    private int next() {
+        return ThreadLocalRandom.current().nextInt(routes.size());
+    }
+}
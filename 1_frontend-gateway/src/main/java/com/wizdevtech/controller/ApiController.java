@@ -1,52 +1,113 @@
 package com.wizdevtech.controller;
 
 import com.wizdevtech.model.ApiResponse;
-import com.wizdevtech.model.SsrCache;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.logging.Logger;
 
-import com.wizdevtech.repository.ApiResponseRepository;
-import com.wizdevtech.repository.SsrCacheRepository;
+import com.wizdevtech.service.ApiResponseCache;
+import com.wizdevtech.service.GatewayMetrics;
+import com.wizdevtech.service.admission.AdmissionControl;
+import com.wizdevtech.service.upstream.ProductUpstreamClient;
+import com.wizdevtech.service.upstream.UpstreamClientErrorException;
+import com.wizdevtech.service.upstream.UpstreamUnavailableException;
+import com.wizdevtech.util.ContentCodings;
+import com.wizdevtech.util.ContentCodings.Coding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api")
 public class ApiController {
     private static final Logger logger = Logger.getLogger(ApiController.class.getName());
+    private static final String CACHE_STATUS_HEADER = "X-Cache-Status";
+    // Path templates used as the metrics route tag
+    private static final String PRODUCT_ROUTE = "/api/products/{id}";
+    private static final String BATCH_ROUTE = "/api/products:batchGet";
+    private static final Duration PRODUCT_TTL = Duration.ofSeconds(3600);
+    // Admission control endpoint names
+    private static final String PRODUCT_ENDPOINT = "product";
+    private static final String BATCH_ENDPOINT = "batch";
+    private static final String OVERLOADED_ERROR = "{\"error\":\"Gateway overloaded, retry later\"}";
 
     @Autowired
-    private ApiResponseRepository apiResponseRepository;
+    private ApiResponseCache apiResponseCache;
 
     @Autowired
-    private SsrCacheRepository ssrCacheRepository;
+    private GatewayMetrics metrics;
+
+    @Autowired
+    private ProductUpstreamClient productUpstream;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private HttpCachePolicy cachePolicy;
+
+    @Autowired
+    private AdmissionControl admission;
+
+    @Value("${gateway.products.batch-max-ids:100}")
+    private int batchMaxIds;
 
     // Health check - unchanged
     @GetMapping("/test")
     public String test() {
-        logger.info("Test endpoint called");
+        logger.fine("Test endpoint called");
         return "API is working! Current time: " + Instant.now();
     }
 
-    // Original product endpoint - unchanged
+    // Product endpoint: cache first, then product-service; the last stored copy if it is down.
+    // Conditional requests are answered with 304 from the stored hash and store time.
+    // L1 hits are always served; anything needing the database or product-service
+    // goes through admission control and is shed with 503 when the endpoint is at its limit
     @GetMapping("/products/{id}")
-    public ResponseEntity<?> getProduct(@PathVariable String id) {
-        logger.info("Product endpoint called for id: " + id);
+    public ResponseEntity<?> getProduct(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince) {
+        Timer.Sample lookup = metrics.startLookup();
         try {
-            Optional<ApiResponse> cached = findInCache(id);
-            if (cached.isPresent()) {
-                logger.info("Cache hit for product id: " + id);
-                return ResponseEntity.ok(cached.get().getResponseJson());
+            Optional<ApiResponse> local = apiResponseCache.getLocal(id);
+            if (local.isPresent()) {
+                metrics.recordLookup(lookup, ApiResponseCache.CACHE_NAME, PRODUCT_ROUTE, GatewayMetrics.HIT);
+                return productBody(local.get(), false, ifNoneMatch, ifModifiedSince);
             }
 
-            logger.info("Cache miss for product id: " + id);
-            String mockResponse = "{\"name\":\"Sample Product\"}";
-            saveToCache(id, mockResponse);
-            return ResponseEntity.ok(mockResponse);
+            Optional<AdmissionControl.Permit> permit = admission.tryAcquire(PRODUCT_ENDPOINT);
+            if (permit.isEmpty()) {
+                metrics.recordLookup(lookup, ApiResponseCache.CACHE_NAME, PRODUCT_ROUTE, GatewayMetrics.SHED);
+                return overloaded();
+            }
+            try {
+                ResponseEntity<?> response = findOrLoadProduct(id, lookup, ifNoneMatch, ifModifiedSince);
+                permit.get().onSuccess();
+                return response;
+            } catch (RuntimeException e) {
+                permit.get().onDropped();
+                throw e;
+            }
 
         } catch (Exception e) {
             logger.severe("Error in product endpoint: " + e.getMessage());
@@ -55,57 +116,208 @@ public class ApiController {
         }
     }
 
-    // New SSR fallback endpoint
-    @GetMapping("/fallback/{route}")
-    public ResponseEntity<String> getSsrFallback(@PathVariable String route) {
-        logger.info("Fallback endpoint called for route: " + route);
+    private ResponseEntity<?> findOrLoadProduct(String id, Timer.Sample lookup,
+                                                String ifNoneMatch, String ifModifiedSince) {
+        Optional<ApiResponse> cached = findInCache(id);
+        if (cached.isPresent()) {
+            metrics.recordLookup(lookup, ApiResponseCache.CACHE_NAME, PRODUCT_ROUTE, GatewayMetrics.HIT);
+            return productBody(cached.get(), false, ifNoneMatch, ifModifiedSince);
+        }
+
         try {
-            // Normalize route to ensure leading slash
-            String normalizedRoute = route.startsWith("/") ? route : "/" + route;
-            logger.info("Normalized route: " + normalizedRoute);
-
-            Optional<SsrCache> cached = ssrCacheRepository.findByRouteAndExpiryAfter(
-                    normalizedRoute,
-                    Instant.now()
-            );
-
-            if (cached.isPresent()) {
-                logger.info("Cache hit for SSR route: " + normalizedRoute);
-                HttpHeaders headers = new HttpHeaders();
-                headers.add(HttpHeaders.CONTENT_TYPE, "text/html");
-                return ResponseEntity.ok()
-                        .headers(headers)
-                        .body(cached.get().getHtml());
+            ApiResponse loaded = loadIntoCache(id, () -> productUpstream.fetchProduct(id));
+            metrics.recordLookup(lookup, ApiResponseCache.CACHE_NAME, PRODUCT_ROUTE, GatewayMetrics.MISS);
+            return productBody(loaded, false, ifNoneMatch, ifModifiedSince);
+        } catch (UpstreamUnavailableException e) {
+            Optional<ApiResponse> stale = apiResponseCache.findStale(id);
+            if (stale.isPresent()) {
+                metrics.recordLookup(lookup, ApiResponseCache.CACHE_NAME, PRODUCT_ROUTE, GatewayMetrics.STALE);
+                return productBody(stale.get(), true, ifNoneMatch, ifModifiedSince);
             }
+            metrics.recordLookup(lookup, ApiResponseCache.CACHE_NAME, PRODUCT_ROUTE, GatewayMetrics.MISS);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body("{\"error\":\"Product service unavailable\"}");
+        } catch (UpstreamClientErrorException e) {
+            metrics.recordLookup(lookup, ApiResponseCache.CACHE_NAME, PRODUCT_ROUTE, GatewayMetrics.MISS);
+            String error = e.status() == 404 ? "Product not found" : "Invalid product request";
+            return ResponseEntity.status(e.status())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body("{\"error\":\"" + error + "\"}");
+        }
+    }
 
-            logger.info("Cache miss for SSR route: " + normalizedRoute);
-            return ResponseEntity.status(404)
-                    .body("<div>No cached version</div>");
+    private ResponseEntity<String> overloaded() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds())
+                .cacheControl(CacheControl.noStore())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(OVERLOADED_ERROR);
+    }
 
-        } catch (Exception e) {
-            logger.severe("Error in fallback endpoint: " + e.getMessage());
-            return ResponseEntity.status(500)
-                    .body("<div>Server Error</div>");
+    private String retryAfterSeconds() {
+        return Long.toString(Math.max(1, admission.retryAfter().toSeconds()));
+    }
+
+    private ResponseEntity<?> productBody(ApiResponse response, boolean stale,
+                                               String ifNoneMatch, String ifModifiedSince) {
+        // Weak tag: the body may still be compressed by the server on the way out
+        HttpHeaders headers = cachePolicy.headers(HttpCachePolicy.weakEtag(response.getContentHash()),
+                response.getStoredAt(), response.getExpiry(), stale);
+        if (stale) {
+            headers.add(CACHE_STATUS_HEADER, "STALE");
+        }
+        if (cachePolicy.notModified(ifNoneMatch, ifModifiedSince, response.getContentHash(), response.getStoredAt())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .headers(headers)
+                    .build();
+        }
+
+        metrics.recordPayload(ApiResponseCache.CACHE_NAME, PRODUCT_ROUTE, Coding.IDENTITY.token(),
+                response.getPayloadLength());
+        if (response.isCompressed()) {
+            // Decompressed block by block into the response instead of into a String
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .contentLength(response.getPayloadLength())
+                    .body(new InputStreamResource(response.openResponse()));
+        }
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response.getResponseJson());
+    }
+
+    public record BatchGetRequest(List<String> ids) {
+    }
+
+    // Many products in one call: one multi-get against the cache, one upstream batch
+    // for the misses. The answer is a JSON array in request order, written straight
+    // to the response, with {"id", "cache": HIT|MISS|STALE, "product"} or {"id", "error"}.
+    // Ids product-service cannot take are never sent upstream and get their own error.
+    // When the endpoint is at its admission limit, L1 hits are still answered and the
+    // other ids get an error, with Retry-After; 503 if none was in L1
+    @PostMapping(path = "/products:batchGet", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> batchGetProducts(@RequestBody BatchGetRequest request) {
+        Set<String> ids = new LinkedHashSet<>();
+        if (request.ids() != null) {
+            request.ids().stream().filter(id -> id != null && !id.isBlank()).forEach(ids::add);
+        }
+        if (ids.isEmpty() || ids.size() > batchMaxIds) {
+            byte[] error = ("{\"error\":\"ids must name between 1 and " + batchMaxIds + " products\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> out.write(error));
+        }
+
+        Timer.Sample lookup = metrics.startLookup();
+        Map<String, ApiResponse> cached = new HashMap<>(apiResponseCache.getAllLocal(ids));
+        List<String> notLocal = ids.stream().filter(id -> !cached.containsKey(id)).toList();
+        Optional<AdmissionControl.Permit> permit = notLocal.isEmpty()
+                ? Optional.empty() : admission.tryAcquire(BATCH_ENDPOINT);
+        boolean shed = !notLocal.isEmpty() && permit.isEmpty();
+        if (shed && cached.isEmpty()) {
+            metrics.recordLookup(lookup, ApiResponseCache.CACHE_NAME, BATCH_ROUTE, GatewayMetrics.SHED);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds())
+                    .cacheControl(CacheControl.noStore())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> out.write(OVERLOADED_ERROR.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        Map<String, String> loaded = Map.of();
+        Map<String, ApiResponse> stale = Map.of();
+        String missingError = shed ? "Gateway overloaded, retry later" : "Product not found";
+        List<String> missing = notLocal;
+        Set<String> invalid = Set.of();
+        if (permit.isPresent()) {
+            try {
+                cached.putAll(apiResponseCache.getAll(notLocal));
+                missing = notLocal.stream().filter(id -> !cached.containsKey(id)).toList();
+                invalid = missing.stream().filter(id -> !ProductUpstreamClient.isProductId(id)).collect(Collectors.toSet());
+                Set<String> rejected = invalid;
+                List<String> requestable = missing.stream().filter(id -> !rejected.contains(id)).toList();
+                if (!requestable.isEmpty()) {
+                    try {
+                        loaded = productUpstream.fetchProducts(requestable);
+                        Instant expiry = Instant.now().plus(PRODUCT_TTL);
+                        loaded.forEach((id, json) -> apiResponseCache.put(id, "product-api", json, expiry));
+                    } catch (UpstreamUnavailableException e) {
+                        stale = apiResponseCache.findAllStale(requestable);
+                        missingError = "Product service unavailable";
+                    } catch (UpstreamClientErrorException e) {
+                        missingError = "Invalid product request";
+                    }
+                }
+                permit.get().onSuccess();
+            } catch (RuntimeException e) {
+                permit.get().onDropped();
+                throw e;
+            }
+        }
+        String result = shed ? GatewayMetrics.SHED
+                : missing.isEmpty() ? GatewayMetrics.HIT
+                : stale.isEmpty() ? GatewayMetrics.MISS : GatewayMetrics.STALE;
+        metrics.recordLookup(lookup, ApiResponseCache.CACHE_NAME, BATCH_ROUTE, result);
+
+        Map<String, String> fromUpstream = loaded;
+        Map<String, ApiResponse> fromStale = stale;
+        Set<String> invalidIds = invalid;
+        String error = missingError;
+        StreamingResponseBody body = out -> {
+            long bytes = 0;
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartArray();
+                for (String id : ids) {
+                    json.writeStartObject();
+                    json.writeStringField("id", id);
+                    String product;
+                    if (cached.containsKey(id)) {
+                        json.writeStringField("cache", "HIT");
+                        product = cached.get(id).getResponseJson();
+                    } else if (fromUpstream.containsKey(id)) {
+                        json.writeStringField("cache", "MISS");
+                        product = fromUpstream.get(id);
+                    } else if (fromStale.containsKey(id)) {
+                        json.writeStringField("cache", "STALE");
+                        product = fromStale.get(id).getResponseJson();
+                    } else {
+                        product = null;
+                        json.writeStringField("error", invalidIds.contains(id) ? "Invalid product id" : error);
+                    }
+                    if (product != null) {
+                        json.writeFieldName("product");
+                        json.writeRawValue(product);
+                        bytes += ContentCodings.utf8Length(product);
+                    }
+                    json.writeEndObject();
+                }
+                json.writeEndArray();
+            }
+            metrics.recordPayload(ApiResponseCache.CACHE_NAME, BATCH_ROUTE, Coding.IDENTITY.token(), bytes);
+        };
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (shed) {
+            ok.header(HttpHeaders.RETRY_AFTER, retryAfterSeconds());
         }
+        return ok.contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
-    @Transactional(readOnly = true)
     protected Optional<ApiResponse> findInCache(String id) {
-        logger.info("Looking up product in cache: " + id);
-        return apiResponseRepository.findById(id);  // Breakpoint 3
+        return apiResponseCache.get(id);  // L1 first, then api_responses
     }
 
-    @Transactional
-    protected void saveToCache(String id, String response) {
-        logger.info("Saving product to cache: " + id);
-        apiResponseRepository.deleteById(id);
-        apiResponseRepository.save(
-                new ApiResponse(
-                        id,
-                        "product-api",
-                        response,
-                        Instant.now().plusSeconds(3600)
-                )
+    // Called after findInCache missed, so this goes straight to the load; concurrent
+    // misses for the same id share one load and one write
+    protected ApiResponse loadIntoCache(String id, Supplier<String> loader) {
+        return apiResponseCache.loadMiss(
+                id,
+                "product-api",
+                PRODUCT_TTL,
+                loader
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.wizdevtech.controller;
+
+import com.wizdevtech.util.ContentCodings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP caching headers for responses served from the gateway's cache tier.
+ *
+ * Freshness comes from the stored row's expiry: {@code Cache-Control: public,
+ * max-age} is the time left, capped by {@code gateway.http-cache.max-age-seconds}
+ * so browsers and the CDN re-validate after cross-node invalidations, plus
+ * {@code stale-while-revalidate} and {@code stale-if-error}. Rows served past
+ * their expiry get {@code no-cache}. Validators are the stored content hash
+ * ({@code ETag}) and store time ({@code Last-Modified}), so conditional requests
+ * are answered with 304 before any body is selected or encoded.
+ */
+@Component
+public class HttpCachePolicy {
+
+    private final long maxAgeSeconds;
+    private final long staleWhileRevalidateSeconds;
+    private final long staleIfErrorSeconds;
+
+    public HttpCachePolicy(@Value("${gateway.http-cache.max-age-seconds:300}") long maxAgeSeconds,
+                           @Value("${gateway.http-cache.stale-while-revalidate-seconds:30}") long staleWhileRevalidateSeconds,
+                           @Value("${gateway.http-cache.stale-if-error-seconds:3600}") long staleIfErrorSeconds) {
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.staleWhileRevalidateSeconds = staleWhileRevalidateSeconds;
+        this.staleIfErrorSeconds = staleIfErrorSeconds;
+    }
+
+    /**
+     * Caching headers for a stored response. {@code etag} is the already
+     * formatted entity tag; {@code lastModified} and {@code expiry} may be null.
+     */
+    public HttpHeaders headers(String etag, Instant lastModified, Instant expiry, boolean stale) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        if (lastModified != null) {
+            headers.setLastModified(lastModified.truncatedTo(ChronoUnit.SECONDS));
+        }
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        headers.setCacheControl(cacheControl(expiry, stale, Instant.now()));
+        return headers;
+    }
+
+    CacheControl cacheControl(Instant expiry, boolean stale, Instant now) {
+        long remaining = expiry == null ? maxAgeSeconds : Duration.between(now, expiry).getSeconds();
+        if (stale || remaining <= 0) {
+            return CacheControl.noCache();
+        }
+        return CacheControl.maxAge(Math.min(remaining, maxAgeSeconds), TimeUnit.SECONDS)
+                .cachePublic()
+                .staleWhileRevalidate(staleWhileRevalidateSeconds, TimeUnit.SECONDS)
+                .staleIfError(staleIfErrorSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Whether a conditional GET can be answered with 304. As in RFC 9110, a
+     * present {@code If-None-Match} decides alone; otherwise {@code If-Modified-Since}
+     * is compared with {@code lastModified} at one-second precision.
+     */
+    public boolean notModified(String ifNoneMatch, String ifModifiedSince, String contentHash, Instant lastModified) {
+        if (ifNoneMatch != null) {
+            return ContentCodings.matchesIfNoneMatch(ifNoneMatch, contentHash);
+        }
+        if (ifModifiedSince == null || lastModified == null) {
+            return false;
+        }
+        try {
+            Instant since = ZonedDateTime.parse(ifModifiedSince.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return !lastModified.truncatedTo(ChronoUnit.SECONDS).isAfter(since);
+        } catch (DateTimeParseException e) {
+            // Invalid dates are ignored, as the RFC requires
+            return false;
+        }
+    }
+
+    /** Weak tag for bodies the server may compress on the fly. */
+    public static String weakEtag(String contentHash) {
+        return "W/" + ContentCodings.etag(contentHash, ContentCodings.Coding.IDENTITY);
+    }
+}
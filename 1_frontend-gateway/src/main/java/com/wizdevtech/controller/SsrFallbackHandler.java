@@ -0,0 +1,174 @@
+package com.wizdevtech.controller;
+
+import com.wizdevtech.model.SsrCache;
+import com.wizdevtech.service.GatewayMetrics;
+import com.wizdevtech.service.SsrFallbackService;
+import com.wizdevtech.util.ContentCodings;
+import com.wizdevtech.util.ContentCodings.Coding;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.RequestPredicates;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@code GET /api/fallback/{route}}: SSR fallback pages from the in-heap snapshot.
+ *
+ * A functional route rather than a controller method, so a request skips
+ * annotation argument resolution and content negotiation: the handler reads the
+ * few headers it needs, picks the stored gzip/deflate/identity bytes and writes
+ * them as-is, or answers a conditional request with 304 before touching a body.
+ *
+ * {@code POST /api/fallback:invalidate?prefix=/products/} or {@code ?tag=product:42}
+ * expires the matching pages in bulk and answers {@code {"expired": n}}. It must
+ * carry {@code Authorization: Bearer <gateway.ssr.invalidate-token>}; with no
+ * token configured every call is refused.
+ */
+@Component
+public class SsrFallbackHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(SsrFallbackHandler.class);
+
+    static final String ROUTE = "/api/fallback/{route}";
+    static final String INVALIDATE_ROUTE = "/api/fallback:invalidate";
+    private static final String CACHE_STATUS_HEADER = "X-Cache-Status";
+    private static final MediaType TEXT_HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+    private static final byte[] NOT_FOUND_BODY = "<div>No cached version</div>".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_BODY = "<div>Server Error</div>".getBytes(StandardCharsets.UTF_8);
+    private static final String BEARER = "Bearer ";
+
+    private final SsrFallbackService ssrFallbackService;
+    private final HttpCachePolicy cachePolicy;
+    private final GatewayMetrics metrics;
+    private final byte[] invalidateToken;
+
+    public SsrFallbackHandler(SsrFallbackService ssrFallbackService, HttpCachePolicy cachePolicy,
+                              GatewayMetrics metrics,
+                              @Value("${gateway.ssr.invalidate-token:}") String invalidateToken) {
+        this.ssrFallbackService = ssrFallbackService;
+        this.cachePolicy = cachePolicy;
+        this.metrics = metrics;
+        this.invalidateToken = invalidateToken.getBytes(StandardCharsets.UTF_8);
+        if (invalidateToken.isEmpty()) {
+            log.info("No gateway.ssr.invalidate-token set; {} refuses all calls", INVALIDATE_ROUTE);
+        }
+    }
+
+    @Bean
+    RouterFunction<ServerResponse> ssrFallbackRoute() {
+        return RouterFunctions.route(RequestPredicates.GET(ROUTE), this::handle)
+                .andRoute(RequestPredicates.POST(INVALIDATE_ROUTE), this::invalidate);
+    }
+
+    ServerResponse invalidate(ServerRequest request) {
+        if (!authorized(request)) {
+            return ServerResponse.status(HttpStatus.UNAUTHORIZED)
+                    .header(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+                    .build();
+        }
+        Optional<String> prefix = request.param("prefix").filter(p -> !p.isEmpty());
+        Optional<String> tag = request.param("tag").filter(t -> !t.isBlank());
+        if (prefix.isPresent() == tag.isPresent()) {
+            return ServerResponse.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "Give exactly one of prefix or tag"));
+        }
+        int expired = prefix.isPresent()
+                ? ssrFallbackService.invalidatePrefix(prefix.get().startsWith("/") ? prefix.get() : "/" + prefix.get())
+                : ssrFallbackService.invalidateTag(tag.get());
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("expired", expired));
+    }
+
+    ServerResponse handle(ServerRequest request) {
+        Timer.Sample lookup = metrics.startLookup();
+        try {
+            String route = request.pathVariable("route");
+            // Expired pages are still served inside the grace window while a refresh runs
+            Optional<SsrFallbackService.Lookup> cached =
+                    ssrFallbackService.find(route.startsWith("/") ? route : "/" + route);
+            if (cached.isEmpty()) {
+                metrics.recordLookup(lookup, SsrFallbackService.CACHE_NAME, ROUTE, GatewayMetrics.MISS);
+                return ServerResponse.status(HttpStatus.NOT_FOUND)
+                        .contentType(TEXT_HTML_UTF8)
+                        .body(NOT_FOUND_BODY);
+            }
+
+            SsrCache entry = cached.get().entry();
+            boolean stale = cached.get().stale();
+            metrics.recordLookup(lookup, SsrFallbackService.CACHE_NAME, ROUTE,
+                    stale ? GatewayMetrics.STALE : GatewayMetrics.HIT);
+            ServerRequest.Headers requestHeaders = request.headers();
+            Coding coding = ContentCodings.negotiate(header(requestHeaders, HttpHeaders.ACCEPT_ENCODING));
+
+            HttpHeaders headers = cachePolicy.headers(ContentCodings.etag(entry.getContentHash(), coding),
+                    entry.getStoredAt(), entry.getExpiry(), stale);
+            if (stale) {
+                headers.add(CACHE_STATUS_HEADER, "STALE");
+            }
+            if (cachePolicy.notModified(header(requestHeaders, HttpHeaders.IF_NONE_MATCH),
+                    header(requestHeaders, HttpHeaders.IF_MODIFIED_SINCE),
+                    entry.getContentHash(), entry.getStoredAt())) {
+                return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                        .headers(h -> h.addAll(headers))
+                        .build();
+            }
+
+            if (coding != Coding.IDENTITY) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, coding.token());
+            }
+            byte[] body = encodedHtml(entry, coding);
+            metrics.recordPayload(SsrFallbackService.CACHE_NAME, ROUTE, coding.token(), body.length);
+            return ServerResponse.ok()
+                    .headers(h -> h.addAll(headers))
+                    .contentType(TEXT_HTML_UTF8)
+                    .body(body);
+
+        } catch (RuntimeException e) {
+            log.error("Error in fallback endpoint: {}", e.getMessage());
+            return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .contentType(TEXT_HTML_UTF8)
+                    .body(ERROR_BODY);
+        }
+    }
+
+    private boolean authorized(ServerRequest request) {
+        String authorization = header(request.headers(), HttpHeaders.AUTHORIZATION);
+        if (invalidateToken.length == 0 || authorization == null || !authorization.startsWith(BEARER)) {
+            return false;
+        }
+        // Constant-time, so response timing does not reveal how much of the token matched
+        byte[] presented = authorization.substring(BEARER.length()).getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(presented, invalidateToken);
+    }
+
+    // Repeated header lines joined into one list, as @RequestHeader would
+    private static String header(ServerRequest.Headers headers, String name) {
+        List<String> values = headers.header(name);
+        return values.isEmpty() ? null : String.join(",", values);
+    }
+
+    private static byte[] encodedHtml(SsrCache entry, Coding coding) {
+        return switch (coding) {
+            case GZIP -> entry.getHtmlGzip();
+            case DEFLATE -> entry.getHtmlDeflate();
+            case IDENTITY -> entry.getHtml().getBytes(StandardCharsets.UTF_8);
+        };
+    }
+}
@@ -1,11 +1,24 @@
 package com.wizdevtech.model;
 
+import com.wizdevtech.util.ContentCodings;
+import com.wizdevtech.util.Lz4Codec;
 import jakarta.persistence.*;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 
 @Entity
-@Table(name = "api_responses")
-public class ApiResponse {
+@Table(name = "api_responses",
+        indexes = {
+                @Index(name = "idx_api_responses_expiration", columnList = "expiration, id"),
+                @Index(name = "idx_api_responses_last_accessed", columnList = "last_accessed")
+        })
+public class ApiResponse implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     @Id
     @Column(length = 255)
     private String id;
@@ -17,9 +30,29 @@ public class ApiResponse {
     @Column(name = "response_json", columnDefinition = "text")
     private String responseJson;
 
+    // Large payloads are kept LZ4-compressed here instead, with response_json null
+    @Column(name = "response_lz4", columnDefinition = "bytea")
+    private byte[] responseLz4;
+
     @Column(name = "expiration")
     private Instant expiry;
 
+    // SHA-256 of response_json, the HTTP validator; computed on first use for older rows
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // When this version was stored; sent as Last-Modified
+    @Column(name = "stored_at")
+    private Instant storedAt;
+
+    // Access statistics, maintained in batches by CacheAccessTracker and used to
+    // pick rows for startup warm-up; never written through the entity
+    @Column(name = "hit_count", insertable = false, updatable = false)
+    private Long hitCount;
+
+    @Column(name = "last_accessed", insertable = false, updatable = false)
+    private Instant lastAccessed;
+
     // Constructors
     public ApiResponse() {}
 
@@ -28,6 +61,7 @@ public class ApiResponse {
         this.apiName = apiName;
         this.responseJson = responseJson;
         this.expiry = expiry;
+        this.storedAt = Instant.now();
     }
 
     // Getters and Setters
@@ -47,12 +81,59 @@ public class ApiResponse {
         this.apiName = apiName;
     }
 
+    /**
+     * The payload as text; a compressed payload is decompressed on every call,
+     * so paths that only copy it out should use {@link #openResponse()}.
+     */
     public String getResponseJson() {
+        if (responseJson == null && responseLz4 != null) {
+            return new String(Lz4Codec.decompress(responseLz4), StandardCharsets.UTF_8);
+        }
         return responseJson;
     }
 
     public void setResponseJson(String responseJson) {
         this.responseJson = responseJson;
+        this.responseLz4 = null;
+        this.contentHash = null;
+    }
+
+    public byte[] getResponseLz4() {
+        return responseLz4;
+    }
+
+    public boolean isCompressed() {
+        return responseLz4 != null;
+    }
+
+    /**
+     * Moves the payload into {@code response_lz4}. The content hash is taken
+     * first, so validators stay those of the uncompressed JSON.
+     */
+    public void compress() {
+        if (responseJson != null) {
+            getContentHash();
+            responseLz4 = Lz4Codec.compress(responseJson.getBytes(StandardCharsets.UTF_8));
+            responseJson = null;
+        }
+    }
+
+    /**
+     * The UTF-8 payload as a stream, decompressed as it is read.
+     */
+    public InputStream openResponse() {
+        if (responseLz4 != null) {
+            return Lz4Codec.open(responseLz4);
+        }
+        return new ByteArrayInputStream(responseJson == null ? new byte[0] : responseJson.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Size of the uncompressed payload in UTF-8 bytes. */
+    public long getPayloadLength() {
+        if (responseLz4 != null) {
+            return Lz4Codec.uncompressedLength(responseLz4);
+        }
+        return responseJson == null ? 0 : ContentCodings.utf8Length(responseJson);
     }
 
     public Instant getExpiry() {
@@ -62,4 +143,32 @@ public class ApiResponse {
     public void setExpiry(Instant expiry) {
         this.expiry = expiry;
     }
-}
\ No newline at end of file
+
+    public String getContentHash() {
+        String hash = contentHash;
+        if (hash == null && responseJson != null) {
+            hash = ContentCodings.sha256(responseJson.getBytes(StandardCharsets.UTF_8));
+            contentHash = hash;
+        } else if (hash == null && responseLz4 != null) {
+            hash = ContentCodings.sha256(Lz4Codec.decompress(responseLz4));
+            contentHash = hash;
+        }
+        return hash;
+    }
+
+    public Instant getStoredAt() {
+        return storedAt;
+    }
+
+    public void setStoredAt(Instant storedAt) {
+        this.storedAt = storedAt;
+    }
+
+    public Long getHitCount() {
+        return hitCount;
+    }
+
+    public Instant getLastAccessed() {
+        return lastAccessed;
+    }
+}
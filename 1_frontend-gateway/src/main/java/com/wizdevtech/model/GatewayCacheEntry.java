@@ -0,0 +1,56 @@
+package com.wizdevtech.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+// Entry of a named cache kept by the "postgres" cache provider, shared by every
+// gateway node. Separate from api_responses, so cache entries are never served
+// as products. Read and written with plain JDBC; mapped so the schema is created
+// with the other gateway tables.
+@Entity
+@Table(name = "gateway_cache_entries",
+        indexes = {
+                @Index(name = "idx_gateway_cache_entries_expiration", columnList = "expiration, id"),
+                @Index(name = "idx_gateway_cache_entries_cache", columnList = "cache_name")
+        })
+public class GatewayCacheEntry {
+
+    // "<cache>:<key>", so prefix invalidation is one index range
+    @Id
+    @Column(length = 512)
+    private String id;
+
+    @Column(name = "cache_name", nullable = false)
+    private String cacheName;
+
+    @Column(name = "value_text", columnDefinition = "text", nullable = false)
+    private String valueText;
+
+    @Column(name = "expiration")
+    private Instant expiry;
+
+    public GatewayCacheEntry() {}
+
+    public GatewayCacheEntry(String id, String cacheName, String valueText, Instant expiry) {
+        this.id = id;
+        this.cacheName = cacheName;
+        this.valueText = valueText;
+        this.expiry = expiry;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public String getValueText() {
+        return valueText;
+    }
+
+    public Instant getExpiry() {
+        return expiry;
+    }
+}
@@ -1,10 +1,17 @@
 package com.wizdevtech.model;
 
+import com.wizdevtech.util.ContentCodings;
 import jakarta.persistence.*;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 
 @Entity
-@Table(name = "ssr_cache")  // Different table name
+@Table(name = "ssr_cache",  // Different table name
+        indexes = {
+                @Index(name = "idx_ssr_cache_expiry", columnList = "expiry, route"),
+                @Index(name = "idx_ssr_cache_last_accessed", columnList = "last_accessed"),
+                @Index(name = "idx_ssr_cache_stored_at", columnList = "stored_at")
+        })
 public class SsrCache {
 
     @Id
@@ -17,6 +24,29 @@ public class SsrCache {
     @Column(name = "expiry", nullable = false)
     private Instant expiry;
 
+    // Precompressed copies of html, derived on write so requests never compress
+    @Column(name = "html_gzip", columnDefinition = "bytea")
+    private byte[] htmlGzip;
+
+    @Column(name = "html_deflate", columnDefinition = "bytea")
+    private byte[] htmlDeflate;
+
+    // SHA-256 of the UTF-8 html, used as the strong ETag
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // When the current html was encoded; sent as Last-Modified
+    @Column(name = "stored_at")
+    private Instant storedAt;
+
+    // Access statistics, maintained in batches by CacheAccessTracker and used to
+    // pick rows for startup warm-up; never written through the entity
+    @Column(name = "hit_count", insertable = false, updatable = false)
+    private Long hitCount;
+
+    @Column(name = "last_accessed", insertable = false, updatable = false)
+    private Instant lastAccessed;
+
     // Constructors
     public SsrCache() {}
 
@@ -26,6 +56,47 @@ public class SsrCache {
         this.expiry = expiry;
     }
 
+    /**
+     * A page read back from the on-disk SSR snapshot, which keeps only the
+     * compressed copies; {@code html} is decoded from the gzip copy on first use.
+     */
+    public SsrCache(String route, Instant expiry, Instant storedAt, String contentHash,
+                    byte[] htmlGzip, byte[] htmlDeflate) {
+        this.route = route;
+        this.expiry = expiry;
+        this.storedAt = storedAt;
+        this.contentHash = contentHash;
+        this.htmlGzip = htmlGzip;
+        this.htmlDeflate = htmlDeflate;
+    }
+
+    /**
+     * Fills in the compressed copies and content hash when they are missing,
+     * e.g. for rows written by other services that only set {@code html}.
+     */
+    @PrePersist
+    @PreUpdate
+    public void encode() {
+        if (html == null || (htmlGzip != null && htmlDeflate != null && contentHash != null)) {
+            return;
+        }
+        byte[] raw = html.getBytes(StandardCharsets.UTF_8);
+        htmlGzip = ContentCodings.gzip(raw);
+        htmlDeflate = ContentCodings.deflate(raw);
+        contentHash = ContentCodings.sha256(raw);
+        storedAt = Instant.now();
+    }
+
+    /**
+     * A copy with another expiry, sharing this page's bodies (never changed once
+     * encoded), so a held page can be replaced instead of modified under readers.
+     */
+    public SsrCache withExpiry(Instant expiry) {
+        SsrCache copy = new SsrCache(route, expiry, storedAt, contentHash, htmlGzip, htmlDeflate);
+        copy.html = html;
+        return copy;
+    }
+
     // Getters and Setters
     public String getRoute() {
         return route;
@@ -36,11 +107,18 @@ public class SsrCache {
     }
 
     public String getHtml() {
+        if (html == null && htmlGzip != null) {
+            html = new String(ContentCodings.gunzip(htmlGzip), StandardCharsets.UTF_8);
+        }
         return html;
     }
 
     public void setHtml(String html) {
         this.html = html;
+        // Derived columns are recomputed from the new html on the next write
+        this.htmlGzip = null;
+        this.htmlDeflate = null;
+        this.contentHash = null;
     }
 
     public Instant getExpiry() {
@@ -50,4 +128,28 @@ public class SsrCache {
     public void setExpiry(Instant expiry) {
         this.expiry = expiry;
     }
-}
\ No newline at end of file
+
+    public byte[] getHtmlGzip() {
+        return htmlGzip;
+    }
+
+    public byte[] getHtmlDeflate() {
+        return htmlDeflate;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public Instant getStoredAt() {
+        return storedAt;
+    }
+
+    public Long getHitCount() {
+        return hitCount;
+    }
+
+    public Instant getLastAccessed() {
+        return lastAccessed;
+    }
+}
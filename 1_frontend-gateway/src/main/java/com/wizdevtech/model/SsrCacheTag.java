@@ -0,0 +1,64 @@
+package com.wizdevtech.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+// Surrogate tag on an ssr_cache page (e.g. "product:42"), so every page showing
+// a product can be invalidated at once. Rows of swept pages go with them.
+@Entity
+@IdClass(SsrCacheTag.Key.class)
+@Table(name = "ssr_cache_tags",
+        indexes = {
+                @Index(name = "idx_ssr_cache_tags_tag", columnList = "tag, route")
+        })
+public class SsrCacheTag {
+
+    @Id
+    @Column(name = "route", length = 255)
+    private String route;
+
+    @Id
+    @Column(name = "tag", length = 255)
+    private String tag;
+
+    public SsrCacheTag() {}
+
+    public SsrCacheTag(String route, String tag) {
+        this.route = route;
+        this.tag = tag;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String route;
+        private String tag;
+
+        public Key() {}
+
+        public Key(String route, String tag) {
+            this.route = route;
+            this.tag = tag;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && Objects.equals(route, other.route) && Objects.equals(tag, other.tag);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(route, tag);
+        }
+    }
+}
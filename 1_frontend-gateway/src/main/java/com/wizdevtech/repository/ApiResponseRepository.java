@@ -1,16 +1,17 @@
 package com.wizdevtech.repository;
 
 import com.wizdevtech.model.ApiResponse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.time.Instant;
+import java.util.List;
 
 public interface ApiResponseRepository extends JpaRepository<ApiResponse, String> {
 
-    // Delete expired cache entries
-    @Modifying
-    @Query("DELETE FROM ApiResponse a WHERE a.expiry < :now")
-    int deleteExpired(@Param("now") Instant now);
+    // Unexpired rows, most recently and most often read first (startup warm-up)
+    @Query("SELECT a FROM ApiResponse a WHERE a.expiry IS NULL OR a.expiry > :now "
+            + "ORDER BY a.lastAccessed DESC NULLS LAST, a.hitCount DESC NULLS LAST, a.id")
+    List<ApiResponse> findWarmable(@Param("now") Instant now, Pageable page);
 }
@@ -1,10 +1,61 @@
 package com.wizdevtech.repository;
 
 import com.wizdevtech.model.SsrCache;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface SsrCacheRepository extends JpaRepository<SsrCache, String> {
     Optional<SsrCache> findByRouteAndExpiryAfter(String route, Instant expiry);
-}
\ No newline at end of file
+
+    // Pages still servable at the cutoff, most recently and most often read first (startup warm-up)
+    @Query("SELECT s FROM SsrCache s WHERE s.expiry > :cutoff "
+            + "ORDER BY s.lastAccessed DESC NULLS LAST, s.hitCount DESC NULLS LAST, s.route")
+    List<SsrCache> findWarmable(@Param("cutoff") Instant cutoff, Pageable page);
+
+    // Version of every page still servable at the cutoff, without the page bodies
+    // (SSR snapshot reconciliation)
+    @Query("SELECT s.route AS route, s.expiry AS expiry, s.storedAt AS storedAt, s.contentHash AS contentHash "
+            + "FROM SsrCache s WHERE s.expiry > :cutoff")
+    List<PageVersion> findServableVersions(@Param("cutoff") Instant cutoff);
+
+    // Pages stored after the watermark (SSR snapshot refresh)
+    @Query("SELECT s FROM SsrCache s WHERE s.storedAt > :storedSince")
+    List<SsrCache> findChangedSince(@Param("storedSince") Instant storedSince);
+
+    // Ends the freshness of every page under a route prefix (a LIKE pattern from
+    // prefixPattern); stored_at moves too, so SSR snapshots pick the change up.
+    // On PostgreSQL, idx_ssr_cache_route_pattern lets the LIKE use an index.
+    @Modifying
+    @Transactional
+    @Query("UPDATE SsrCache s SET s.expiry = :now, s.storedAt = :now "
+            + "WHERE s.route LIKE :pattern ESCAPE '\\' AND s.expiry > :now")
+    int expireByRoutePattern(@Param("pattern") String pattern, @Param("now") Instant now);
+
+    // The same for every page carrying a surrogate tag
+    @Modifying
+    @Transactional
+    @Query("UPDATE SsrCache s SET s.expiry = :now, s.storedAt = :now "
+            + "WHERE s.route IN (SELECT t.route FROM SsrCacheTag t WHERE t.tag = :tag) AND s.expiry > :now")
+    int expireByTag(@Param("tag") String tag, @Param("now") Instant now);
+
+    static String prefixPattern(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    interface PageVersion {
+        String getRoute();
+
+        Instant getExpiry();
+
+        Instant getStoredAt();
+
+        String getContentHash();
+    }
+}
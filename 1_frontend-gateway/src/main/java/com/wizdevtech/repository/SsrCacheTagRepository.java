@@ -0,0 +1,25 @@
+package com.wizdevtech.repository;
+
+import com.wizdevtech.model.SsrCacheTag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
+
+public interface SsrCacheTagRepository extends JpaRepository<SsrCacheTag, SsrCacheTag.Key> {
+
+    @Query("SELECT t.route FROM SsrCacheTag t WHERE t.tag = :tag")
+    List<String> findRoutesByTag(@Param("tag") String tag);
+
+    @Query("SELECT t.tag FROM SsrCacheTag t WHERE t.route = :route")
+    List<String> findTagsByRoute(@Param("route") String route);
+
+    // Tags a page no longer carries after a re-render
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SsrCacheTag t WHERE t.route = :route AND t.tag NOT IN :keep")
+    int deleteByRouteExcept(@Param("route") String route, @Param("keep") Collection<String> keep);
+}
@@ -1,24 +1,231 @@
 package com.wizdevtech.scheduler;
 
 
-import com.wizdevtech.repository.ApiResponseRepository;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.wizdevtech.service.ApiResponseCache;
+import com.wizdevtech.service.SsrFallbackService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Incrementally deletes expired rows from {@code api_responses}, {@code ssr_cache}
+ * and {@code gateway_cache_entries}.
+ *
+ * Every tick walks the expired rows of each table in (expiry, key) order and
+ * deletes them in small chunks, each its own short statement, so no single
+ * transaction holds locks across the whole backlog. The number of chunks per
+ * tick follows the measured backlog, between the configured min and max. The
+ * backlog count stops at what one tick can sweep (max chunks of chunk size,
+ * plus one row to tell that more is waiting), so a large backlog never costs a
+ * full range scan per tick.
+ * {@code ssr_cache} rows are kept until their stale-while-revalidate grace ends,
+ * {@code api_responses} rows until their stale-if-error window ends, and
+ * {@code gateway_cache_entries} rows as soon as they expire.
+ * The surrogate tags of swept pages are deleted with them.
+ *
+ * Exported as {@code gateway.sweeper.swept{table}} (rows deleted) and
+ * {@code gateway.sweeper.backlog{table}} (expired rows left after the last
+ * tick, capped as above).
+ */
 @Component
 public class CacheCleanupScheduler {
 
-    @Autowired
-    private ApiResponseRepository repository;
+    private static final Logger log = LoggerFactory.getLogger(CacheCleanupScheduler.class);
 
-    // Runs every hour (3600000 ms)
-    @Scheduled(fixedRate = 3600000)
-    @Transactional
+    private final JdbcTemplate jdbcTemplate;
+    private final SsrFallbackService ssrFallbackService;
+    private final ApiResponseCache apiResponseCache;
+    private final int chunkSize;
+    private final int minChunksPerRun;
+    private final int maxChunksPerRun;
+    private final long backlogCountLimit;
+
+    private final SweepTarget apiResponses = new SweepTarget("api_responses", "id", "expiration", null);
+    private final SweepTarget ssrCache = new SweepTarget("ssr_cache", "route", "expiry", "ssr_cache_tags");
+    private final SweepTarget cacheEntries = new SweepTarget("gateway_cache_entries", "id", "expiration", null);
+
+    public CacheCleanupScheduler(JdbcTemplate jdbcTemplate,
+                                 SsrFallbackService ssrFallbackService,
+                                 ApiResponseCache apiResponseCache,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${gateway.sweeper.chunk-size:500}") int chunkSize,
+                                 @Value("${gateway.sweeper.min-chunks-per-run:1}") int minChunksPerRun,
+                                 @Value("${gateway.sweeper.max-chunks-per-run:40}") int maxChunksPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ssrFallbackService = ssrFallbackService;
+        this.apiResponseCache = apiResponseCache;
+        this.chunkSize = chunkSize;
+        this.minChunksPerRun = minChunksPerRun;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.backlogCountLimit = (long) maxChunksPerRun * chunkSize + 1;
+        for (SweepTarget target : List.of(apiResponses, ssrCache, cacheEntries)) {
+            FunctionCounter.builder("gateway.sweeper.swept", target.swept, LongAdder::sum)
+                    .tag("table", target.table)
+                    .description("Expired rows deleted by the incremental sweeper")
+                    .register(meterRegistry);
+            Gauge.builder("gateway.sweeper.backlog", target.backlog, AtomicLong::get)
+                    .tag("table", target.table)
+                    .description("Expired rows still waiting to be swept after the last run, up to one run's capacity")
+                    .register(meterRegistry);
+        }
+    }
+
+    // Short cadence; each run only takes as many chunks as the backlog calls for
+    @Scheduled(fixedDelayString = "${gateway.sweeper.interval-ms:5000}")
     public void cleanExpiredCache() {
-        repository.deleteExpired(Instant.now());
-        System.out.println("Cleaned expired cache entries.");
+        Instant now = Instant.now();
+        sweep(apiResponses, now.minus(apiResponseCache.staleIfError()));
+        sweep(ssrCache, now.minus(ssrFallbackService.staleGrace()));
+        sweep(cacheEntries, now);
+    }
+
+    private void sweep(SweepTarget target, Instant cutoff) {
+        OffsetDateTime cutoffTime = OffsetDateTime.ofInstant(cutoff, ZoneOffset.UTC);
+        long backlog = countExpired(target, cutoffTime);
+        target.backlog.set(backlog);
+        if (backlog == 0) {
+            return;
+        }
+
+        // Adaptive rate: enough chunks to clear the backlog, within [min, max]
+        long wanted = (backlog + chunkSize - 1) / chunkSize;
+        int chunks = (int) Math.max(minChunksPerRun, Math.min(maxChunksPerRun, wanted));
+
+        long swept = 0;
+        Cursor cursor = null;
+        for (int i = 0; i < chunks; i++) {
+            List<Cursor> keys = nextChunk(target, cutoffTime, cursor);
+            if (keys.isEmpty()) {
+                break;
+            }
+            swept += deleteChunk(target, cutoffTime, keys);
+            cursor = keys.get(keys.size() - 1);
+            if (keys.size() < chunkSize) {
+                break;
+            }
+        }
+
+        target.swept.add(swept);
+        target.backlog.set(Math.max(0, backlog - swept));
+        if (swept > 0) {
+            log.info("Swept {} expired rows from {} ({} chunks max, backlog {})",
+                    swept, target.table, chunks, target.backlog.get());
+        }
+    }
+
+    // Counts at most backlogCountLimit rows; only that many decide the number of chunks
+    private long countExpired(SweepTarget target, OffsetDateTime cutoff) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT 1 FROM " + target.table + " WHERE " + target.expiryColumn + " < ?"
+                        + " LIMIT ?) expired",
+                Long.class, cutoff, backlogCountLimit);
+        return count == null ? 0 : count;
+    }
+
+    // Keyset pagination on (expiry, key): each chunk starts strictly after the previous one
+    private List<Cursor> nextChunk(SweepTarget target, OffsetDateTime cutoff, Cursor after) {
+        String sql = "SELECT " + target.keyColumn + ", " + target.expiryColumn
+                + " FROM " + target.table
+                + " WHERE " + target.expiryColumn + " < ?"
+                + (after == null ? "" : " AND (" + target.expiryColumn + " > ? OR ("
+                        + target.expiryColumn + " = ? AND " + target.keyColumn + " > ?))")
+                + " ORDER BY " + target.expiryColumn + ", " + target.keyColumn
+                + " LIMIT ?";
+        Object[] args = after == null
+                ? new Object[]{cutoff, chunkSize}
+                : new Object[]{cutoff, after.expiry, after.expiry, after.key, chunkSize};
+        return jdbcTemplate.query(sql, (ResultSet rs, int rowNum) -> toCursor(rs), args);
+    }
+
+    private int deleteChunk(SweepTarget target, OffsetDateTime cutoff, List<Cursor> keys) {
+        String placeholders = String.join(", ", Collections.nCopies(keys.size(), "?"));
+        List<Object> args = new ArrayList<>(keys.size() + 1);
+        for (Cursor key : keys) {
+            args.add(key.key);
+        }
+        // Re-check expiry so rows refreshed since the select are kept
+        args.add(cutoff);
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM " + target.table + " WHERE " + target.keyColumn + " IN (" + placeholders + ")"
+                        + " AND " + target.expiryColumn + " < ?",
+                args.toArray());
+        if (deleted > 0 && target.dependentTable != null) {
+            args.remove(args.size() - 1);
+            jdbcTemplate.update(
+                    "DELETE FROM " + target.dependentTable + " WHERE " + target.keyColumn + " IN (" + placeholders + ")"
+                            + " AND NOT EXISTS (SELECT 1 FROM " + target.table + " t WHERE t." + target.keyColumn
+                            + " = " + target.dependentTable + "." + target.keyColumn + ")",
+                    args.toArray());
+        }
+        return deleted;
+    }
+
+    private static Cursor toCursor(ResultSet rs) throws SQLException {
+        return new Cursor(rs.getString(1), rs.getObject(2, OffsetDateTime.class));
+    }
+
+    public long sweptCount(String table) {
+        return target(table).swept.sum();
+    }
+
+    /** Expired rows still waiting to be swept, as of the last run; a lower bound for large backlogs. */
+    public long backlog(String table) {
+        return target(table).backlog.get();
+    }
+
+    private SweepTarget target(String table) {
+        if (apiResponses.table.equals(table)) {
+            return apiResponses;
+        }
+        if (ssrCache.table.equals(table)) {
+            return ssrCache;
+        }
+        if (cacheEntries.table.equals(table)) {
+            return cacheEntries;
+        }
+        throw new IllegalArgumentException("Unknown cache table: " + table);
+    }
+
+    private static final class SweepTarget {
+        final String table;
+        final String keyColumn;
+        final String expiryColumn;
+        // Rows keyed by the same column that go with the swept ones, or null
+        final String dependentTable;
+        final LongAdder swept = new LongAdder();
+        final AtomicLong backlog = new AtomicLong();
+
+        SweepTarget(String table, String keyColumn, String expiryColumn, String dependentTable) {
+            this.table = table;
+            this.keyColumn = keyColumn;
+            this.expiryColumn = expiryColumn;
+            this.dependentTable = dependentTable;
+        }
+    }
+
+    private static final class Cursor {
+        final String key;
+        final OffsetDateTime expiry;
+
+        Cursor(String key, OffsetDateTime expiry) {
+            this.key = key;
+            this.expiry = expiry;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,321 @@
+package com.wizdevtech.service;
+
+import com.wizdevtech.model.ApiResponse;
+import com.wizdevtech.repository.ApiResponseRepository;
+import com.wizdevtech.service.cache.CacheInvalidationBus;
+import com.wizdevtech.service.cache.CacheMeterBinder;
+import com.wizdevtech.service.cache.CacheMetrics;
+import com.wizdevtech.service.cache.CacheRegistry;
+import com.wizdevtech.service.cache.CacheStore;
+import com.wizdevtech.util.ContentCodings;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache for {@link ApiResponse} rows.
+ *
+ * L1 is the {@code api_responses} cache from the {@link CacheRegistry} (by default
+ * a bounded in-process cache weighted by payload size), with each entry's TTL taken
+ * from {@link ApiResponse#getExpiry()}. L2 is the {@code api_responses} table,
+ * written behind in batches by {@link ApiResponseWriteBehind}. Hot keys are
+ * answered from L1 without any database I/O; L2 hits are promoted into L1.
+ *
+ * Misses filled through {@link #getOrLoad} are coalesced per key, so a burst of
+ * requests for a cold key results in a single load and a single write; both
+ * outcomes are counted in {@code gateway.cache.miss.fills{cache,result=loaded|coalesced}}.
+ *
+ * Once a write reaches the table, other gateway nodes drop their L1 copy of the
+ * key through the {@link CacheInvalidationBus} and re-read it from L2.
+ *
+ * Payloads of at least {@code compress-threshold-bytes} are stored LZ4-compressed,
+ * in L1 and in the table alike. Payloads over {@code max-payload-bytes} are not
+ * cached at all: they are returned to the caller and counted in
+ * {@code gateway.cache.rejected{cache=api_responses,reason=too_large}}.
+ */
+@Service
+public class ApiResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiResponseCache.class);
+
+    public static final String CACHE_NAME = "api_responses";
+
+    private final ApiResponseRepository repository;
+    private final CacheStore local;
+    private final SingleFlight<String, ApiResponse> missLoader = new SingleFlight<>();
+    private final ApiResponseWriteBehind writeBehind;
+    private final CacheInvalidationBus invalidationBus;
+    private final CacheAccessTracker accessTracker;
+    private final Duration staleIfError;
+    private final long compressThresholdBytes;
+    private final long maxPayloadBytes;
+    private final LongAdder rejectedPuts = new LongAdder();
+
+    public ApiResponseCache(ApiResponseRepository repository,
+                            ApiResponseWriteBehind writeBehind,
+                            CacheRegistry cacheRegistry,
+                            CacheInvalidationBus invalidationBus,
+                            CacheAccessTracker accessTracker,
+                            CacheMeterBinder cacheMeterBinder,
+                            MeterRegistry meterRegistry,
+                            @Value("${gateway.cache.api-responses.stale-if-error-seconds:3600}") long staleIfErrorSeconds,
+                            @Value("${gateway.cache.api-responses.compress-threshold-bytes:8192}") long compressThresholdBytes,
+                            @Value("${gateway.cache.api-responses.max-payload-bytes:1048576}") long maxPayloadBytes) {
+        this.repository = repository;
+        this.writeBehind = writeBehind;
+        this.invalidationBus = invalidationBus;
+        this.accessTracker = accessTracker;
+        this.staleIfError = Duration.ofSeconds(staleIfErrorSeconds);
+        this.compressThresholdBytes = compressThresholdBytes;
+        this.maxPayloadBytes = maxPayloadBytes;
+        this.local = cacheRegistry.store(CACHE_NAME);
+        // Announce only after the upsert commits, so other nodes re-read the new row
+        writeBehind.onWritten(rows -> invalidationBus.invalidateRemote(CACHE_NAME,
+                rows.stream().map(ApiResponse::getId).toList()));
+        FunctionCounter.builder("gateway.cache.rejected", rejectedPuts, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "reason", "too_large")
+                .description("Responses not cached because they were over the size limit")
+                .register(meterRegistry);
+        cacheMeterBinder.bindMissFills(CACHE_NAME, missLoader);
+    }
+
+    /**
+     * Looks up a response, trying L1 first and falling back to the database.
+     * Expired database rows are treated as a miss.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ApiResponse> get(String id) {
+        ApiResponse hit = (ApiResponse) local.get(id);
+        if (hit != null) {
+            accessTracker.recordApiResponse(id);
+            return Optional.of(hit);
+        }
+
+        Optional<ApiResponse> stored = repository.findById(id)
+                .filter(response -> !isExpired(response, Instant.now()));
+        stored.ifPresent(response -> {
+            accessTracker.recordApiResponse(id);
+            putLocal(response);
+        });
+        return stored;
+    }
+
+    /**
+     * Looks up a response in L1 only, without touching the database; what the
+     * gateway can still answer while database work is being shed.
+     */
+    public Optional<ApiResponse> getLocal(String id) {
+        ApiResponse hit = (ApiResponse) local.get(id);
+        if (hit != null) {
+            accessTracker.recordApiResponse(id);
+        }
+        return Optional.ofNullable(hit);
+    }
+
+    /**
+     * {@link #getLocal} for many ids; ids not in L1 are absent from the result.
+     */
+    public Map<String, ApiResponse> getAllLocal(Collection<String> ids) {
+        Map<String, ApiResponse> found = new HashMap<>();
+        for (String id : ids) {
+            getLocal(id).ifPresent(hit -> found.put(id, hit));
+        }
+        return found;
+    }
+
+    /**
+     * Looks up many responses at once: L1 first, then a single {@code findAllById}
+     * for the rest. Ids with no unexpired response are absent from the result.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, ApiResponse> getAll(Collection<String> ids) {
+        Map<String, ApiResponse> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String id : ids) {
+            ApiResponse hit = (ApiResponse) local.get(id);
+            if (hit != null) {
+                found.put(id, hit);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Instant now = Instant.now();
+            for (ApiResponse response : repository.findAllById(missing)) {
+                if (!isExpired(response, now)) {
+                    putLocal(response);
+                    found.put(response.getId(), response);
+                }
+            }
+        }
+        found.keySet().forEach(accessTracker::recordApiResponse);
+        return found;
+    }
+
+    /**
+     * Returns the cached response for {@code id}, or loads and stores it on a miss.
+     * Concurrent misses for the same id wait for one shared load instead of each
+     * calling {@code loader} and writing the row.
+     */
+    public ApiResponse getOrLoad(String id, String apiName, Duration ttl, Supplier<String> loader) {
+        Optional<ApiResponse> cached = get(id);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        return loadMiss(id, apiName, ttl, loader);
+    }
+
+    /**
+     * The miss half of {@link #getOrLoad}, for callers that have already looked the
+     * id up with {@link #get}: skips the database read and only re-checks L1 once
+     * inside the shared load.
+     */
+    public ApiResponse loadMiss(String id, String apiName, Duration ttl, Supplier<String> loader) {
+        return missLoader.load(id, () -> {
+            // A flight that finished just before this one started may already have filled L1
+            ApiResponse filled = (ApiResponse) local.get(id);
+            if (filled != null) {
+                return filled;
+            }
+            long start = System.nanoTime();
+            try {
+                ApiResponse loaded = put(id, apiName, loader.get(), Instant.now().plus(ttl));
+                local.metrics().recordLoad(System.nanoTime() - start, true);
+                return loaded;
+            } catch (RuntimeException e) {
+                local.metrics().recordLoad(System.nanoTime() - start, false);
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Stores a response in L1 immediately and queues the database upsert.
+     * Responses over the size limit are returned without being stored.
+     */
+    public ApiResponse put(String id, String apiName, String responseJson, Instant expiry) {
+        ApiResponse response = new ApiResponse(id, apiName, responseJson, expiry);
+        long bytes = ContentCodings.utf8Length(responseJson);
+        if (maxPayloadBytes > 0 && bytes > maxPayloadBytes) {
+            rejectedPuts.increment();
+            log.debug("Not caching {}: {} bytes is over the {} byte limit", id, bytes, maxPayloadBytes);
+            return response;
+        }
+        if (compressThresholdBytes > 0 && bytes >= compressThresholdBytes) {
+            response.compress();
+        }
+        putLocal(response);
+        writeBehind.enqueue(response);
+        return response;
+    }
+
+    /**
+     * Returns the last stored response for {@code id} even if it has expired, as
+     * long as it is within the stale-if-error window. Used when the upstream
+     * cannot be reached; never promoted into L1.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ApiResponse> findStale(String id) {
+        Instant oldest = Instant.now().minus(staleIfError);
+        return repository.findById(id)
+                .filter(response -> response.getExpiry() == null || response.getExpiry().isAfter(oldest));
+    }
+
+    /**
+     * {@link #findStale} for many ids, in one query.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, ApiResponse> findAllStale(Collection<String> ids) {
+        Instant oldest = Instant.now().minus(staleIfError);
+        Map<String, ApiResponse> found = new HashMap<>();
+        for (ApiResponse response : repository.findAllById(ids)) {
+            if (response.getExpiry() == null || response.getExpiry().isAfter(oldest)) {
+                found.put(response.getId(), response);
+            }
+        }
+        return found;
+    }
+
+    /** How long expired rows are kept for {@link #findStale}. */
+    public Duration staleIfError() {
+        return staleIfError;
+    }
+
+    /**
+     * Loads a row read from the database into L1 without writing it back;
+     * expired rows are ignored.
+     */
+    public void warm(ApiResponse response) {
+        if (!isExpired(response, Instant.now())) {
+            putLocal(response);
+        }
+    }
+
+    /**
+     * Drops a key from L1 on every gateway node; the database row is left untouched.
+     */
+    public void invalidate(String id) {
+        invalidationBus.invalidate(CACHE_NAME, id);
+    }
+
+    /**
+     * Drops a key from this node's L1 only; the database row is left untouched.
+     */
+    public void invalidateLocal(String id) {
+        local.invalidate(id);
+    }
+
+    public void invalidateAllLocal() {
+        local.clear();
+        log.debug("Cleared local api_responses cache");
+    }
+
+    public CacheMetrics metrics() {
+        return local.metrics();
+    }
+
+    public long estimatedSize() {
+        return local.estimatedSize();
+    }
+
+    /** Responses {@link #put} refused to store because of their size. */
+    public long rejectedPuts() {
+        return rejectedPuts.sum();
+    }
+
+    /** Misses that actually ran the loader. */
+    public long loadedMisses() {
+        return missLoader.leaderCount();
+    }
+
+    /** Misses that waited on another request's load instead of running their own. */
+    public long coalescedMisses() {
+        return missLoader.coalescedCount();
+    }
+
+    static boolean isExpired(ApiResponse response, Instant now) {
+        return response.getExpiry() != null && !response.getExpiry().isAfter(now);
+    }
+
+    private void putLocal(ApiResponse response) {
+        // Rows without an expiry use the cache's configured TTL
+        Duration ttl = response.getExpiry() == null ? null : Duration.between(Instant.now(), response.getExpiry());
+        local.put(response.getId(), response, ttl);
+    }
+}
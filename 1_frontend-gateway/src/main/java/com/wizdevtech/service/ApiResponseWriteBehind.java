@@ -0,0 +1,324 @@
+package com.wizdevtech.service;
+
+import com.wizdevtech.model.ApiResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Buffers {@code api_responses} writes and flushes them in batches.
+ *
+ * Each flush is one JDBC batch of upserts ({@code INSERT ... ON CONFLICT DO UPDATE}
+ * on PostgreSQL, {@code MERGE ... KEY} elsewhere), with repeated writes of the
+ * same id inside a batch collapsed to the latest one. The queue is bounded: when
+ * it is full, writers wait briefly and then flush inline, which throttles them to
+ * the database's pace instead of growing the heap. Pending writes are flushed
+ * when the context shuts down, after the web server has stopped; writes made
+ * while the flusher is not running go straight to the database.
+ *
+ * Listeners registered with {@link #onWritten} see each queued batch once it
+ * is committed.
+ */
+@Component
+public class ApiResponseWriteBehind implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiResponseWriteBehind.class);
+
+    private static final String POSTGRES_UPSERT =
+            "INSERT INTO api_responses (id, api_name, response_json, expiration, content_hash, stored_at, response_lz4) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (id) DO UPDATE SET api_name = EXCLUDED.api_name, "
+                    + "response_json = EXCLUDED.response_json, response_lz4 = EXCLUDED.response_lz4, "
+                    + "expiration = EXCLUDED.expiration, "
+                    + "content_hash = EXCLUDED.content_hash, stored_at = EXCLUDED.stored_at";
+
+    private static final String MERGE_UPSERT =
+            "MERGE INTO api_responses (id, api_name, response_json, expiration, content_hash, stored_at, response_lz4) "
+                    + "KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    /** Lifecycle phase: below the web server's start/stop phase (DEFAULT_PHASE - 2048). */
+    public static final int PHASE = DEFAULT_PHASE - 4096;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<ApiResponse> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder inlineFlushes = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder writeThroughs = new LongAdder();
+
+    private final List<Consumer<List<ApiResponse>>> writeListeners = new CopyOnWriteArrayList<>();
+
+    private volatile String upsertSql;
+    private volatile boolean running;
+    private Thread flusher;
+
+    public ApiResponseWriteBehind(JdbcTemplate jdbcTemplate,
+                                  @Value("${gateway.cache.write-behind.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${gateway.cache.write-behind.batch-size:500}") int batchSize,
+                                  @Value("${gateway.cache.write-behind.flush-interval-ms:200}") long flushIntervalMs,
+                                  @Value("${gateway.cache.write-behind.offer-timeout-ms:50}") long offerTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+    }
+
+    /**
+     * Queues a row for the next batch. Blocks for at most the offer timeout when
+     * the queue is full, then flushes on the caller's thread. When the flusher is
+     * not running the row is written through instead.
+     */
+    public void enqueue(ApiResponse response) {
+        if (!running) {
+            writeThrough(response);
+            return;
+        }
+        try {
+            while (!queue.offer(response, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                inlineFlushes.increment();
+                flush();
+            }
+            enqueued.increment();
+            // stop() may have made its final flush between the check above and the offer
+            if (!running) {
+                flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed.increment();
+            log.warn("Interrupted while queueing cache write for {}", response.getId());
+        }
+    }
+
+    /**
+     * Registers a callback for rows written from the queue; direct
+     * {@link #writeNow} writes are not reported.
+     */
+    public void onWritten(Consumer<List<ApiResponse>> listener) {
+        writeListeners.add(listener);
+    }
+
+    /**
+     * Writes everything queued so far; returns the number of rows written.
+     */
+    public int flush() {
+        int total = 0;
+        flushLock.lock();
+        try {
+            List<ApiResponse> drained = new ArrayList<>(batchSize);
+            while (queue.drainTo(drained, batchSize) > 0) {
+                total += writeBatch(drained, true);
+                drained.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+        return total;
+    }
+
+    /**
+     * Upserts rows synchronously, bypassing the queue; returns the number written.
+     */
+    public int writeNow(List<ApiResponse> rows) {
+        flushLock.lock();
+        try {
+            return writeBatch(rows, false);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writeThrough(ApiResponse response) {
+        writeThroughs.increment();
+        flushLock.lock();
+        try {
+            writeBatch(List.of(response), true);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int writeBatch(List<ApiResponse> drained, boolean notifyListeners) {
+        // Later writes of the same id win; one statement per distinct id
+        Map<String, ApiResponse> latest = new LinkedHashMap<>();
+        for (ApiResponse response : drained) {
+            latest.remove(response.getId());
+            latest.put(response.getId(), response);
+        }
+        List<ApiResponse> rows = new ArrayList<>(latest.values());
+
+        try {
+            jdbcTemplate.batchUpdate(upsertSql(), new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ApiResponse row = rows.get(i);
+                    ps.setString(1, row.getId());
+                    ps.setString(2, row.getApiName());
+                    // Exactly one of the two payload columns is set
+                    ps.setString(3, row.isCompressed() ? null : row.getResponseJson());
+                    setInstant(ps, 4, row.getExpiry());
+                    ps.setString(5, row.getContentHash());
+                    setInstant(ps, 6, row.getStoredAt());
+                    ps.setBytes(7, row.getResponseLz4());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return rows.size();
+                }
+            });
+            batches.increment();
+            written.add(rows.size());
+        } catch (RuntimeException e) {
+            // Cache rows can be regenerated; drop the batch rather than block writers
+            failed.add(rows.size());
+            log.error("Failed to flush {} cached responses: {}", rows.size(), e.getMessage());
+            return 0;
+        }
+
+        if (notifyListeners) {
+            for (Consumer<List<ApiResponse>> listener : writeListeners) {
+                try {
+                    listener.accept(rows);
+                } catch (RuntimeException e) {
+                    log.warn("Cache write listener failed: {}", e.getMessage());
+                }
+            }
+        }
+        return rows.size();
+    }
+
+    private static void setInstant(PreparedStatement ps, int index, Instant value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.TIMESTAMP_WITH_TIMEZONE);
+        } else {
+            ps.setObject(index, OffsetDateTime.ofInstant(value, ZoneOffset.UTC));
+        }
+    }
+
+    private String upsertSql() {
+        String sql = upsertSql;
+        if (sql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+                DatabaseMetaData metaData = connection.getMetaData();
+                return JdbcUtils.commonDatabaseName(metaData.getDatabaseProductName());
+            });
+            sql = "PostgreSQL".equals(product) ? POSTGRES_UPSERT : MERGE_UPSERT;
+            upsertSql = sql;
+        }
+        return sql;
+    }
+
+    private void runFlusher() {
+        while (running) {
+            try {
+                // All draining goes through flush() under one lock, so batches land in queue order
+                Thread.sleep(flushIntervalMs);
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Cache write-behind flusher error", e);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = new Thread(this::runFlusher, "api-response-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public void stop() {
+        // The flusher notices within one interval; no interrupt so an in-progress batch completes
+        running = false;
+        if (flusher != null) {
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        int remaining = flush();
+        log.info("Flushed {} pending cache writes on shutdown", remaining);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Starts before and stops after the web server, so requests still draining
+    // during shutdown find the flusher running
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    public long enqueuedCount() {
+        return enqueued.sum();
+    }
+
+    public long writtenCount() {
+        return written.sum();
+    }
+
+    public long batchCount() {
+        return batches.sum();
+    }
+
+    /** Times a writer found the queue full and flushed on its own thread. */
+    public long inlineFlushCount() {
+        return inlineFlushes.sum();
+    }
+
+    /** Rows written directly because the flusher was not running. */
+    public long writeThroughCount() {
+        return writeThroughs.sum();
+    }
+
+    public long failedCount() {
+        return failed.sum();
+    }
+}
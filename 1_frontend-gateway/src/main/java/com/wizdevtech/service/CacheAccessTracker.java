@@ -0,0 +1,121 @@
+package com.wizdevtech.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts reads of cached rows and periodically adds them to the
+ * {@code hit_count} / {@code last_accessed} columns of {@code api_responses}
+ * and {@code ssr_cache}, one JDBC batch per table.
+ *
+ * Counts are approximate: a hit racing with a flush may be dropped, and keys
+ * first seen once {@code max-tracked-keys} are pending are not counted until
+ * the next flush. The columns only rank rows for startup warm-up.
+ */
+@Component
+public class CacheAccessTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheAccessTracker.class);
+
+    private static final String API_RESPONSES_UPDATE =
+            "UPDATE api_responses SET hit_count = COALESCE(hit_count, 0) + ?, last_accessed = ? WHERE id = ?";
+
+    private static final String SSR_CACHE_UPDATE =
+            "UPDATE ssr_cache SET hit_count = COALESCE(hit_count, 0) + ?, last_accessed = ? WHERE route = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxTrackedKeys;
+    private final ConcurrentMap<String, LongAdder> apiResponseHits = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> ssrHits = new ConcurrentHashMap<>();
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+
+    public CacheAccessTracker(JdbcTemplate jdbcTemplate,
+                              @Value("${gateway.access-tracking.max-tracked-keys:100000}") int maxTrackedKeys) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxTrackedKeys = maxTrackedKeys;
+    }
+
+    public void recordApiResponse(String id) {
+        record(apiResponseHits, id);
+    }
+
+    public void recordSsrPage(String route) {
+        record(ssrHits, route);
+    }
+
+    /**
+     * Writes pending counts; returns the number of rows updated.
+     */
+    @Scheduled(fixedDelayString = "${gateway.access-tracking.flush-interval-ms:1000}")
+    public int flush() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        return flush(apiResponseHits, API_RESPONSES_UPDATE, now) + flush(ssrHits, SSR_CACHE_UPDATE, now);
+    }
+
+    public int pendingKeys() {
+        return apiResponseHits.size() + ssrHits.size();
+    }
+
+    /** Hits not counted because too many keys were pending. */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public long flushedRowCount() {
+        return flushedRows.sum();
+    }
+
+    private void record(ConcurrentMap<String, LongAdder> hits, String key) {
+        LongAdder counter = hits.get(key);
+        if (counter == null) {
+            if (hits.size() >= maxTrackedKeys) {
+                dropped.increment();
+                return;
+            }
+            counter = hits.computeIfAbsent(key, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    private int flush(ConcurrentMap<String, LongAdder> hits, String sql, OffsetDateTime now) {
+        if (hits.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> rows = new ArrayList<>(hits.size());
+        for (String key : hits.keySet()) {
+            LongAdder counter = hits.remove(key);
+            if (counter != null) {
+                rows.add(new Object[]{counter.sum(), now, key});
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate(sql, rows);
+            flushedRows.add(rows.size());
+            return rows.size();
+        } catch (RuntimeException e) {
+            // Statistics only; losing one interval just makes warm-up slightly less accurate
+            log.warn("Failed to record access counts for {} rows: {}", rows.size(), e.getMessage());
+            return 0;
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
@@ -2,13 +2,16 @@ package com.wizdevtech.service;
 
 
 import com.wizdevtech.model.ApiResponse;
+import com.wizdevtech.service.cache.CacheInvalidationBus;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import javax.persistence.EntityManager;
-import javax.persistence.PersistenceContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -18,10 +21,22 @@ public class CacheService {
 
     private static final Logger log = LoggerFactory.getLogger(CacheService.class);
 
+    // Kept apart from api_responses, whose values are ApiResponse rows keyed by product id
+    public static final String TEST_CACHE = "test_responses";
+
+    private static final String TEST_KEY_PREFIX = "test-";
+
     @PersistenceContext
     private EntityManager entityManager;
 
-    @Cacheable(value = "api_responses", key = "#key")
+    private final CacheInvalidationBus invalidationBus;
+
+    public CacheService(CacheInvalidationBus invalidationBus) {
+        this.invalidationBus = invalidationBus;
+    }
+
+    // Backed by whichever provider gateway.cache.caches[test_responses] selects
+    @Cacheable(value = TEST_CACHE, key = "#key")
     public String getFromCache(String key) {
         String response = "Generated response for: " + key + " | Time: " + LocalDateTime.now();
         log.info("❗ Cache miss - Generating new response for key: {}", key);
@@ -30,16 +45,30 @@ public class CacheService {
 
     public List<ApiResponse> getFromDatabase(String key) {
         return entityManager.createQuery(
-                        "SELECT a FROM ApiResponse a WHERE a.key = :key", ApiResponse.class)
+                        "SELECT a FROM ApiResponse a WHERE a.id = :key", ApiResponse.class)
                 .setParameter("key", key)
                 .getResultList();
     }
 
     public int clearTestData() {
         int deleted = entityManager.createQuery(
-                        "DELETE FROM ApiResponse WHERE key LIKE 'test-%'")
+                        "DELETE FROM ApiResponse a WHERE a.id LIKE :prefix")
+                .setParameter("prefix", TEST_KEY_PREFIX + "%")
                 .executeUpdate();
+        // Every gateway node may hold copies of the deleted rows; dropping them before
+        // the DELETE commits would let a concurrent read load them straight back
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidateTestData();
+            }
+        });
         log.info("🧹 Deleted {} test entries", deleted);
         return deleted;
     }
-}
\ No newline at end of file
+
+    private void invalidateTestData() {
+        invalidationBus.invalidatePrefix(TEST_CACHE, TEST_KEY_PREFIX);
+        invalidationBus.invalidatePrefix(ApiResponseCache.CACHE_NAME, TEST_KEY_PREFIX);
+    }
+}
@@ -0,0 +1,163 @@
+package com.wizdevtech.service;
+
+import com.wizdevtech.model.ApiResponse;
+import com.wizdevtech.model.SsrCache;
+import com.wizdevtech.repository.ApiResponseRepository;
+import com.wizdevtech.repository.SsrCacheRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills the in-process caches from the database before the gateway takes traffic.
+ *
+ * The hottest rows of {@code api_responses} and {@code ssr_cache} (by
+ * {@code last_accessed}, then {@code hit_count}, as kept by
+ * {@link CacheAccessTracker}) are read in pages on a small pool, all pages of
+ * both tables in parallel. Spring Boot reports the application ready only after
+ * runners return, so readiness waits for warm-up or {@code gateway.warmup.timeout-ms},
+ * whichever comes first; unfinished pages are cancelled at the timeout.
+ */
+@Component
+public class CacheWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmup.class);
+
+    private final ApiResponseRepository apiResponseRepository;
+    private final SsrCacheRepository ssrCacheRepository;
+    private final ApiResponseCache apiResponseCache;
+    private final SsrFallbackService ssrFallbackService;
+    private final boolean enabled;
+    private final int apiResponseLimit;
+    private final int ssrPageLimit;
+    private final int pageSize;
+    private final int threads;
+    private final long timeoutMs;
+
+    public CacheWarmup(ApiResponseRepository apiResponseRepository,
+                       SsrCacheRepository ssrCacheRepository,
+                       ApiResponseCache apiResponseCache,
+                       SsrFallbackService ssrFallbackService,
+                       @Value("${gateway.warmup.enabled:true}") boolean enabled,
+                       @Value("${gateway.warmup.api-responses:5000}") int apiResponseLimit,
+                       @Value("${gateway.warmup.ssr-pages:500}") int ssrPageLimit,
+                       @Value("${gateway.warmup.page-size:250}") int pageSize,
+                       @Value("${gateway.warmup.threads:4}") int threads,
+                       @Value("${gateway.warmup.timeout-ms:15000}") long timeoutMs) {
+        this.apiResponseRepository = apiResponseRepository;
+        this.ssrCacheRepository = ssrCacheRepository;
+        this.apiResponseCache = apiResponseCache;
+        this.ssrFallbackService = ssrFallbackService;
+        this.enabled = enabled;
+        this.apiResponseLimit = apiResponseLimit;
+        this.ssrPageLimit = ssrPageLimit;
+        this.pageSize = pageSize;
+        this.threads = threads;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            warm();
+        }
+    }
+
+    /**
+     * Runs the warm-up and waits for it, up to the timeout.
+     */
+    public Result warm() {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        Instant ssrCutoff = now.minus(ssrFallbackService.staleGrace());
+        AtomicInteger apiResponses = new AtomicInteger();
+        AtomicInteger ssrPages = new AtomicInteger();
+
+        List<Callable<Void>> pages = new ArrayList<>();
+        for (int page = 0; page * pageSize < apiResponseLimit; page++) {
+            PageRequest request = PageRequest.of(page, pageSize);
+            int take = Math.min(pageSize, apiResponseLimit - page * pageSize);
+            pages.add(() -> {
+                List<ApiResponse> rows = apiResponseRepository.findWarmable(now, request);
+                rows.stream().limit(take).forEach(row -> {
+                    apiResponseCache.warm(row);
+                    apiResponses.incrementAndGet();
+                });
+                return null;
+            });
+        }
+        // With the snapshot on, SSR pages are served from it and never from the in-process tier
+        int ssrLimit = ssrFallbackService.snapshotEnabled() ? 0 : ssrPageLimit;
+        for (int page = 0; page * pageSize < ssrLimit; page++) {
+            PageRequest request = PageRequest.of(page, pageSize);
+            int take = Math.min(pageSize, ssrLimit - page * pageSize);
+            pages.add(() -> {
+                List<SsrCache> rows = ssrCacheRepository.findWarmable(ssrCutoff, request);
+                rows.stream().limit(take).forEach(row -> {
+                    ssrFallbackService.warm(row);
+                    ssrPages.incrementAndGet();
+                });
+                return null;
+            });
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        boolean complete = true;
+        try {
+            for (Future<Void> page : pool.invokeAll(pages, timeoutMs, TimeUnit.MILLISECONDS)) {
+                try {
+                    page.get();
+                } catch (CancellationException e) {
+                    complete = false;
+                } catch (ExecutionException e) {
+                    // A failed page only means a colder start
+                    complete = false;
+                    log.warn("Cache warm-up page failed: {}", e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            complete = false;
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Result result = new Result(apiResponses.get(), ssrPages.get(), complete,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        if (complete) {
+            log.info("Cache warm-up loaded {} api responses and {} SSR pages in {} ms",
+                    result.apiResponses(), result.ssrPages(), result.elapsedMs());
+        } else {
+            log.warn("Cache warm-up incomplete after {} ms; loaded {} api responses and {} SSR pages",
+                    result.elapsedMs(), result.apiResponses(), result.ssrPages());
+        }
+        return result;
+    }
+
+    /**
+     * Rows loaded into the in-process tier and whether every page finished in time.
+     */
+    public record Result(int apiResponses, int ssrPages, boolean complete, long elapsedMs) {
+    }
+}
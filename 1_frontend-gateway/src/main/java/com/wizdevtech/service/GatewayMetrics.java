@@ -0,0 +1,104 @@
+package com.wizdevtech.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Request-level cache instrumentation for the gateway endpoints.
+ *
+ * <ul>
+ *   <li>{@code gateway.cache.lookup{cache, route, result=hit|miss|stale|shed}}: time to
+ *   answer a request from the cache tier, as a histogram; its count is the
+ *   per-route hit/miss/stale counter</li>
+ *   <li>{@code gateway.cache.payload{cache, route, encoding}}: bytes of cached
+ *   bodies sent</li>
+ *   <li>{@code gateway.cache.write.behind.rows{result=enqueued|written|write_through|failed}},
+ *   {@code gateway.cache.write.behind.batches}, {@code gateway.cache.write.behind.inline.flushes}
+ *   and {@code gateway.cache.write.behind.pending}: the {@link ApiResponseWriteBehind} queue</li>
+ * </ul>
+ * {@code route} is the endpoint's path template, never the raw path, to keep the
+ * number of series bounded. Store-level meters come from
+ * {@link com.wizdevtech.service.cache.CacheMeterBinder}, the sweeper's from
+ * {@link com.wizdevtech.scheduler.CacheCleanupScheduler}.
+ */
+@Component
+public class GatewayMetrics {
+
+    public static final String HIT = "hit";
+    public static final String MISS = "miss";
+    public static final String STALE = "stale";
+    /** A miss rejected by admission control without a lookup. */
+    public static final String SHED = "shed";
+
+    private final MeterRegistry registry;
+    private final Meter.MeterProvider<Timer> lookups;
+    private final Meter.MeterProvider<DistributionSummary> payloads;
+
+    public GatewayMetrics(MeterRegistry registry, ApiResponseWriteBehind writeBehind) {
+        this.registry = registry;
+        this.lookups = Timer.builder("gateway.cache.lookup")
+                .description("Time to answer a request from the cache tier")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(50_000))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .withRegistry(registry);
+        this.payloads = DistributionSummary.builder("gateway.cache.payload")
+                .description("Size of cached response bodies sent")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(64.0)
+                .maximumExpectedValue(8.0 * 1024 * 1024)
+                .withRegistry(registry);
+        bindWriteBehind(writeBehind);
+    }
+
+    private void bindWriteBehind(ApiResponseWriteBehind writeBehind) {
+        writeBehindRows(writeBehind, "enqueued", ApiResponseWriteBehind::enqueuedCount,
+                "Rows queued for the next batch");
+        writeBehindRows(writeBehind, "written", ApiResponseWriteBehind::writtenCount,
+                "Rows committed by an upsert batch");
+        writeBehindRows(writeBehind, "write_through", ApiResponseWriteBehind::writeThroughCount,
+                "Rows written directly because the flusher was not running");
+        writeBehindRows(writeBehind, "failed", ApiResponseWriteBehind::failedCount,
+                "Rows dropped because their batch failed or the writer was interrupted");
+        FunctionCounter.builder("gateway.cache.write.behind.batches", writeBehind, ApiResponseWriteBehind::batchCount)
+                .description("Upsert batches committed")
+                .register(registry);
+        FunctionCounter.builder("gateway.cache.write.behind.inline.flushes", writeBehind,
+                        ApiResponseWriteBehind::inlineFlushCount)
+                .description("Times a writer found the queue full and flushed on its own thread")
+                .register(registry);
+        Gauge.builder("gateway.cache.write.behind.pending", writeBehind, ApiResponseWriteBehind::pending)
+                .description("Rows waiting in the queue")
+                .register(registry);
+    }
+
+    private void writeBehindRows(ApiResponseWriteBehind writeBehind, String result,
+                                 ToDoubleFunction<ApiResponseWriteBehind> count, String description) {
+        FunctionCounter.builder("gateway.cache.write.behind.rows", writeBehind, count)
+                .tag("result", result)
+                .description(description)
+                .register(registry);
+    }
+
+    public Timer.Sample startLookup() {
+        return Timer.start(registry);
+    }
+
+    public void recordLookup(Timer.Sample sample, String cache, String route, String result) {
+        sample.stop(lookups.withTags(Tags.of("cache", cache, "route", route, "result", result)));
+    }
+
+    public void recordPayload(String cache, String route, String encoding, long bytes) {
+        payloads.withTags(Tags.of("cache", cache, "route", route, "encoding", encoding)).record(bytes);
+    }
+}
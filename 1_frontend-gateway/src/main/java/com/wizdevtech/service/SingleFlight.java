@@ -0,0 +1,77 @@
+package com.wizdevtech.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key.
+ *
+ * The first caller for a key (the leader) runs the loader on its own thread;
+ * callers arriving while that load is in flight wait on the leader's future
+ * instead of running the loader again. Once the load finishes the key is
+ * released, so later callers start a fresh flight.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Returns the future of the in-flight load for {@code key}, starting one if needed.
+     */
+    public CompletableFuture<V> execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+
+        leaders.increment();
+        try {
+            flight.complete(loader.get());
+        } catch (Throwable t) {
+            flight.completeExceptionally(t);
+        } finally {
+            inFlight.remove(key, flight);
+        }
+        return flight;
+    }
+
+    /**
+     * Blocking variant of {@link #execute}; loader exceptions are rethrown unwrapped
+     * when they are unchecked.
+     */
+    public V load(K key, Supplier<V> loader) {
+        try {
+            return execute(key, loader).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /** Number of loads that actually ran. */
+    public long leaderCount() {
+        return leaders.sum();
+    }
+
+    /** Number of callers that piggy-backed on another caller's load. */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
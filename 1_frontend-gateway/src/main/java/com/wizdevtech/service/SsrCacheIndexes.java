@@ -0,0 +1,51 @@
+package com.wizdevtech.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Indexes on {@code ssr_cache} that the JPA mapping cannot declare.
+ *
+ * Outside the C collation, PostgreSQL cannot use the primary key for
+ * {@code route LIKE 'prefix%'}; an index with the {@code text_pattern_ops}
+ * operator class can, which keeps prefix invalidation from scanning the table.
+ * It is built concurrently so page writes are not blocked on first deployment.
+ * Other databases (H2 in tests) need nothing.
+ */
+@Component
+public class SsrCacheIndexes implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SsrCacheIndexes.class);
+
+    static final String ROUTE_PATTERN_INDEX =
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ssr_cache_route_pattern "
+                    + "ON ssr_cache (route text_pattern_ops)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SsrCacheIndexes(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    JdbcUtils.commonDatabaseName(connection.getMetaData().getDatabaseProductName()));
+            if (!"PostgreSQL".equals(product)) {
+                return;
+            }
+            jdbcTemplate.execute(ROUTE_PATTERN_INDEX);
+        } catch (DataAccessException e) {
+            // Prefix invalidation still works, just without the index
+            log.warn("Could not create idx_ssr_cache_route_pattern: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.wizdevtech.service;
+
+import com.wizdevtech.model.SsrCache;
+import com.wizdevtech.model.SsrCacheTag;
+import com.wizdevtech.repository.SsrCacheRepository;
+import com.wizdevtech.repository.SsrCacheTagRepository;
+import com.wizdevtech.service.cache.CacheInvalidationBus;
+import com.wizdevtech.service.cache.CacheRegistry;
+import com.wizdevtech.service.cache.CacheStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves SSR fallback pages from {@code ssr_cache} with stale-while-revalidate.
+ *
+ * A row past its expiry is still served for {@code gateway.ssr.stale-grace-seconds}
+ * while a background task asks the renderer for a fresh copy and rewrites the row.
+ * At most one refresh per route runs at a time.
+ *
+ * Pages are served from an {@link SsrSnapshot} of the whole table, refreshed every
+ * {@code gateway.ssr.snapshot.refresh-interval-ms}, so no lookup reaches the
+ * database. With {@code gateway.ssr.snapshot.enabled=false}, or before the first
+ * load, pages are kept in the in-process {@code ssr_pages} cache until the end
+ * of their grace window instead, and refreshed pages are evicted on other nodes
+ * through the {@link CacheInvalidationBus}. With {@code gateway.ssr.snapshot.file}
+ * set, the snapshot is also kept on disk and reopened at startup.
+ *
+ * Pages can be invalidated in bulk by route prefix or by surrogate tag (from the
+ * renderer's {@code Surrogate-Key} header, kept in {@code ssr_cache_tags}). An
+ * invalidation is a soft purge: the rows' expiry is set to now with one UPDATE,
+ * so they are still served stale, through the grace window, while they are
+ * re-rendered, instead of leaving the route without a fallback. Other nodes'
+ * snapshots read the change on their next refresh.
+ */
+@Service
+public class SsrFallbackService {
+
+    private static final Logger log = LoggerFactory.getLogger(SsrFallbackService.class);
+
+    public static final String CACHE_NAME = "ssr_pages";
+
+    private final SsrCacheRepository repository;
+    private final SsrCacheTagRepository tagRepository;
+    private final SsrRenderClient renderClient;
+    private final CacheStore local;
+    private final CacheInvalidationBus invalidationBus;
+    private final CacheAccessTracker accessTracker;
+    private final boolean staleWhileRevalidate;
+    private final Duration staleGrace;
+    private final Duration refreshTtl;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refreshExecutor;
+    private final SsrSnapshot snapshot;
+
+    public SsrFallbackService(SsrCacheRepository repository,
+                              SsrCacheTagRepository tagRepository,
+                              SsrRenderClient renderClient,
+                              CacheRegistry cacheRegistry,
+                              CacheInvalidationBus invalidationBus,
+                              CacheAccessTracker accessTracker,
+                              @Value("${gateway.ssr.stale-while-revalidate:true}") boolean staleWhileRevalidate,
+                              @Value("${gateway.ssr.stale-grace-seconds:300}") long staleGraceSeconds,
+                              @Value("${gateway.ssr.refresh-ttl-seconds:3600}") long refreshTtlSeconds,
+                              @Value("${gateway.ssr.refresh-threads:2}") int refreshThreads,
+                              @Value("${gateway.ssr.snapshot.enabled:true}") boolean snapshotEnabled,
+                              @Value("${gateway.ssr.snapshot.overlap-ms:5000}") long snapshotOverlapMs,
+                              @Value("${gateway.ssr.snapshot.full-reload-interval-ms:600000}") long snapshotFullReloadMs,
+                              @Value("${gateway.ssr.snapshot.file:}") String snapshotFile,
+                              MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.tagRepository = tagRepository;
+        this.renderClient = renderClient;
+        this.local = cacheRegistry.store(CACHE_NAME);
+        this.invalidationBus = invalidationBus;
+        this.accessTracker = accessTracker;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.staleGrace = Duration.ofSeconds(staleGraceSeconds);
+        this.refreshTtl = Duration.ofSeconds(refreshTtlSeconds);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.refreshExecutor = Executors.newFixedThreadPool(refreshThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ssr-refresh-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (snapshotEnabled) {
+            this.snapshot = new SsrSnapshot(repository, this::staleGrace,
+                    Duration.ofMillis(snapshotOverlapMs), Duration.ofMillis(snapshotFullReloadMs),
+                    snapshotFile.isBlank() ? null : new SsrSnapshotFile(Path.of(snapshotFile)));
+            // Serve the pages kept on disk from the first request; the first refresh reconciles them
+            snapshot.restore();
+            Gauge.builder("gateway.ssr.snapshot.age", snapshot, SsrSnapshot::ageSeconds)
+                    .baseUnit("seconds")
+                    .description("Time since the SSR fallback snapshot was last refreshed")
+                    .register(meterRegistry);
+            Gauge.builder("gateway.ssr.snapshot.pages", snapshot, SsrSnapshot::size)
+                    .description("Pages held in the SSR fallback snapshot")
+                    .register(meterRegistry);
+        } else {
+            this.snapshot = null;
+        }
+    }
+
+    /**
+     * Looks up the page for a normalized route. Fresh rows are returned as-is;
+     * expired rows inside the grace window are returned flagged as stale and
+     * trigger a background refresh.
+     */
+    public Optional<Lookup> find(String route) {
+        SsrCache entry;
+        if (snapshotLoaded()) {
+            entry = snapshot.get(route);
+            if (entry == null) {
+                return Optional.empty();
+            }
+        } else {
+            entry = lookupLocal(route);
+            if (entry == null) {
+                return Optional.empty();
+            }
+        }
+
+        Instant now = Instant.now();
+        if (entry.getExpiry().isAfter(now)) {
+            accessTracker.recordSsrPage(route);
+            return Optional.of(new Lookup(entry, false));
+        }
+        if (!staleWhileRevalidate || !entry.getExpiry().plus(staleGrace).isAfter(now)) {
+            return Optional.empty();
+        }
+
+        refreshAsync(route);
+        accessTracker.recordSsrPage(route);
+        return Optional.of(new Lookup(entry, true));
+    }
+
+    private SsrCache lookupLocal(String route) {
+        SsrCache entry = (SsrCache) local.get(route);
+        if (entry == null) {
+            entry = repository.findById(route).orElse(null);
+            if (entry != null) {
+                putLocal(entry);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Brings the snapshot up to date with {@code ssr_cache}; the first run loads it.
+     */
+    @Scheduled(fixedDelayString = "${gateway.ssr.snapshot.refresh-interval-ms:2000}")
+    public void refreshSnapshot() {
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            snapshot.refresh();
+        } catch (RuntimeException e) {
+            // Keep serving the last snapshot; its age metric shows how stale it is
+            log.warn("SSR snapshot refresh failed: {}", e.getMessage());
+        }
+    }
+
+    public boolean snapshotEnabled() {
+        return snapshot != null;
+    }
+
+    public boolean snapshotLoaded() {
+        return snapshot != null && snapshot.isLoaded();
+    }
+
+    /**
+     * Loads a page read from the database into the in-process tier; pages past
+     * their grace window are ignored.
+     */
+    public void warm(SsrCache entry) {
+        putLocal(entry);
+    }
+
+    /**
+     * Drops this node's in-process copies; the snapshot, if enabled, is reloaded
+     * from the table.
+     */
+    public void invalidateAllLocal() {
+        local.clear();
+        if (snapshot != null) {
+            snapshot.reload();
+        }
+    }
+
+    /**
+     * Expires every page whose route starts with {@code prefix}; returns how many
+     * rows were still fresh.
+     */
+    public int invalidatePrefix(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            throw new IllegalArgumentException("Route prefix must not be empty");
+        }
+        // Stored precision, so the snapshot's copy matches the row it re-reads
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        int expired = repository.expireByRoutePattern(SsrCacheRepository.prefixPattern(prefix), now);
+        if (snapshot != null) {
+            snapshot.expirePrefix(prefix, now);
+        }
+        invalidationBus.invalidatePrefix(CACHE_NAME, prefix);
+        log.info("Invalidated {} SSR pages under {}", expired, prefix);
+        return expired;
+    }
+
+    /**
+     * Expires every page tagged {@code tag}; returns how many rows were still fresh.
+     */
+    public int invalidateTag(String tag) {
+        if (tag == null || tag.isBlank()) {
+            throw new IllegalArgumentException("Tag must not be empty");
+        }
+        List<String> routes = tagRepository.findRoutesByTag(tag);
+        if (routes.isEmpty()) {
+            return 0;
+        }
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        int expired = repository.expireByTag(tag, now);
+        if (snapshot != null) {
+            snapshot.expire(routes, now);
+        }
+        for (String route : routes) {
+            invalidationBus.invalidate(CACHE_NAME, route);
+        }
+        log.info("Invalidated {} SSR pages tagged {}", expired, tag);
+        return expired;
+    }
+
+    /**
+     * Sets the surrogate tags of {@code route}'s page; an empty set leaves them as they are.
+     */
+    public void tag(String route, Set<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        tagRepository.deleteByRouteExcept(route, tags);
+        Set<String> missing = new LinkedHashSet<>(tags);
+        tagRepository.findTagsByRoute(route).forEach(missing::remove);
+        tagRepository.saveAll(missing.stream().map(tag -> new SsrCacheTag(route, tag)).toList());
+    }
+
+    /**
+     * Schedules a refresh of {@code route} unless one is already running.
+     */
+    public void refreshAsync(String route) {
+        if (!renderClient.isConfigured() || !refreshing.add(route)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh(route);
+                } finally {
+                    refreshing.remove(route);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(route);
+        }
+    }
+
+    private void refresh(String route) {
+        renderClient.render(route).ifPresentOrElse(
+                rendered -> {
+                    SsrCache saved = repository.save(new SsrCache(route, rendered.html(), Instant.now().plus(refreshTtl)));
+                    tag(route, rendered.tags());
+                    putLocal(saved);
+                    if (snapshot != null) {
+                        snapshot.put(saved);
+                    }
+                    invalidationBus.invalidateRemote(CACHE_NAME, List.of(route));
+                    log.debug("Refreshed SSR cache for route {}", route);
+                },
+                () -> log.debug("No fresh render for route {}, keeping stale copy", route));
+    }
+
+    /** Routes with a refresh currently queued or running. */
+    public int refreshesInFlight() {
+        return refreshing.size();
+    }
+
+    public Duration staleGrace() {
+        return staleWhileRevalidate ? staleGrace : Duration.ZERO;
+    }
+
+    private void putLocal(SsrCache entry) {
+        // Rows written without the derived columns get them computed in memory
+        entry.encode();
+        // Kept until it can no longer be served, even stale; a non-positive TTL skips caching
+        local.put(entry.getRoute(), entry, Duration.between(Instant.now(), entry.getExpiry().plus(staleGrace())));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+        if (snapshot != null) {
+            snapshot.close();
+        }
+    }
+
+    /**
+     * A fallback page and whether it is being served past its expiry.
+     */
+    public record Lookup(SsrCache entry, boolean stale) {
+    }
+}
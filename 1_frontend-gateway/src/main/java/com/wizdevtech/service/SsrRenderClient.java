@@ -0,0 +1,95 @@
+package com.wizdevtech.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Fetches freshly rendered HTML for a route from the upstream SSR renderer.
+ *
+ * When {@code gateway.ssr.renderer-url} is not set there is nothing to refresh
+ * from, and every render returns empty.
+ *
+ * The renderer names what a page shows in a space-separated {@code Surrogate-Key}
+ * header (e.g. {@code product:42 category:7}); those become the page's tags.
+ */
+@Component
+public class SsrRenderClient {
+
+    private static final Logger log = LoggerFactory.getLogger(SsrRenderClient.class);
+
+    static final String SURROGATE_KEY_HEADER = "Surrogate-Key";
+
+    private final String rendererUrl;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    public SsrRenderClient(@Value("${gateway.ssr.renderer-url:}") String rendererUrl,
+                           @Value("${gateway.ssr.render-timeout-ms:5000}") long timeoutMs) {
+        this.rendererUrl = rendererUrl.endsWith("/") ? rendererUrl.substring(0, rendererUrl.length() - 1) : rendererUrl;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    public boolean isConfigured() {
+        return !rendererUrl.isEmpty();
+    }
+
+    /**
+     * Renders {@code route} (with leading slash); empty if the renderer is not
+     * configured or did not answer with a 200.
+     */
+    public Optional<Rendered> render(String route) {
+        if (!isConfigured()) {
+            return Optional.empty();
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(rendererUrl + route))
+                .timeout(timeout)
+                .header("Accept", "text/html")
+                .GET()
+                .build();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                return Optional.of(new Rendered(response.body(),
+                        surrogateKeys(response.headers().allValues(SURROGATE_KEY_HEADER))));
+            }
+            log.warn("Renderer returned {} for route {}", response.statusCode(), route);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Renderer call failed for route {}: {}", route, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    static Set<String> surrogateKeys(List<String> headerValues) {
+        return headerValues.stream()
+                .flatMap(value -> Arrays.stream(value.trim().split("\\s+")))
+                .filter(key -> !key.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * A rendered page and the tags from its {@code Surrogate-Key} header; no tags
+     * when the renderer sent none.
+     */
+    public record Rendered(String html, Set<String> tags) {
+    }
+}
@@ -0,0 +1,360 @@
+package com.wizdevtech.service;
+
+import com.wizdevtech.model.SsrCache;
+import com.wizdevtech.repository.SsrCacheRepository;
+import com.wizdevtech.repository.SsrCacheRepository.PageVersion;
+import com.wizdevtech.util.RadixTrie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-heap copy of every servable {@code ssr_cache} row, so fallback pages are
+ * answered without a database round trip.
+ *
+ * A full load reads the version (expiry, stored_at, content hash) of every row
+ * still inside its serving window (expiry plus stale grace) and fetches only the
+ * pages it does not already hold in that version; routes no longer in the table
+ * are dropped. In between, refreshes read only rows whose {@code stored_at}
+ * passed the highest value seen so far, minus a small overlap for transactions
+ * that commit out of order. Every gateway write and invalidation moves
+ * {@code stored_at}; rows written by other services without it, or changed
+ * without moving it, are only seen by the next full load. Entries leave the
+ * snapshot when their window ends.
+ *
+ * With an {@link SsrSnapshotFile}, every change is also appended to disk, and
+ * {@link #restore()} reopens the file at startup so pages are served before the
+ * first refresh; that refresh is a full load, which reconciles the restored
+ * pages against the table without transferring unchanged bodies.
+ *
+ * Once loaded, the snapshot is authoritative: a route it does not hold has no
+ * page, up to one refresh interval behind the table for rows that set
+ * {@code stored_at}, and up to one full-reload interval for rows that do not.
+ *
+ * Held pages are never modified: a new expiry replaces the page with a copy, so
+ * readers and the snapshot file always see a consistent page.
+ *
+ * Held routes are also indexed in a {@link RadixTrie}, so {@link #expirePrefix}
+ * reaches the pages under a prefix without walking the whole snapshot.
+ */
+public class SsrSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(SsrSnapshot.class);
+
+    private static final int FETCH_CHUNK = 500;
+
+    private final SsrCacheRepository repository;
+    private final Supplier<Duration> servingWindow;
+    private final Duration overlap;
+    private final Duration fullReloadInterval;
+    private SsrSnapshotFile file;
+
+    private final Map<String, SsrCache> pages = new ConcurrentHashMap<>();
+    // Routes of pages, kept in step with it under its own monitor; reads of pages take no lock
+    private final RadixTrie routes = new RadixTrie();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile boolean loaded;
+    private volatile long refreshedAtNanos;
+    private boolean reconciled;
+    private Instant storedWatermark = Instant.EPOCH;
+    private long fullLoadAtNanos;
+
+    /**
+     * @param servingWindow how long past its expiry a page is still served
+     * @param file          where to keep a copy across restarts, or null
+     */
+    public SsrSnapshot(SsrCacheRepository repository, Supplier<Duration> servingWindow,
+                       Duration overlap, Duration fullReloadInterval, SsrSnapshotFile file) {
+        this.repository = repository;
+        this.servingWindow = servingWindow;
+        this.overlap = overlap;
+        this.fullReloadInterval = fullReloadInterval;
+        this.file = file;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * The page for {@code route}, if it is still inside its serving window.
+     */
+    public SsrCache get(String route) {
+        SsrCache page = pages.get(route);
+        if (page == null || !servable(page.getExpiry(), Instant.now())) {
+            return null;
+        }
+        return page;
+    }
+
+    /**
+     * Adds a page this node has just written, ahead of the next refresh.
+     */
+    public void put(SsrCache page) {
+        page.encode();
+        hold(page);
+    }
+
+    /**
+     * Marks the held pages under {@code prefix} as expired at {@code now}, ahead of
+     * the refresh that reads the same change from the table. Returns how many
+     * were still fresh.
+     */
+    public int expirePrefix(String prefix, Instant now) {
+        List<String> matching;
+        synchronized (routes) {
+            matching = routes.withPrefix(prefix);
+        }
+        return expire(matching, now);
+    }
+
+    /**
+     * Marks the held pages for {@code routes} as expired at {@code now}.
+     */
+    public int expire(Collection<String> routes, Instant now) {
+        int expired = 0;
+        synchronized (this.routes) {
+            for (String route : routes) {
+                SsrCache page = pages.get(route);
+                if (page != null && page.getExpiry().isAfter(now)) {
+                    pages.put(route, page.withExpiry(now));
+                    expired++;
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Serves the pages kept in the snapshot file until the first refresh has
+     * reconciled them with the table. Returns how many were restored.
+     */
+    public int restore() {
+        refreshLock.lock();
+        try {
+            if (file == null) {
+                return 0;
+            }
+            long start = System.nanoTime();
+            Instant now = Instant.now();
+            int restored = 0;
+            for (SsrCache page : file.load()) {
+                if (servable(page.getExpiry(), now)) {
+                    hold(page);
+                    restored++;
+                }
+            }
+            if (restored > 0) {
+                // The watermark stays unset: the first refresh is a full reconciliation
+                loaded = true;
+                refreshedAtNanos = System.nanoTime();
+            }
+            log.info("Restored {} SSR pages from {} in {} ms", restored, file.path(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return restored;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not restore SSR snapshot from {}: {}", file.path(), e.toString());
+            disableFile();
+            return 0;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Brings the snapshot up to date: a full load the first time and every
+     * full-reload interval, otherwise only the rows stored since the watermark.
+     */
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            List<SsrCache> changed;
+            boolean full = !reconciled || System.nanoTime() - fullLoadAtNanos >= fullReloadInterval.toNanos();
+            if (full) {
+                changed = fullLoad();
+            } else {
+                changed = incrementalLoad();
+            }
+            refreshedAtNanos = System.nanoTime();
+            persist(changed, full);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the snapshot and loads it again from the table.
+     */
+    public void reload() {
+        refreshLock.lock();
+        try {
+            loaded = false;
+            reconciled = false;
+            synchronized (routes) {
+                pages.clear();
+                routes.clear();
+            }
+            refresh();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    public int size() {
+        return pages.size();
+    }
+
+    /** Seconds since the last successful refresh or restore; infinite before the first. */
+    public double ageSeconds() {
+        return loaded ? (System.nanoTime() - refreshedAtNanos) / 1e9 : Double.POSITIVE_INFINITY;
+    }
+
+    public void close() {
+        refreshLock.lock();
+        try {
+            if (file != null) {
+                file.close();
+            }
+        } catch (IOException e) {
+            log.warn("Could not close SSR snapshot file {}: {}", file.path(), e.getMessage());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private List<SsrCache> fullLoad() {
+        Instant now = Instant.now();
+        List<PageVersion> versions = repository.findServableVersions(now.minus(servingWindow.get()));
+        Set<String> live = new HashSet<>();
+        List<String> fetch = new ArrayList<>();
+        List<SsrCache> changed = new ArrayList<>();
+        storedWatermark = Instant.EPOCH;
+        for (PageVersion version : versions) {
+            live.add(version.getRoute());
+            advanceWatermark(version.getStoredAt());
+            SsrCache held = pages.get(version.getRoute());
+            if (held == null || version.getContentHash() == null
+                    || !version.getContentHash().equals(held.getContentHash())) {
+                fetch.add(version.getRoute());
+            } else if (!version.getExpiry().equals(held.getExpiry())) {
+                // Same body, new lifetime: no need to transfer the page again
+                SsrCache renewed = held.withExpiry(version.getExpiry());
+                hold(renewed);
+                changed.add(renewed);
+            }
+        }
+        for (int from = 0; from < fetch.size(); from += FETCH_CHUNK) {
+            for (SsrCache row : repository.findAllById(fetch.subList(from, Math.min(fetch.size(), from + FETCH_CHUNK)))) {
+                row.encode();
+                hold(row);
+                changed.add(row);
+            }
+        }
+        synchronized (routes) {
+            for (Iterator<String> it = pages.keySet().iterator(); it.hasNext(); ) {
+                String route = it.next();
+                if (!live.contains(route)) {
+                    it.remove();
+                    routes.remove(route);
+                }
+            }
+        }
+
+        fullLoadAtNanos = System.nanoTime();
+        reconciled = true;
+        loaded = true;
+        log.debug("Reconciled SSR snapshot: {} pages, {} fetched", pages.size(), fetch.size());
+        return changed;
+    }
+
+    private List<SsrCache> incrementalLoad() {
+        List<SsrCache> rows = repository.findChangedSince(storedWatermark.minus(overlap));
+        Instant now = Instant.now();
+        List<SsrCache> changed = new ArrayList<>();
+        for (SsrCache row : rows) {
+            advanceWatermark(row.getStoredAt());
+            SsrCache held = pages.get(row.getRoute());
+            if (held != null && sameVersion(held, row)) {
+                continue; // re-read inside the overlap
+            }
+            if (servable(row.getExpiry(), now)) {
+                row.encode();
+                hold(row);
+                changed.add(row);
+            }
+        }
+        synchronized (routes) {
+            for (Iterator<SsrCache> it = pages.values().iterator(); it.hasNext(); ) {
+                SsrCache page = it.next();
+                if (!servable(page.getExpiry(), now)) {
+                    it.remove();
+                    routes.remove(page.getRoute());
+                }
+            }
+        }
+        return changed;
+    }
+
+    private void hold(SsrCache page) {
+        synchronized (routes) {
+            pages.put(page.getRoute(), page);
+            routes.add(page.getRoute());
+        }
+    }
+
+    private void persist(List<SsrCache> changed, boolean full) {
+        if (file == null) {
+            return;
+        }
+        try {
+            // Compact once superseded records outnumber live ones, or after a full load dropped routes
+            if (file.records() + changed.size() > 2L * pages.size() + 1000
+                    || (full && file.records() + changed.size() > pages.size())) {
+                file.rewrite(List.copyOf(pages.values()));
+            } else {
+                file.append(changed);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write SSR snapshot file {}, continuing without it: {}", file.path(), e.toString());
+            disableFile();
+        }
+    }
+
+    private void disableFile() {
+        try {
+            file.close();
+        } catch (IOException ignored) {
+            // Already failing; the file is abandoned either way
+        }
+        file = null;
+    }
+
+    private static boolean sameVersion(SsrCache held, SsrCache row) {
+        return row.getContentHash() != null && row.getContentHash().equals(held.getContentHash())
+                && row.getExpiry().equals(held.getExpiry());
+    }
+
+    private void advanceWatermark(Instant storedAt) {
+        if (storedAt != null && storedAt.isAfter(storedWatermark)) {
+            storedWatermark = storedAt;
+        }
+    }
+
+    private boolean servable(Instant expiry, Instant now) {
+        return expiry.plus(servingWindow.get()).isAfter(now);
+    }
+}
@@ -0,0 +1,238 @@
+package com.wizdevtech.service;
+
+import com.wizdevtech.model.SsrCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of SSR pages, read back through a memory mapping at startup.
+ *
+ * Layout: an 8-byte header ({@code MAGIC}, {@code VERSION}), then one record per
+ * stored page version:
+ * <pre>
+ * int   body length
+ * body: route (short length + UTF-8), expiry (long seconds, int nanos),
+ *       stored_at (long seconds, int nanos; Long.MIN_VALUE when unknown),
+ *       content hash (short length + ASCII), gzip (int length + bytes),
+ *       deflate (int length + bytes)
+ * int   CRC32 of body
+ * </pre>
+ * A later record for a route supersedes earlier ones. Only compressed copies are
+ * kept; {@link SsrCache#getHtml()} decodes the gzip copy on first use. A record
+ * cut short by a crash fails its length or CRC check and is truncated away on
+ * the next {@link #load}. {@link #rewrite} compacts the file to one record per page.
+ *
+ * Not thread-safe; {@link SsrSnapshot} calls it under its refresh lock.
+ */
+public class SsrSnapshotFile implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SsrSnapshotFile.class);
+
+    private static final int MAGIC = 0x53535231; // "SSR1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final long NO_INSTANT = Long.MIN_VALUE;
+
+    private final Path path;
+    private FileChannel channel;
+    private long records;
+
+    public SsrSnapshotFile(Path path) {
+        this.path = path;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /** Records in the file, superseded ones included. */
+    public long records() {
+        return records;
+    }
+
+    /**
+     * Opens the file for appending, creating it if needed, and returns the latest
+     * version of every page in it. An unreadable file is started over.
+     */
+    public List<SsrCache> load() throws IOException {
+        close();
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        records = 0;
+
+        long size = channel.size();
+        if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+            startOver(size == 0 ? null : "size " + size);
+            return List.of();
+        }
+
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (mapped.getInt() != MAGIC || mapped.getInt() != VERSION) {
+            startOver("unknown header");
+            return List.of();
+        }
+
+        Map<String, SsrCache> pages = new LinkedHashMap<>();
+        long valid = mapped.position();
+        CRC32 crc = new CRC32();
+        while (mapped.remaining() >= Integer.BYTES) {
+            int length = mapped.getInt();
+            if (length <= 0 || length > mapped.remaining() - Integer.BYTES) {
+                break;
+            }
+            ByteBuffer body = mapped.slice(mapped.position(), length);
+            mapped.position(mapped.position() + length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != mapped.getInt()) {
+                break;
+            }
+            try {
+                SsrCache page = decode(body);
+                pages.remove(page.getRoute());
+                pages.put(page.getRoute(), page);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                break;
+            }
+            records++;
+            valid = mapped.position();
+        }
+
+        if (valid < size) {
+            log.warn("Truncating SSR snapshot file {} from {} to {} bytes after an incomplete record", path, size, valid);
+            channel.truncate(valid);
+        }
+        channel.position(valid);
+        return new ArrayList<>(pages.values());
+    }
+
+    /**
+     * Appends the given page versions.
+     */
+    public void append(Collection<SsrCache> pages) throws IOException {
+        if (pages.isEmpty()) {
+            return;
+        }
+        for (SsrCache page : pages) {
+            channel.write(record(page));
+        }
+        records += pages.size();
+    }
+
+    /**
+     * Replaces the file with one holding just {@code pages}, switching over with
+     * an atomic rename so a crash leaves either the old or the new file.
+     */
+    public void rewrite(Collection<SsrCache> pages) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            out.write(header());
+            for (SsrCache page : pages) {
+                out.write(record(page));
+            }
+            out.force(true);
+        }
+        close();
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        records = pages.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void startOver(String reason) throws IOException {
+        if (reason != null) {
+            log.warn("Discarding SSR snapshot file {}: {}", path, reason);
+        }
+        channel.truncate(0);
+        channel.write(header(), 0);
+        channel.position(HEADER_BYTES);
+    }
+
+    private static ByteBuffer header() {
+        return ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+    }
+
+    private static ByteBuffer record(SsrCache page) {
+        byte[] route = page.getRoute().getBytes(StandardCharsets.UTF_8);
+        byte[] hash = page.getContentHash().getBytes(StandardCharsets.US_ASCII);
+        byte[] gzip = page.getHtmlGzip();
+        byte[] deflate = page.getHtmlDeflate();
+        int length = Short.BYTES + route.length + 2 * (Long.BYTES + Integer.BYTES)
+                + Short.BYTES + hash.length + Integer.BYTES + gzip.length + Integer.BYTES + deflate.length;
+
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + length + Integer.BYTES);
+        buffer.putInt(length);
+        buffer.putShort((short) route.length).put(route);
+        putInstant(buffer, page.getExpiry());
+        putInstant(buffer, page.getStoredAt());
+        buffer.putShort((short) hash.length).put(hash);
+        buffer.putInt(gzip.length).put(gzip);
+        buffer.putInt(deflate.length).put(deflate);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), Integer.BYTES, length);
+        buffer.putInt((int) crc.getValue());
+        return buffer.flip();
+    }
+
+    private static SsrCache decode(ByteBuffer body) {
+        String route = new String(bytes(body, Short.toUnsignedInt(body.getShort())), StandardCharsets.UTF_8);
+        Instant expiry = getInstant(body);
+        Instant storedAt = getInstant(body);
+        String hash = new String(bytes(body, Short.toUnsignedInt(body.getShort())), StandardCharsets.US_ASCII);
+        byte[] gzip = bytes(body, body.getInt());
+        byte[] deflate = bytes(body, body.getInt());
+        if (expiry == null) {
+            throw new IllegalArgumentException("record without expiry");
+        }
+        return new SsrCache(route, expiry, storedAt, hash, gzip, deflate);
+    }
+
+    private static byte[] bytes(ByteBuffer buffer, int length) {
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("bad field length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static void putInstant(ByteBuffer buffer, Instant instant) {
+        buffer.putLong(instant == null ? NO_INSTANT : instant.getEpochSecond());
+        buffer.putInt(instant == null ? 0 : instant.getNano());
+    }
+
+    private static Instant getInstant(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return seconds == NO_INSTANT ? null : Instant.ofEpochSecond(seconds, nanos);
+    }
+}
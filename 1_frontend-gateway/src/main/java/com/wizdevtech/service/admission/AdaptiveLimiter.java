@@ -0,0 +1,114 @@
+package com.wizdevtech.service.admission;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to how long admitted work takes (AIMD).
+ *
+ * Each completion updates two moving averages of its latency: a short one that
+ * follows current conditions and a long one that stands for normal. When the
+ * short average rises above {@code rttTolerance} times the long one, requests
+ * are queueing somewhere (typically for a JDBC connection), so the limit is
+ * multiplied by {@code backoffRatio}; a dropped request (failure or timeout)
+ * does the same. Otherwise, while at least half the limit is in use, every
+ * completion raises it by one. The limit stays within [min, max].
+ *
+ * Under a sustained slowdown the long average catches up with the new latency
+ * and the limit starts growing again, so the limiter settles on what the
+ * backend sustains rather than staying at its minimum.
+ */
+public class AdaptiveLimiter {
+
+    private static final double SHORT_SMOOTHING = 0.2;
+    private static final double LONG_SMOOTHING = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double rttTolerance;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private double limit;
+    private int inflight;
+    private double shortRtt;
+    private double longRtt;
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double rttTolerance) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.rttTolerance = rttTolerance;
+        this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, initialLimit));
+    }
+
+    /**
+     * Admits a request if fewer than {@link #limit()} are in flight. Every
+     * admitted request must be followed by {@link #onSuccess} or {@link #onDropped}.
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (inflight >= (int) limit) {
+                return false;
+            }
+            inflight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess(long rttNanos) {
+        lock.lock();
+        try {
+            boolean utilized = inflight * 2 >= limit;
+            inflight--;
+            if (longRtt == 0) {
+                shortRtt = rttNanos;
+                longRtt = rttNanos;
+            } else {
+                shortRtt += SHORT_SMOOTHING * (rttNanos - shortRtt);
+                longRtt += LONG_SMOOTHING * (rttNanos - longRtt);
+            }
+            if (shortRtt > longRtt * rttTolerance) {
+                backOff();
+            } else if (utilized) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onDropped() {
+        lock.lock();
+        try {
+            inflight--;
+            backOff();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void backOff() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inflight() {
+        lock.lock();
+        try {
+            return inflight;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.wizdevtech.service.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control for gateway work that needs the database or product-service.
+ *
+ * Each endpoint has its own {@link AdaptiveLimiter}, so a slow endpoint is
+ * throttled without starving the others. Requests the node can answer from
+ * memory (L1 hits, the SSR snapshot) never ask for a permit: when Postgres
+ * slows down, they keep being served while misses beyond the limit are
+ * rejected at once with 503 and {@code Retry-After}, instead of queueing on
+ * JDBC connections until the whole gateway stalls.
+ *
+ * Meters, tagged by {@code endpoint}: {@code gateway.admission.limit},
+ * {@code gateway.admission.inflight} and {@code gateway.admission.shed}.
+ */
+@Component
+public class AdmissionControl {
+
+    private static final Permit UNLIMITED = new Permit(null, 0);
+
+    private final AdmissionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public AdmissionControl(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * A permit for one request to {@code endpoint}, or empty if the request
+     * should be shed.
+     */
+    public Optional<Permit> tryAcquire(String endpoint) {
+        if (!properties.isEnabled()) {
+            return Optional.of(UNLIMITED);
+        }
+        Endpoint state = endpoints.computeIfAbsent(endpoint, this::register);
+        if (!state.limiter.tryAcquire()) {
+            state.shed.increment();
+            return Optional.empty();
+        }
+        return Optional.of(new Permit(state.limiter, System.nanoTime()));
+    }
+
+    /** How long shed clients are asked to wait before retrying. */
+    public Duration retryAfter() {
+        return properties.getRetryAfter();
+    }
+
+    private Endpoint register(String endpoint) {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(properties.getInitialLimit(), properties.getMinLimit(),
+                properties.maxLimitFor(endpoint), properties.getBackoffRatio(), properties.getRttTolerance());
+        Gauge.builder("gateway.admission.limit", limiter, AdaptiveLimiter::limit)
+                .tag("endpoint", endpoint)
+                .description("Current concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("gateway.admission.inflight", limiter, AdaptiveLimiter::inflight)
+                .tag("endpoint", endpoint)
+                .description("Admitted requests still running")
+                .register(meterRegistry);
+        Counter shed = Counter.builder("gateway.admission.shed")
+                .tag("endpoint", endpoint)
+                .description("Requests rejected because the endpoint was at its limit")
+                .register(meterRegistry);
+        return new Endpoint(limiter, shed);
+    }
+
+    private record Endpoint(AdaptiveLimiter limiter, Counter shed) {
+    }
+
+    /**
+     * An admitted request. Report how it ended exactly once: {@link #onSuccess()}
+     * feeds its latency to the limiter, {@link #onDropped()} backs the limit off.
+     */
+    public static final class Permit {
+
+        private final AdaptiveLimiter limiter;
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(AdaptiveLimiter limiter, long startNanos) {
+            this.limiter = limiter;
+            this.startNanos = startNanos;
+        }
+
+        public void onSuccess() {
+            if (limiter != null && released.compareAndSet(false, true)) {
+                limiter.onSuccess(System.nanoTime() - startNanos);
+            }
+        }
+
+        public void onDropped() {
+            if (limiter != null && released.compareAndSet(false, true)) {
+                limiter.onDropped();
+            }
+        }
+    }
+}
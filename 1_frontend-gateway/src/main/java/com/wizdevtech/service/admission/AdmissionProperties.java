@@ -0,0 +1,110 @@
+package com.wizdevtech.service.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for the per-endpoint concurrency limits, e.g.
+ * <pre>
+ * gateway.admission.initial-limit=20
+ * gateway.admission.max-limits.product=200
+ * gateway.admission.retry-after=1s
+ * </pre>
+ * With {@code enabled=false} every request is admitted.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 20;
+
+    private int minLimit = 2;
+
+    private int maxLimit = 200;
+
+    // Per endpoint name, overriding max-limit
+    private Map<String, Integer> maxLimits = new HashMap<>();
+
+    // Limit multiplier on a drop or a latency rise
+    private double backoffRatio = 0.9;
+
+    // How far recent latency may rise above its long-run average before backing off
+    private double rttTolerance = 2.0;
+
+    // Sent as Retry-After on shed requests
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    public int maxLimitFor(String endpoint) {
+        return maxLimits.getOrDefault(endpoint, maxLimit);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public Map<String, Integer> getMaxLimits() {
+        return maxLimits;
+    }
+
+    public void setMaxLimits(Map<String, Integer> maxLimits) {
+        this.maxLimits = maxLimits;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    public double getRttTolerance() {
+        return rttTolerance;
+    }
+
+    public void setRttTolerance(double rttTolerance) {
+        this.rttTolerance = rttTolerance;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,274 @@
+package com.wizdevtech.service.cache;
+
+import com.wizdevtech.service.ApiResponseWriteBehind;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Propagates cache evictions to every gateway node.
+ *
+ * Evictions apply to this node's caches immediately and are queued; a flusher
+ * publishes the queue every {@code batch-interval-ms} as one deduplicated batch
+ * through the configured {@link InvalidationTransport}. Receiving nodes apply
+ * the batch to the caches they have created, skipping shared (database-backed)
+ * caches and their own batches.
+ *
+ * {@code gateway.cache.invalidation.transport} selects the transport:
+ * {@code auto} (PostgreSQL LISTEN/NOTIFY when the datasource is PostgreSQL,
+ * in-JVM otherwise), a transport type, or {@code none} for local-only evictions.
+ */
+@Component
+public class CacheInvalidationBus implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    static final String AUTO = "auto";
+    static final String NONE = "none";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final CacheRegistry registry;
+    private final Map<String, InvalidationTransport> transports;
+    private final JdbcTemplate jdbcTemplate;
+    private final String transportName;
+    private final long batchIntervalMs;
+    private final int maxBatchEvents;
+
+    private final ConcurrentLinkedQueue<InvalidationEvent> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder gaps = new LongAdder();
+
+    private volatile InvalidationTransport transport;
+    private volatile boolean running;
+    private Thread flusher;
+
+    public CacheInvalidationBus(CacheRegistry registry,
+                                List<InvalidationTransport> transports,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${gateway.cache.invalidation.transport:auto}") String transportName,
+                                @Value("${gateway.cache.invalidation.batch-interval-ms:50}") long batchIntervalMs,
+                                @Value("${gateway.cache.invalidation.max-batch-events:1000}") int maxBatchEvents) {
+        this.registry = registry;
+        this.transports = transports.stream()
+                .collect(Collectors.toMap(InvalidationTransport::type, Function.identity()));
+        this.jdbcTemplate = jdbcTemplate;
+        this.transportName = transportName;
+        this.batchIntervalMs = batchIntervalMs;
+        this.maxBatchEvents = maxBatchEvents;
+    }
+
+    /**
+     * Drops {@code key} from {@code cache} on this node now and on the others
+     * with the next batch.
+     */
+    public void invalidate(String cache, String key) {
+        submit(InvalidationEvent.key(cache, key));
+    }
+
+    public void invalidatePrefix(String cache, String prefix) {
+        submit(InvalidationEvent.prefix(cache, prefix));
+    }
+
+    public void invalidateAll(String cache) {
+        submit(InvalidationEvent.all(cache));
+    }
+
+    /**
+     * Drops keys from {@code cache} on the other nodes only, e.g. after this node
+     * stored new values for them.
+     */
+    public void invalidateRemote(String cache, Collection<String> keys) {
+        if (transport == null) {
+            return;
+        }
+        for (String key : keys) {
+            pending.add(InvalidationEvent.key(cache, key));
+        }
+    }
+
+    /**
+     * Publishes everything queued so far; returns the number of events sent.
+     */
+    public int flush() {
+        InvalidationTransport current = transport;
+        if (current == null) {
+            pending.clear();
+            return 0;
+        }
+        int total = 0;
+        flushLock.lock();
+        try {
+            while (!pending.isEmpty()) {
+                // Repeated evictions of the same key within an interval go out once
+                Set<InvalidationEvent> batch = new LinkedHashSet<>();
+                InvalidationEvent event;
+                while (batch.size() < maxBatchEvents && (event = pending.poll()) != null) {
+                    batch.add(event);
+                }
+                current.publish(new InvalidationBatch(nodeId, new ArrayList<>(batch)));
+                batches.increment();
+                published.add(batch.size());
+                total += batch.size();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+        return total;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /** Type of the active transport, or {@code none}. */
+    public String transportType() {
+        InvalidationTransport current = transport;
+        return current == null ? NONE : current.type();
+    }
+
+    public long publishedCount() {
+        return published.sum();
+    }
+
+    public long batchCount() {
+        return batches.sum();
+    }
+
+    /** Events received from other nodes. */
+    public long receivedCount() {
+        return received.sum();
+    }
+
+    public long gapCount() {
+        return gaps.sum();
+    }
+
+    private void submit(InvalidationEvent event) {
+        registry.find(event.cache()).ifPresent(event::applyTo);
+        if (transport != null) {
+            pending.add(event);
+        }
+    }
+
+    private final InvalidationTransport.Receiver receiver = new InvalidationTransport.Receiver() {
+        @Override
+        public void onBatch(InvalidationBatch batch) {
+            if (nodeId.equals(batch.origin())) {
+                return;
+            }
+            received.add(batch.events().size());
+            for (InvalidationEvent event : batch.events()) {
+                registry.find(event.cache())
+                        .filter(store -> !store.shared())
+                        .ifPresent(event::applyTo);
+            }
+        }
+
+        @Override
+        public void onGap() {
+            // Evictions may have been missed; drop what this node holds rather than serve it stale
+            gaps.increment();
+            for (CacheStore store : registry.stores()) {
+                if (!store.shared()) {
+                    store.clear();
+                }
+            }
+            log.warn("Cache invalidations may have been missed; cleared node-local caches");
+        }
+    };
+
+    private InvalidationTransport selectTransport() {
+        String name = transportName;
+        if (NONE.equals(name)) {
+            return null;
+        }
+        if (AUTO.equals(name)) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    JdbcUtils.commonDatabaseName(connection.getMetaData().getDatabaseProductName()));
+            name = "PostgreSQL".equals(product) ? PostgresInvalidationTransport.TYPE : InJvmInvalidationTransport.TYPE;
+        }
+        InvalidationTransport selected = transports.get(name);
+        if (selected == null) {
+            throw new IllegalStateException("Unknown cache invalidation transport '" + name
+                    + "'; available: " + transports.keySet());
+        }
+        return selected;
+    }
+
+    private void runFlusher() {
+        while (running) {
+            try {
+                Thread.sleep(batchIntervalMs);
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Cache invalidation flusher error", e);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        transport = selectTransport();
+        if (transport != null) {
+            transport.start(receiver);
+        }
+        running = true;
+        flusher = new Thread(this::runFlusher, "cache-invalidation-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Cache invalidation bus started on node {} with transport {}", nodeId, transportType());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(2));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+        if (transport != null) {
+            transport.stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stops after the write-behind, whose final flush still publishes invalidations
+    @Override
+    public int getPhase() {
+        return ApiResponseWriteBehind.PHASE - 1;
+    }
+}
@@ -0,0 +1,96 @@
+package com.wizdevtech.service.cache;
+
+import com.wizdevtech.service.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes every {@link CacheRegistry} cache's {@link CacheMetrics} to Micrometer,
+ * tagged with {@code cache=<name>}, using Micrometer's standard cache meter names:
+ * <ul>
+ *   <li>{@code cache.gets{result=hit|miss}}, {@code cache.puts}</li>
+ *   <li>{@code cache.evictions{cause=size|expired|...}}</li>
+ *   <li>{@code cache.size} (node-local caches only; shared caches would need a query per scrape)</li>
+ *   <li>{@code cache.load{result=success|failure}}, a latency histogram of fills</li>
+ * </ul>
+ * Caches that coalesce concurrent misses also report
+ * {@code gateway.cache.miss.fills{result=loaded|coalesced}} through {@link #bindMissFills}.
+ */
+@Component
+public class CacheMeterBinder {
+
+    private final MeterRegistry meterRegistry;
+
+    public CacheMeterBinder(CacheRegistry cacheRegistry, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        cacheRegistry.onCreate(this::bind);
+    }
+
+    /** Exports how many misses of {@code cache} ran the loader and how many waited on another's load. */
+    public void bindMissFills(String cache, SingleFlight<?, ?> loads) {
+        FunctionCounter.builder("gateway.cache.miss.fills", loads, SingleFlight::leaderCount)
+                .tags("cache", cache, "result", "loaded")
+                .description("Cache misses that ran the loader")
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.cache.miss.fills", loads, SingleFlight::coalescedCount)
+                .tags("cache", cache, "result", "coalesced")
+                .description("Cache misses that waited on another request's load instead of running their own")
+                .register(meterRegistry);
+    }
+
+    private void bind(CacheStore store) {
+        Tags tags = Tags.of("cache", store.name());
+        CacheMetrics metrics = store.metrics();
+
+        FunctionCounter.builder("cache.gets", metrics, CacheMetrics::hitCount)
+                .tags(tags).tag("result", "hit")
+                .description("Cache lookups that found a value")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", metrics, CacheMetrics::missCount)
+                .tags(tags).tag("result", "miss")
+                .description("Cache lookups that found nothing")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.puts", metrics, CacheMetrics::putCount)
+                .tags(tags)
+                .register(meterRegistry);
+        if (!store.shared()) {
+            Gauge.builder("cache.size", store, CacheStore::estimatedSize)
+                    .tags(tags)
+                    .description("Approximate number of entries")
+                    .register(meterRegistry);
+        }
+
+        Meter.MeterProvider<Counter> evictions = Counter.builder("cache.evictions")
+                .tags(tags)
+                .description("Entries removed by the cache itself, by cause")
+                .withRegistry(meterRegistry);
+        Meter.MeterProvider<Timer> loads = Timer.builder("cache.load")
+                .tags(tags)
+                .description("Time to fill a cache miss")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .withRegistry(meterRegistry);
+
+        metrics.addListener(new CacheMetrics.Listener() {
+            @Override
+            public void onEviction(String cause) {
+                evictions.withTag("cause", cause).increment();
+            }
+
+            @Override
+            public void onLoad(long nanos, boolean success) {
+                loads.withTag("result", success ? "success" : "failure").record(nanos, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+}
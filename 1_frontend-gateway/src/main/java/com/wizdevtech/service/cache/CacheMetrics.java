@@ -0,0 +1,115 @@
+package com.wizdevtech.service.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters every {@link CacheStore} keeps, whatever its backend.
+ *
+ * {@link Listener}s additionally see each eviction and load as it happens, e.g.
+ * to feed latency histograms that plain counters cannot provide.
+ */
+public class CacheMetrics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadTimeNanos = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> evictions = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordPut() {
+        puts.increment();
+    }
+
+    /**
+     * Records an entry removed by the cache itself; {@code cause} is e.g. {@code size} or {@code expired}.
+     */
+    public void recordEviction(String cause) {
+        evictions.computeIfAbsent(cause, c -> new LongAdder()).increment();
+        for (Listener listener : listeners) {
+            listener.onEviction(cause);
+        }
+    }
+
+    public void recordLoad(long nanos, boolean success) {
+        totalLoadTimeNanos.add(nanos);
+        if (success) {
+            loadSuccesses.increment();
+        } else {
+            loadFailures.increment();
+        }
+        for (Listener listener : listeners) {
+            listener.onLoad(nanos, success);
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long putCount() {
+        return puts.sum();
+    }
+
+    public long loadSuccessCount() {
+        return loadSuccesses.sum();
+    }
+
+    public long loadFailureCount() {
+        return loadFailures.sum();
+    }
+
+    public long totalLoadTimeNanos() {
+        return totalLoadTimeNanos.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /** Eviction counts keyed by cause, sorted by cause. */
+    public Map<String, Long> evictionsByCause() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        evictions.forEach((cause, count) -> snapshot.put(cause, count.sum()));
+        return snapshot;
+    }
+
+    public double hitRate() {
+        long hitCount = hitCount();
+        long requests = hitCount + missCount();
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    public interface Listener {
+
+        default void onEviction(String cause) {
+        }
+
+        default void onLoad(long nanos, boolean success) {
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.wizdevtech.service.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-cache configuration, e.g.
+ * <pre>
+ * gateway.cache.default-provider=in-process
+ * gateway.cache.caches[api_responses].max-weight-bytes=67108864
+ * gateway.cache.caches[api_responses].ttl=1h
+ * </pre>
+ * Cache names need the bracket form to keep underscores. Caches without an
+ * entry use the defaults of {@link Spec} and the default provider.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.cache")
+public class CacheProperties {
+
+    private String defaultProvider = "in-process";
+
+    private Map<String, Spec> caches = new HashMap<>();
+
+    public Spec specFor(String name) {
+        Spec spec = caches.getOrDefault(name, new Spec());
+        if (spec.getProvider() == null) {
+            spec.setProvider(defaultProvider);
+        }
+        return spec;
+    }
+
+    public String getDefaultProvider() {
+        return defaultProvider;
+    }
+
+    public void setDefaultProvider(String defaultProvider) {
+        this.defaultProvider = defaultProvider;
+    }
+
+    public Map<String, Spec> getCaches() {
+        return caches;
+    }
+
+    public void setCaches(Map<String, Spec> caches) {
+        this.caches = caches;
+    }
+
+    public static class Spec {
+
+        private String provider;
+
+        // Entry bound; ignored by providers when max-weight-bytes is set
+        private long maxSize = 10_000;
+
+        // Approximate heap bound in bytes; 0 means bound by max-size instead
+        private long maxWeightBytes = 0;
+
+        private Duration ttl = Duration.ofHours(1);
+
+        public String getProvider() {
+            return provider;
+        }
+
+        public void setProvider(String provider) {
+            this.provider = provider;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public long getMaxWeightBytes() {
+            return maxWeightBytes;
+        }
+
+        public void setMaxWeightBytes(long maxWeightBytes) {
+            this.maxWeightBytes = maxWeightBytes;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.wizdevtech.service.cache;
+
+/**
+ * A cache backend that {@link CacheRegistry} can create named caches from.
+ * Providers are Spring beans; the one used for a cache is chosen by its
+ * {@code gateway.cache.caches[<name>].provider} setting.
+ */
+public interface CacheProvider {
+
+    /**
+     * The value used to select this provider in configuration, e.g. {@code in-process}.
+     */
+    String type();
+
+    CacheStore create(String name, CacheProperties.Spec spec);
+}
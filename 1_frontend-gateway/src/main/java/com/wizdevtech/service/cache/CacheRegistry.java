@@ -0,0 +1,84 @@
+package com.wizdevtech.service.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates and holds the gateway's named caches, each from the provider its
+ * configuration selects.
+ */
+@Component
+public class CacheRegistry {
+
+    private final Map<String, CacheProvider> providers;
+    private final CacheProperties properties;
+    private final ConcurrentMap<String, CacheStore> stores = new ConcurrentHashMap<>();
+    private final List<Consumer<CacheStore>> listeners = new CopyOnWriteArrayList<>();
+
+    public CacheRegistry(List<CacheProvider> providers, CacheProperties properties) {
+        this.providers = providers.stream()
+                .collect(Collectors.toMap(CacheProvider::type, Function.identity()));
+        this.properties = properties;
+    }
+
+    /**
+     * Returns the cache called {@code name}, creating it on first use.
+     */
+    public CacheStore store(String name) {
+        CacheStore store = stores.get(name);
+        if (store != null) {
+            return store;
+        }
+        boolean[] created = new boolean[1];
+        store = stores.computeIfAbsent(name, n -> {
+            created[0] = true;
+            return create(n);
+        });
+        if (created[0]) {
+            for (Consumer<CacheStore> listener : listeners) {
+                listener.accept(store);
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Calls {@code listener} for every cache created so far and every cache
+     * created from now on.
+     */
+    public void onCreate(Consumer<CacheStore> listener) {
+        listeners.add(listener);
+        stores.values().forEach(listener);
+    }
+
+    /**
+     * Returns the cache called {@code name} only if it has already been created.
+     */
+    public Optional<CacheStore> find(String name) {
+        return Optional.ofNullable(stores.get(name));
+    }
+
+    public Collection<CacheStore> stores() {
+        return stores.values();
+    }
+
+    private CacheStore create(String name) {
+        CacheProperties.Spec spec = properties.specFor(name);
+        CacheProvider provider = providers.get(spec.getProvider());
+        if (provider == null) {
+            throw new IllegalStateException("Unknown cache provider '" + spec.getProvider()
+                    + "' for cache '" + name + "'; available: " + providers.keySet());
+        }
+        return provider.create(name, spec);
+    }
+}
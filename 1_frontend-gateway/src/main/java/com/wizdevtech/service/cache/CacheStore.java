@@ -0,0 +1,54 @@
+package com.wizdevtech.service.cache;
+
+import java.time.Duration;
+
+/**
+ * A named cache created by a {@link CacheProvider}.
+ *
+ * Keys are strings; values are whatever the caller stores, though providers that
+ * keep values outside the heap require them to be {@link java.io.Serializable}.
+ * All implementations record hits, misses, evictions and loads in {@link #metrics()}.
+ */
+public interface CacheStore {
+
+    String name();
+
+    /**
+     * Returns the cached value, or {@code null} on a miss or an expired entry.
+     */
+    Object get(String key);
+
+    /**
+     * Stores a value with the cache's configured TTL.
+     */
+    default void put(String key, Object value) {
+        put(key, value, null);
+    }
+
+    /**
+     * Stores a value that expires after {@code ttl}; {@code null} means the
+     * configured TTL. A zero or negative TTL drops the key instead.
+     */
+    void put(String key, Object value, Duration ttl);
+
+    void invalidate(String key);
+
+    /**
+     * Drops every key starting with {@code prefix}.
+     */
+    void invalidatePrefix(String prefix);
+
+    void clear();
+
+    long estimatedSize();
+
+    /**
+     * Whether every gateway node sees the same entries (e.g. a database-backed
+     * cache). Shared caches need no cross-node invalidation.
+     */
+    default boolean shared() {
+        return false;
+    }
+
+    CacheMetrics metrics();
+}
@@ -0,0 +1,94 @@
+package com.wizdevtech.service.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Serializes values for providers that keep them outside the Java heap graph.
+ * Strings are stored as UTF-8, anything else with Java serialization, behind a
+ * one-character type tag.
+ *
+ * Stored bytes may come from a shared table, so deserialization only accepts
+ * the gateway's model classes, Spring's cached-null marker and plain JDK value
+ * types; any other class in the stream fails the read instead of being loaded.
+ */
+final class CacheValueCodec {
+
+    private static final byte STRING_TAG = 's';
+    private static final byte SERIALIZED_TAG = 'j';
+
+    static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter(
+            "maxdepth=20;maxrefs=100000;maxarray=67108864;"
+                    + "java.lang.*;java.math.*;java.time.*;java.util.*;"
+                    + "com.wizdevtech.model.*;org.springframework.cache.support.NullValue;!*");
+
+    private CacheValueCodec() {
+    }
+
+    static byte[] encode(Object value) {
+        if (value instanceof String text) {
+            byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+            byte[] encoded = new byte[utf8.length + 1];
+            encoded[0] = STRING_TAG;
+            System.arraycopy(utf8, 0, encoded, 1, utf8.length);
+            return encoded;
+        }
+        if (!(value instanceof Serializable)) {
+            throw new IllegalArgumentException("Cache value is not serializable: " + value.getClass().getName());
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(SERIALIZED_TAG);
+        try (ObjectOutputStream objects = new ObjectOutputStream(out)) {
+            objects.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    static Object decode(byte[] encoded) {
+        if (encoded[0] == STRING_TAG) {
+            return new String(encoded, 1, encoded.length - 1, StandardCharsets.UTF_8);
+        }
+        try (ObjectInputStream objects = new ObjectInputStream(
+                new ByteArrayInputStream(encoded, 1, encoded.length - 1))) {
+            objects.setObjectInputFilter(FILTER);
+            return objects.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Cannot decode cached value", e);
+        }
+    }
+
+    /**
+     * Text form for text columns: strings as-is after the tag, other values Base64.
+     */
+    static String encodeText(Object value) {
+        byte[] encoded = encode(value);
+        if (encoded[0] == STRING_TAG) {
+            return new String(encoded, 0, encoded.length, StandardCharsets.UTF_8);
+        }
+        return (char) SERIALIZED_TAG + Base64.getEncoder().encodeToString(Arrays.copyOfRange(encoded, 1, encoded.length));
+    }
+
+    static Object decodeText(String text) {
+        if (text.charAt(0) == STRING_TAG) {
+            return text.substring(1);
+        }
+        byte[] payload = Base64.getDecoder().decode(text.substring(1));
+        byte[] encoded = new byte[payload.length + 1];
+        encoded[0] = SERIALIZED_TAG;
+        System.arraycopy(payload, 0, encoded, 1, payload.length);
+        return decode(encoded);
+    }
+}
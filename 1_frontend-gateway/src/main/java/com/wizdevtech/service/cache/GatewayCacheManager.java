@@ -0,0 +1,117 @@
+package com.wizdevtech.service.cache;
+
+import com.wizdevtech.service.SingleFlight;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Exposes the {@link CacheRegistry} caches to Spring's {@code @Cacheable} support.
+ * Evictions ({@code @CacheEvict}) go through the {@link CacheInvalidationBus}, so
+ * they reach every gateway node. Each cache's coalesced misses are exported by
+ * the {@link CacheMeterBinder}.
+ */
+@Component
+public class GatewayCacheManager implements CacheManager {
+
+    private final CacheRegistry registry;
+    private final CacheInvalidationBus invalidationBus;
+    private final CacheMeterBinder meterBinder;
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public GatewayCacheManager(CacheRegistry registry, CacheInvalidationBus invalidationBus,
+                               CacheMeterBinder meterBinder) {
+        this.registry = registry;
+        this.invalidationBus = invalidationBus;
+        this.meterBinder = meterBinder;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, n -> {
+            StoreCache cache = new StoreCache(registry.store(n), invalidationBus);
+            meterBinder.bindMissFills(n, cache.loads);
+            return cache;
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return List.copyOf(caches.keySet());
+    }
+
+    private static final class StoreCache extends AbstractValueAdaptingCache {
+
+        private final CacheStore store;
+        private final CacheInvalidationBus invalidationBus;
+        private final SingleFlight<String, Object> loads = new SingleFlight<>();
+
+        StoreCache(CacheStore store, CacheInvalidationBus invalidationBus) {
+            super(true);
+            this.store = store;
+            this.invalidationBus = invalidationBus;
+        }
+
+        @Override
+        public String getName() {
+            return store.name();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return store;
+        }
+
+        @Override
+        protected Object lookup(Object key) {
+            return store.get(String.valueOf(key));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            String cacheKey = String.valueOf(key);
+            Object stored = store.get(cacheKey);
+            if (stored != null) {
+                return (T) fromStoreValue(stored);
+            }
+
+            // Concurrent misses for a key run the loader once
+            Object loaded = loads.load(cacheKey, () -> {
+                long start = System.nanoTime();
+                try {
+                    Object value = toStoreValue(valueLoader.call());
+                    store.put(cacheKey, value);
+                    store.metrics().recordLoad(System.nanoTime() - start, true);
+                    return value;
+                } catch (Exception e) {
+                    store.metrics().recordLoad(System.nanoTime() - start, false);
+                    throw new ValueRetrievalException(key, valueLoader, e);
+                }
+            });
+            return (T) fromStoreValue(loaded);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            store.put(String.valueOf(key), toStoreValue(value));
+        }
+
+        @Override
+        public void evict(Object key) {
+            invalidationBus.invalidate(store.name(), String.valueOf(key));
+        }
+
+        @Override
+        public void clear() {
+            invalidationBus.invalidateAll(store.name());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.wizdevtech.service.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Delivers invalidations to every gateway context running in this JVM. Used
+ * when there is no shared PostgreSQL (e.g. on H2) and by multi-node tests.
+ */
+@Component
+public class InJvmInvalidationTransport implements InvalidationTransport {
+
+    public static final String TYPE = "in-jvm";
+
+    // Shared by all application contexts loaded from the same class loader
+    private static final List<Receiver> RECEIVERS = new CopyOnWriteArrayList<>();
+
+    private volatile Receiver receiver;
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public void start(Receiver receiver) {
+        this.receiver = receiver;
+        RECEIVERS.add(receiver);
+    }
+
+    @Override
+    public void publish(InvalidationBatch batch) {
+        for (Receiver target : RECEIVERS) {
+            target.onBatch(batch);
+        }
+    }
+
+    @Override
+    public void stop() {
+        Receiver current = receiver;
+        if (current != null) {
+            RECEIVERS.remove(current);
+            receiver = null;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.wizdevtech.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.wizdevtech.model.ApiResponse;
+import com.wizdevtech.model.SsrCache;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Bounded on-heap caches backed by Caffeine (W-TinyLFU eviction, per-entry TTL).
+ * Bounded by approximate bytes when {@code max-weight-bytes} is set, otherwise
+ * by entry count.
+ */
+@Component
+public class InProcessCacheProvider implements CacheProvider {
+
+    public static final String TYPE = "in-process";
+
+    // Approximate fixed cost of an entry (object headers, key, cache node) on top of the payload
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public CacheStore create(String name, CacheProperties.Spec spec) {
+        return new Store(name, spec);
+    }
+
+    /**
+     * Approximate retained size of a cached value in bytes.
+     */
+    static int weigh(String key, Object value) {
+        long bytes = ENTRY_OVERHEAD_BYTES + key.length() * 2L;
+        if (value instanceof String text) {
+            bytes += text.length() * 2L;
+        } else if (value instanceof byte[] raw) {
+            bytes += raw.length;
+        } else if (value instanceof ApiResponse response) {
+            // Compressed payloads stay compressed in L1 and are weighed as such
+            bytes += response.isCompressed() ? response.getResponseLz4().length : length(response.getResponseJson()) * 2L;
+            bytes += length(response.getApiName()) * 2L;
+        } else if (value instanceof SsrCache page) {
+            bytes += length(page.getHtml()) * 2L;
+            bytes += page.getHtmlGzip() == null ? 0 : page.getHtmlGzip().length;
+            bytes += page.getHtmlDeflate() == null ? 0 : page.getHtmlDeflate().length;
+        } else {
+            bytes += 64;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    /**
+     * Expires entries a fixed time after each write; explicit per-entry TTLs go
+     * through {@link Policy.VarExpiration#put}.
+     */
+    private static final class DefaultTtl implements Expiry<Object, Object> {
+
+        private final long ttlNanos;
+
+        DefaultTtl(Duration ttl) {
+            this.ttlNanos = ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return ttlNanos;
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static final class Store implements CacheStore {
+
+        private final String name;
+        private final CacheMetrics metrics = new CacheMetrics();
+        private final Cache<String, Object> cache;
+        private final Policy.VarExpiration<String, Object> expiration;
+
+        Store(String name, CacheProperties.Spec spec) {
+            this.name = name;
+            Duration defaultTtl = spec.getTtl();
+            Caffeine<Object, Object> builder = Caffeine.newBuilder();
+            if (spec.getMaxWeightBytes() > 0) {
+                builder.maximumWeight(spec.getMaxWeightBytes())
+                        .weigher((Object key, Object value) -> weigh((String) key, value));
+            } else {
+                builder.maximumSize(spec.getMaxSize());
+            }
+            this.cache = builder
+                    .expireAfter(new DefaultTtl(defaultTtl))
+                    .evictionListener((key, value, cause) ->
+                            metrics.recordEviction(cause.name().toLowerCase(Locale.ROOT)))
+                    .build();
+            this.expiration = cache.policy().expireVariably().orElseThrow();
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public Object get(String key) {
+            Object value = cache.getIfPresent(key);
+            if (value == null) {
+                metrics.recordMiss();
+            } else {
+                metrics.recordHit();
+            }
+            return value;
+        }
+
+        @Override
+        public void put(String key, Object value, Duration ttl) {
+            if (ttl == null) {
+                cache.put(key, value);
+            } else if (ttl.isNegative() || ttl.isZero()) {
+                cache.invalidate(key);
+                return;
+            } else {
+                expiration.put(key, value, ttl);
+            }
+            metrics.recordPut();
+        }
+
+        @Override
+        public void invalidate(String key) {
+            cache.invalidate(key);
+        }
+
+        @Override
+        public void invalidatePrefix(String prefix) {
+            cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        }
+
+        @Override
+        public void clear() {
+            cache.invalidateAll();
+        }
+
+        @Override
+        public long estimatedSize() {
+            return cache.estimatedSize();
+        }
+
+        @Override
+        public CacheMetrics metrics() {
+            return metrics;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.wizdevtech.service.cache;
+
+import java.util.List;
+
+/**
+ * Invalidations published together by one node.
+ *
+ * @param origin id of the publishing node, so it can ignore its own batches
+ */
+public record InvalidationBatch(String origin, List<InvalidationEvent> events) {
+}
@@ -0,0 +1,35 @@
+package com.wizdevtech.service.cache;
+
+/**
+ * One eviction to apply to a named cache on every gateway node.
+ *
+ * @param cache cache name, as used with {@link CacheRegistry#store}
+ * @param kind  what {@code value} selects
+ * @param value the key or key prefix; unused for {@link Kind#ALL}
+ */
+public record InvalidationEvent(String cache, Kind kind, String value) {
+
+    public enum Kind {
+        KEY, PREFIX, ALL
+    }
+
+    public static InvalidationEvent key(String cache, String key) {
+        return new InvalidationEvent(cache, Kind.KEY, key);
+    }
+
+    public static InvalidationEvent prefix(String cache, String prefix) {
+        return new InvalidationEvent(cache, Kind.PREFIX, prefix);
+    }
+
+    public static InvalidationEvent all(String cache) {
+        return new InvalidationEvent(cache, Kind.ALL, null);
+    }
+
+    void applyTo(CacheStore store) {
+        switch (kind) {
+            case KEY -> store.invalidate(value);
+            case PREFIX -> store.invalidatePrefix(value);
+            case ALL -> store.clear();
+        }
+    }
+}
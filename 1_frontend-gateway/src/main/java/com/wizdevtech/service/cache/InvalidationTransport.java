@@ -0,0 +1,31 @@
+package com.wizdevtech.service.cache;
+
+/**
+ * Carries {@link InvalidationBatch}es between gateway nodes for the
+ * {@link CacheInvalidationBus}. A transport delivers every published batch to
+ * every started node, including the publisher.
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Name used in {@code gateway.cache.invalidation.transport}.
+     */
+    String type();
+
+    void start(Receiver receiver);
+
+    void publish(InvalidationBatch batch);
+
+    void stop();
+
+    interface Receiver {
+
+        void onBatch(InvalidationBatch batch);
+
+        /**
+         * Called when batches may have been lost, e.g. after the transport
+         * reconnects; the receiver should assume anything may have changed.
+         */
+        void onGap();
+    }
+}
@@ -0,0 +1,297 @@
+package com.wizdevtech.service.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process stand-in for a Redis backend, for local runs and tests.
+ *
+ * It keeps Redis semantics that matter to callers: values are stored serialized
+ * (no shared references), keys expire lazily on access plus through a periodic
+ * sampled expiry cycle, and a full cache evicts by sampled LRU the way
+ * {@code allkeys-lru} does. Swapping in a real Redis provider should not change
+ * caller-visible behavior.
+ *
+ * Like Redis's dict, each store keeps its keys in a dense array next to the map,
+ * so drawing a random sample costs O(sample) rather than a walk of the map. The
+ * expiry thread is only started once a cache is built on this provider.
+ */
+@Component
+public class LocalRedisCacheProvider implements CacheProvider {
+
+    public static final String TYPE = "local-redis";
+
+    // Redis defaults: 20 keys per expiry sample, repeat while more than 25% were expired
+    private static final int EXPIRE_SAMPLE_SIZE = 20;
+    private static final int EXPIRE_REPEAT_PERCENT = 25;
+    private static final int EVICTION_SAMPLE_SIZE = 5;
+
+    private final Set<Store> stores = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService expiryCycle;
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public synchronized CacheStore create(String name, CacheProperties.Spec spec) {
+        Store store = new Store(name, spec);
+        stores.add(store);
+        if (expiryCycle == null) {
+            expiryCycle = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "local-redis-expire");
+                thread.setDaemon(true);
+                return thread;
+            });
+            expiryCycle.scheduleWithFixedDelay(() -> stores.forEach(Store::activeExpireCycle),
+                    100, 100, TimeUnit.MILLISECONDS);
+        }
+        return store;
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        if (expiryCycle != null) {
+            expiryCycle.shutdownNow();
+        }
+    }
+
+    private static final class Entry {
+        final byte[] payload;
+        final long expiresAtNanos;  // 0 when the key never expires
+        volatile long lastAccessNanos;
+        int slot;  // position of the key in Store.keys, guarded by Store.lock
+
+        Entry(byte[] payload, long expiresAtNanos) {
+            this.payload = payload;
+            this.expiresAtNanos = expiresAtNanos;
+            this.lastAccessNanos = System.nanoTime();
+        }
+
+        boolean isExpired(long now) {
+            return expiresAtNanos != 0 && now - expiresAtNanos >= 0;
+        }
+    }
+
+    private static final class Store implements CacheStore {
+
+        private final String name;
+        private final long maxSize;
+        private final Duration defaultTtl;
+        private final CacheMetrics metrics = new CacheMetrics();
+        private final ConcurrentMap<String, Entry> data = new ConcurrentHashMap<>();
+        // Writers hold the lock so data and keys change together; reads go to data alone
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<String> keys = new ArrayList<>();
+
+        Store(String name, CacheProperties.Spec spec) {
+            this.name = name;
+            this.maxSize = spec.getMaxSize();
+            this.defaultTtl = spec.getTtl();
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public Object get(String key) {
+            Entry entry = data.get(key);
+            long now = System.nanoTime();
+            if (entry != null && entry.isExpired(now)) {
+                // Lazy expiry, as Redis does on access
+                if (remove(key, entry)) {
+                    metrics.recordEviction("expired");
+                }
+                entry = null;
+            }
+            if (entry == null) {
+                metrics.recordMiss();
+                return null;
+            }
+            entry.lastAccessNanos = now;
+            metrics.recordHit();
+            return CacheValueCodec.decode(entry.payload);
+        }
+
+        @Override
+        public void put(String key, Object value, Duration ttl) {
+            Duration effective = ttl == null ? defaultTtl : ttl;
+            if (effective != null && (effective.isNegative() || effective.isZero())) {
+                invalidate(key);
+                return;
+            }
+            long expiresAt = effective == null ? 0 : System.nanoTime() + effective.toNanos();
+            Entry entry = new Entry(CacheValueCodec.encode(value), expiresAt);
+            lock.lock();
+            try {
+                Entry previous = data.put(key, entry);
+                if (previous == null) {
+                    entry.slot = keys.size();
+                    keys.add(key);
+                } else {
+                    entry.slot = previous.slot;
+                }
+                while (data.size() > maxSize) {
+                    evictSampledLru();
+                }
+            } finally {
+                lock.unlock();
+            }
+            metrics.recordPut();
+        }
+
+        @Override
+        public void invalidate(String key) {
+            lock.lock();
+            try {
+                Entry entry = data.remove(key);
+                if (entry != null) {
+                    removeSlot(entry.slot);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void invalidatePrefix(String prefix) {
+            lock.lock();
+            try {
+                for (int i = keys.size() - 1; i >= 0; i--) {
+                    String key = keys.get(i);
+                    if (key.startsWith(prefix)) {
+                        data.remove(key);
+                        removeSlot(i);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void clear() {
+            lock.lock();
+            try {
+                data.clear();
+                keys.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public long estimatedSize() {
+            return data.size();
+        }
+
+        @Override
+        public CacheMetrics metrics() {
+            return metrics;
+        }
+
+        // Redis allkeys-lru: evict the least recently used of a few random keys; caller holds the lock
+        private void evictSampledLru() {
+            String victim = null;
+            long oldest = Long.MAX_VALUE;
+            for (int slot : sample(EVICTION_SAMPLE_SIZE)) {
+                String key = keys.get(slot);
+                long lastAccess = data.get(key).lastAccessNanos;
+                if (victim == null || lastAccess < oldest) {
+                    victim = key;
+                    oldest = lastAccess;
+                }
+            }
+            if (victim != null) {
+                removeSlot(data.remove(victim).slot);
+                metrics.recordEviction("size");
+            }
+        }
+
+        void activeExpireCycle() {
+            int expired;
+            do {
+                expired = 0;
+                long now = System.nanoTime();
+                lock.lock();
+                try {
+                    if (keys.isEmpty()) {
+                        return;
+                    }
+                    // Resolve slots to keys first: each removal moves another key into the freed slot
+                    List<String> sampled = new ArrayList<>(EXPIRE_SAMPLE_SIZE);
+                    for (int slot : sample(EXPIRE_SAMPLE_SIZE)) {
+                        sampled.add(keys.get(slot));
+                    }
+                    for (String key : sampled) {
+                        Entry entry = data.get(key);
+                        if (entry != null && entry.isExpired(now)) {
+                            data.remove(key);
+                            removeSlot(entry.slot);
+                            metrics.recordEviction("expired");
+                            expired++;
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            } while (expired * 100 > EXPIRE_SAMPLE_SIZE * EXPIRE_REPEAT_PERCENT);
+        }
+
+        private boolean remove(String key, Entry entry) {
+            lock.lock();
+            try {
+                if (!data.remove(key, entry)) {
+                    return false;
+                }
+                removeSlot(entry.slot);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Up to count random slots of the key array; caller holds the lock
+        private int[] sample(int count) {
+            int size = keys.size();
+            if (size <= count) {
+                int[] all = new int[size];
+                for (int i = 0; i < size; i++) {
+                    all[i] = i;
+                }
+                return all;
+            }
+            int[] slots = new int[count];
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < count; i++) {
+                slots[i] = random.nextInt(size);
+            }
+            return slots;
+        }
+
+        // Moves the last key into the freed slot so the array stays dense; caller holds the lock
+        private void removeSlot(int slot) {
+            int last = keys.size() - 1;
+            String moved = keys.remove(last);
+            if (slot != last) {
+                keys.set(slot, moved);
+                data.get(moved).slot = slot;
+            }
+        }
+    }
+}
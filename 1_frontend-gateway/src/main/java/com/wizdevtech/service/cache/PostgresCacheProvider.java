@@ -0,0 +1,141 @@
+package com.wizdevtech.service.cache;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Caches stored as rows of {@code gateway_cache_entries}, shared by every gateway node.
+ *
+ * Rows are keyed {@code <cache>:<key>} with {@code cache_name} set to the cache
+ * name, so caches never collide with each other; product responses live in
+ * {@code api_responses}, which this provider never touches. Expired rows read
+ * as misses and are removed by the expiry sweeper.
+ */
+@Component
+public class PostgresCacheProvider implements CacheProvider {
+
+    public static final String TYPE = "postgres";
+
+    private static final String POSTGRES_UPSERT =
+            "INSERT INTO gateway_cache_entries (id, cache_name, value_text, expiration) VALUES (?, ?, ?, ?) "
+                    + "ON CONFLICT (id) DO UPDATE SET value_text = EXCLUDED.value_text, expiration = EXCLUDED.expiration";
+
+    private static final String MERGE_UPSERT =
+            "MERGE INTO gateway_cache_entries (id, cache_name, value_text, expiration) KEY (id) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String upsertSql;
+
+    public PostgresCacheProvider(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public CacheStore create(String name, CacheProperties.Spec spec) {
+        return new Store(name, spec.getTtl());
+    }
+
+    private String upsertSql() {
+        String sql = upsertSql;
+        if (sql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    JdbcUtils.commonDatabaseName(connection.getMetaData().getDatabaseProductName()));
+            sql = "PostgreSQL".equals(product) ? POSTGRES_UPSERT : MERGE_UPSERT;
+            upsertSql = sql;
+        }
+        return sql;
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private final class Store implements CacheStore {
+
+        private final String name;
+        private final String keyPrefix;
+        private final Duration defaultTtl;
+        private final CacheMetrics metrics = new CacheMetrics();
+
+        Store(String name, Duration defaultTtl) {
+            this.name = name;
+            this.keyPrefix = name + ":";
+            this.defaultTtl = defaultTtl;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public Object get(String key) {
+            List<String> rows = jdbcTemplate.queryForList(
+                    "SELECT value_text FROM gateway_cache_entries WHERE id = ? AND (expiration IS NULL OR expiration > ?)",
+                    String.class, keyPrefix + key, OffsetDateTime.now(ZoneOffset.UTC));
+            if (rows.isEmpty() || rows.get(0) == null) {
+                metrics.recordMiss();
+                return null;
+            }
+            metrics.recordHit();
+            return CacheValueCodec.decodeText(rows.get(0));
+        }
+
+        @Override
+        public void put(String key, Object value, Duration ttl) {
+            Duration effective = ttl == null ? defaultTtl : ttl;
+            if (effective != null && (effective.isNegative() || effective.isZero())) {
+                invalidate(key);
+                return;
+            }
+            OffsetDateTime expiry = effective == null ? null : OffsetDateTime.now(ZoneOffset.UTC).plus(effective);
+            jdbcTemplate.update(upsertSql(), keyPrefix + key, name, CacheValueCodec.encodeText(value), expiry);
+            metrics.recordPut();
+        }
+
+        @Override
+        public void invalidate(String key) {
+            jdbcTemplate.update("DELETE FROM gateway_cache_entries WHERE id = ?", keyPrefix + key);
+        }
+
+        @Override
+        public void invalidatePrefix(String prefix) {
+            jdbcTemplate.update("DELETE FROM gateway_cache_entries WHERE id LIKE ? ESCAPE '\\'",
+                    escapeLike(keyPrefix + prefix) + "%");
+        }
+
+        @Override
+        public void clear() {
+            jdbcTemplate.update("DELETE FROM gateway_cache_entries WHERE cache_name = ?", name);
+        }
+
+        @Override
+        public long estimatedSize() {
+            Long count = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM gateway_cache_entries WHERE cache_name = ?", Long.class, name);
+            return count == null ? 0 : count;
+        }
+
+        @Override
+        public boolean shared() {
+            return true;
+        }
+
+        @Override
+        public CacheMetrics metrics() {
+            return metrics;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.wizdevtech.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Broadcasts invalidations with PostgreSQL {@code LISTEN/NOTIFY} on the database
+ * the gateway nodes already share.
+ *
+ * Each batch is sent as JSON, split across as many {@code NOTIFY}s as needed to
+ * stay under the server's 8000-byte payload limit. One pooled connection per
+ * node is held for {@code LISTEN}; if it drops, the node reconnects and reports
+ * a gap, since notifications sent while disconnected are not replayed.
+ */
+@Component
+public class PostgresInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresInvalidationTransport.class);
+
+    public static final String TYPE = "postgres";
+
+    static final String CHANNEL = "gateway_cache_invalidation";
+
+    // Server limit is 8000 bytes including the channel name
+    static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long MAX_BACKOFF_MS = 10_000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final LongAdder notifies = new LongAdder();
+    private final LongAdder publishFailures = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresInvalidationTransport(DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public void start(Receiver receiver) {
+        running = true;
+        listener = new Thread(() -> listen(receiver), "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void publish(InvalidationBatch batch) {
+        List<String> payloads = encode(batch);
+        try {
+            // One connection for the whole batch; autocommit sends each NOTIFY immediately
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                    for (String payload : payloads) {
+                        statement.setString(1, CHANNEL);
+                        statement.setString(2, payload);
+                        statement.execute();
+                    }
+                }
+                return null;
+            });
+            notifies.add(payloads.size());
+        } catch (DataAccessException e) {
+            // Other nodes keep their entries until TTL; nothing to retry against
+            publishFailures.increment();
+            log.warn("Failed to publish {} cache invalidations: {}", batch.events().size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            try {
+                listener.join(TimeUnit.SECONDS.toMillis(2));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public long notifyCount() {
+        return notifies.sum();
+    }
+
+    public long publishFailureCount() {
+        return publishFailures.sum();
+    }
+
+    public long reconnectCount() {
+        return reconnects.sum();
+    }
+
+    /**
+     * Splits a batch into JSON payloads that each fit in one {@code NOTIFY}. An
+     * event too large to send on its own is widened to clearing its cache.
+     */
+    static List<String> encode(InvalidationBatch batch) {
+        int envelope = size(new InvalidationBatch(batch.origin(), List.of()));
+        List<String> payloads = new ArrayList<>();
+        List<InvalidationEvent> chunk = new ArrayList<>();
+        int chunkBytes = envelope;
+
+        for (InvalidationEvent event : batch.events()) {
+            int eventBytes = size(event) + 1;
+            if (envelope + eventBytes > MAX_PAYLOAD_BYTES) {
+                event = InvalidationEvent.all(event.cache());
+                eventBytes = size(event) + 1;
+            }
+            if (!chunk.isEmpty() && chunkBytes + eventBytes > MAX_PAYLOAD_BYTES) {
+                payloads.add(write(new InvalidationBatch(batch.origin(), chunk)));
+                chunk = new ArrayList<>();
+                chunkBytes = envelope;
+            }
+            chunk.add(event);
+            chunkBytes += eventBytes;
+        }
+        if (!chunk.isEmpty()) {
+            payloads.add(write(new InvalidationBatch(batch.origin(), chunk)));
+        }
+        return payloads;
+    }
+
+    static InvalidationBatch decode(String payload) throws JsonProcessingException {
+        return MAPPER.readValue(payload, InvalidationBatch.class);
+    }
+
+    private static int size(Object value) {
+        return write(value).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static String write(Object value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode cache invalidation", e);
+        }
+    }
+
+    private void listen(Receiver receiver) {
+        long backoffMs = POLL_TIMEOUT_MS;
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (connectedBefore) {
+                    reconnects.increment();
+                    receiver.onGap();
+                }
+                connectedBefore = true;
+                backoffMs = POLL_TIMEOUT_MS;
+                try {
+                    poll(connection.unwrap(PGConnection.class), receiver);
+                } finally {
+                    // The connection goes back to the pool; stop it from queueing notifications
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("UNLISTEN *");
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener lost its connection, retrying in {} ms: {}",
+                        backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void poll(PGConnection connection, Receiver receiver) throws SQLException {
+        while (running) {
+            PGNotification[] notifications = connection.getNotifications(POLL_TIMEOUT_MS);
+            if (notifications == null) {
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                try {
+                    receiver.onBatch(decode(notification.getParameter()));
+                } catch (JsonProcessingException e) {
+                    log.warn("Ignoring malformed cache invalidation payload: {}", e.getOriginalMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.wizdevtech.service.upstream;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker.
+ *
+ * While CLOSED, the outcomes of the last {@code windowSize} calls are kept; once
+ * at least {@code minimumCalls} are recorded and the failure rate reaches the
+ * threshold, the breaker OPENs and rejects calls for {@code openDuration}. It
+ * then goes HALF_OPEN and lets {@code halfOpenCalls} trial calls through: if
+ * all succeed it closes with a fresh window, and any failure re-opens it.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int minimumCalls;
+    private final int failureRatePercent;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoTime;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] window;
+    private int recorded;
+    private int next;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialPermits;
+    private int trialSuccesses;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, int failureRatePercent,
+                          Duration openDuration, int halfOpenCalls) {
+        this(windowSize, minimumCalls, failureRatePercent, openDuration, halfOpenCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(int windowSize, int minimumCalls, int failureRatePercent,
+                   Duration openDuration, int halfOpenCalls, LongSupplier nanoTime) {
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRatePercent = failureRatePercent;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.nanoTime = nanoTime;
+    }
+
+    static CircuitBreaker from(UpstreamProperties.Breaker settings) {
+        return new CircuitBreaker(settings.getWindowSize(), settings.getMinimumCalls(),
+                settings.getFailureRatePercent(), settings.getOpenDuration(), settings.getHalfOpenCalls());
+    }
+
+    /**
+     * Whether a call may go ahead now. Every permitted call must be followed by
+     * {@link #onSuccess()} or {@link #onFailure()}.
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (nanoTime.getAsLong() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialPermits = halfOpenCalls;
+                trialSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialPermits == 0) {
+                    return false;
+                }
+                trialPermits--;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                if (++trialSuccesses >= halfOpenCalls) {
+                    state = State.CLOSED;
+                    resetWindow();
+                }
+            } else if (state == State.CLOSED) {
+                record(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFailure() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                open();
+            } else if (state == State.CLOSED) {
+                record(true);
+                if (recorded >= minimumCalls && failures * 100 >= failureRatePercent * recorded) {
+                    open();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            // Overwrite the oldest outcome
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoTime.getAsLong();
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        recorded = 0;
+        next = 0;
+        failures = 0;
+    }
+}
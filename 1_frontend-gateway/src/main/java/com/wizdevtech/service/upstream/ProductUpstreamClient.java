@@ -0,0 +1,295 @@
+package com.wizdevtech.service.upstream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Client for {@code 3_product-service}.
+ *
+ * One shared JDK {@link HttpClient} negotiates HTTP/2 where the server offers
+ * it and otherwise keeps HTTP/1.1 connections alive in its pool, so requests do
+ * not pay a handshake each. Every call:
+ * <ul>
+ *   <li>has a deadline per route ({@code route-timeouts}), covering any hedge;</li>
+ *   <li>goes through a {@link CircuitBreaker}: 5xx, timeouts and connection
+ *   failures count as failures, and while open, calls fail at once;</li>
+ *   <li>is hedged: if the first attempt has not answered after
+ *   {@code hedge-delay}, an identical second one is sent and the first good
+ *   answer wins. Hedges in flight are capped so a slow upstream is not sent
+ *   twice the load.</li>
+ * </ul>
+ * Failures surface as {@link UpstreamUnavailableException}, so callers can fall
+ * back to cached data; 4xx answers as {@link UpstreamClientErrorException}.
+ */
+@Component
+public class ProductUpstreamClient {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductUpstreamClient.class);
+
+    /** Route name of {@code GET /products/{id}}, for timeouts and metrics. */
+    public static final String PRODUCT_ROUTE = "product";
+    /** Route name of {@code POST /products/batch}. */
+    public static final String BATCH_ROUTE = "batch";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final UpstreamProperties properties;
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final CircuitBreaker breaker;
+    private final AtomicInteger hedgesInFlight = new AtomicInteger();
+
+    private final Meter.MeterProvider<Timer> requests;
+    private final Meter.MeterProvider<Counter> hedges;
+
+    public ProductUpstreamClient(UpstreamProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        String url = properties.getBaseUrl();
+        this.baseUrl = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+        this.breaker = CircuitBreaker.from(properties.getBreaker());
+
+        this.requests = Timer.builder("gateway.upstream.request")
+                .tag("upstream", "product")
+                .description("Calls to product-service, hedges included, by outcome")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .withRegistry(meterRegistry);
+        this.hedges = Counter.builder("gateway.upstream.hedges")
+                .tag("upstream", "product")
+                .description("Second requests sent because the first was slow")
+                .withRegistry(meterRegistry);
+        Gauge.builder("gateway.upstream.circuit.state", breaker, b -> b.state().ordinal())
+                .tag("upstream", "product")
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(meterRegistry);
+    }
+
+    public boolean isConfigured() {
+        return !baseUrl.isEmpty();
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return breaker.state();
+    }
+
+    /**
+     * Whether product-service can take {@code id}; its ids are longs, and one
+     * unparsable id makes it reject a whole batch.
+     */
+    public static boolean isProductId(String id) {
+        try {
+            Long.parseLong(id);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the product's JSON as served by product-service.
+     */
+    public String fetchProduct(String id) {
+        return get(PRODUCT_ROUTE, "/products/" + URLEncoder.encode(id, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the JSON of each product product-service knows among {@code ids},
+     * keyed by id, from one {@code POST /products/batch}. Unknown ids are absent;
+     * every id must pass {@link #isProductId}.
+     */
+    public Map<String, String> fetchProducts(Collection<String> ids) {
+        String body;
+        try {
+            body = MAPPER.writeValueAsString(ids);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot encode product ids", e);
+        }
+        String json = call(BATCH_ROUTE, "/products/batch", builder -> builder
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+
+        Map<String, String> products = new LinkedHashMap<>();
+        try {
+            for (JsonNode product : MAPPER.readTree(json)) {
+                products.put(product.path("id").asText(), MAPPER.writeValueAsString(product));
+            }
+        } catch (JsonProcessingException e) {
+            throw new UpstreamUnavailableException("product-service sent an unreadable batch: " + e.getOriginalMessage(), e);
+        }
+        return products;
+    }
+
+    /**
+     * GETs {@code path} (relative to the base URL) and returns the 2xx body.
+     */
+    String get(String route, String path) {
+        return call(route, path, HttpRequest.Builder::GET);
+    }
+
+    /**
+     * Sends an idempotent request built by {@code method} and returns the 2xx
+     * body. Only idempotent requests may come through here, since slow ones are
+     * sent twice.
+     */
+    private String call(String route, String path, UnaryOperator<HttpRequest.Builder> method) {
+        if (!isConfigured()) {
+            throw new UpstreamUnavailableException("product-service base URL is not configured");
+        }
+        // Built before taking a permit: a bad path must not hold a half-open trial
+        Duration timeout = properties.timeoutFor(route);
+        HttpRequest request = method.apply(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Accept", "application/json"))
+                .build();
+        if (!breaker.tryAcquire()) {
+            requests.withTags(Tags.of("route", route, "outcome", "rejected")).record(0, TimeUnit.NANOSECONDS);
+            throw new UpstreamUnavailableException("product-service circuit is open");
+        }
+
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            HttpResponse<String> response;
+            try {
+                response = send(route, request, start + timeout.toNanos());
+            } catch (RuntimeException e) {
+                // Every permit gets an outcome, or a half-open breaker stalls
+                breaker.onFailure();
+                throw e;
+            }
+            int status = response.statusCode();
+            breaker.onSuccess();
+            if (status >= 400) {
+                outcome = status == 404 ? "not_found" : "client_error";
+                throw new UpstreamClientErrorException(status, "product-service returned " + status + " for " + path);
+            }
+            outcome = "success";
+            return response.body();
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+            breaker.onFailure();
+            throw new UpstreamUnavailableException("product-service timed out after " + timeout.toMillis() + " ms");
+        } catch (ExecutionException e) {
+            breaker.onFailure();
+            Throwable cause = e.getCause();
+            if (cause instanceof HttpTimeoutException) {
+                outcome = "timeout";
+            }
+            log.debug("product-service call to {} failed: {}", path, cause.toString());
+            throw new UpstreamUnavailableException("product-service call failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            breaker.onFailure();
+            throw new UpstreamUnavailableException("Interrupted calling product-service", e);
+        } finally {
+            requests.withTags(Tags.of("route", route, "outcome", outcome))
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private HttpResponse<String> send(String route, HttpRequest request, long deadline)
+            throws TimeoutException, ExecutionException, InterruptedException {
+        CompletableFuture<HttpResponse<String>> primary = attempt(request);
+        long hedgeDelay = properties.getHedgeDelay().toNanos();
+        if (hedgeDelay <= 0 || hedgeDelay >= deadline - System.nanoTime()) {
+            return await(primary, deadline);
+        }
+
+        try {
+            return primary.get(hedgeDelay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException slow) {
+            if (hedgesInFlight.incrementAndGet() > properties.getMaxHedgesInFlight()) {
+                hedgesInFlight.decrementAndGet();
+                return await(primary, deadline);
+            }
+        }
+
+        hedges.withTag("route", route).increment();
+        CompletableFuture<HttpResponse<String>> backup = attempt(request);
+        backup.whenComplete((response, error) -> hedgesInFlight.decrementAndGet());
+        try {
+            return await(firstSuccessful(primary, backup), deadline);
+        } finally {
+            // Stop waiting for whichever attempt lost
+            primary.cancel(true);
+            backup.cancel(true);
+        }
+    }
+
+    /** One request; 5xx answers complete exceptionally so a hedge can still win. */
+    private CompletableFuture<HttpResponse<String>> attempt(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() >= 500) {
+                        throw new CompletionException(new UpstreamUnavailableException(
+                                "product-service returned " + response.statusCode()));
+                    }
+                    return response;
+                });
+    }
+
+    private static <T> T await(CompletableFuture<T> future, long deadline)
+            throws TimeoutException, ExecutionException, InterruptedException {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new TimeoutException();
+        }
+        try {
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (CancellationException e) {
+            throw new ExecutionException(e);
+        }
+    }
+
+    /** Completes with the first attempt to succeed, or fails once both have failed. */
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> first, CompletableFuture<T> second) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> attempt : List.of(first, second)) {
+            attempt.whenComplete((value, error) -> {
+                if (error == null) {
+                    result.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                }
+            });
+        }
+        return result;
+    }
+}
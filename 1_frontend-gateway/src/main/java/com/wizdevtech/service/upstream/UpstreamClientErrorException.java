@@ -0,0 +1,19 @@
+package com.wizdevtech.service.upstream;
+
+/**
+ * The upstream answered with a 4xx, e.g. 404 for an unknown product. The
+ * upstream is healthy; there is nothing to cache or fall back to.
+ */
+public class UpstreamClientErrorException extends RuntimeException {
+
+    private final int status;
+
+    public UpstreamClientErrorException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int status() {
+        return status;
+    }
+}
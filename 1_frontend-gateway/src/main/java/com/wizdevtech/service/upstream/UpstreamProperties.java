@@ -0,0 +1,155 @@
+package com.wizdevtech.service.upstream;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for the product-service client, e.g.
+ * <pre>
+ * gateway.upstream.product.base-url=http://product-service:8080/api
+ * gateway.upstream.product.route-timeouts.product=800ms
+ * gateway.upstream.product.hedge-delay=150ms
+ * gateway.upstream.product.breaker.open-duration=10s
+ * </pre>
+ * An empty {@code base-url} means there is no upstream; every call then fails
+ * as unavailable.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.upstream.product")
+public class UpstreamProperties {
+
+    private String baseUrl = "";
+
+    private Duration connectTimeout = Duration.ofMillis(500);
+
+    // Deadline for a whole call, hedge included, keyed by route name
+    private Map<String, Duration> routeTimeouts = new HashMap<>();
+
+    private Duration defaultTimeout = Duration.ofSeconds(2);
+
+    // A second request is sent if the first has not answered after this; zero disables hedging
+    private Duration hedgeDelay = Duration.ofMillis(150);
+
+    private int maxHedgesInFlight = 16;
+
+    private Breaker breaker = new Breaker();
+
+    public Duration timeoutFor(String route) {
+        return routeTimeouts.getOrDefault(route, defaultTimeout);
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Map<String, Duration> getRouteTimeouts() {
+        return routeTimeouts;
+    }
+
+    public void setRouteTimeouts(Map<String, Duration> routeTimeouts) {
+        this.routeTimeouts = routeTimeouts;
+    }
+
+    public Duration getDefaultTimeout() {
+        return defaultTimeout;
+    }
+
+    public void setDefaultTimeout(Duration defaultTimeout) {
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    public Duration getHedgeDelay() {
+        return hedgeDelay;
+    }
+
+    public void setHedgeDelay(Duration hedgeDelay) {
+        this.hedgeDelay = hedgeDelay;
+    }
+
+    public int getMaxHedgesInFlight() {
+        return maxHedgesInFlight;
+    }
+
+    public void setMaxHedgesInFlight(int maxHedgesInFlight) {
+        this.maxHedgesInFlight = maxHedgesInFlight;
+    }
+
+    public Breaker getBreaker() {
+        return breaker;
+    }
+
+    public void setBreaker(Breaker breaker) {
+        this.breaker = breaker;
+    }
+
+    public static class Breaker {
+
+        // Outcomes of the last window-size calls decide whether to open
+        private int windowSize = 20;
+
+        private int minimumCalls = 10;
+
+        private int failureRatePercent = 50;
+
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        // Trial calls let through after open-duration; all must succeed to close
+        private int halfOpenCalls = 2;
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public int getFailureRatePercent() {
+            return failureRatePercent;
+        }
+
+        public void setFailureRatePercent(int failureRatePercent) {
+            this.failureRatePercent = failureRatePercent;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public int getHalfOpenCalls() {
+            return halfOpenCalls;
+        }
+
+        public void setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+        }
+    }
+}
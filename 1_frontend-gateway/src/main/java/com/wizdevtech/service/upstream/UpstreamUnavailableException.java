@@ -0,0 +1,16 @@
+package com.wizdevtech.service.upstream;
+
+/**
+ * The upstream could not give an answer: not configured, circuit open, timed
+ * out, unreachable or failing with a 5xx. Callers may fall back to stale data.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+
+    public UpstreamUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,204 @@
+package com.wizdevtech.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-coding helpers shared by the cached response paths: precompression,
+ * strong content hashes and {@code Accept-Encoding} negotiation.
+ */
+public final class ContentCodings {
+
+    /**
+     * Codings the gateway can serve precompressed, in server preference order.
+     * {@code deflate} is the zlib format (RFC 1950), as HTTP expects.
+     */
+    public enum Coding {
+        GZIP("gzip", ".gz"),
+        DEFLATE("deflate", ".df"),
+        IDENTITY("identity", "");
+
+        private final String token;
+        private final String etagSuffix;
+
+        Coding(String token, String etagSuffix) {
+            this.token = token;
+            this.etagSuffix = etagSuffix;
+        }
+
+        public String token() {
+            return token;
+        }
+
+        public String etagSuffix() {
+            return etagSuffix;
+        }
+    }
+
+    private ContentCodings() {
+    }
+
+    public static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static byte[] gunzip(byte[] compressed) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static byte[] deflate(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream stream = new DeflaterOutputStream(out, deflater)) {
+            stream.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Hex SHA-256 of {@code raw}; used as a strong validator for the content.
+     */
+    public static String sha256(byte[] raw) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(raw));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Picks the coding to send for an {@code Accept-Encoding} header, honoring
+     * q-values (including explicit {@code q=0} refusals) and the {@code *} wildcard.
+     */
+    public static Coding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return Coding.IDENTITY;
+        }
+
+        double gzipQ = -1;
+        double deflateQ = -1;
+        double wildcardQ = -1;
+        for (String part : acceptEncoding.split(",")) {
+            String[] pieces = part.trim().split(";");
+            String token = pieces[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1.0;
+            for (int i = 1; i < pieces.length; i++) {
+                String param = pieces[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            switch (token) {
+                case "gzip", "x-gzip" -> gzipQ = q;
+                case "deflate" -> deflateQ = q;
+                case "*" -> wildcardQ = q;
+                default -> {
+                }
+            }
+        }
+
+        if (gzipQ < 0) {
+            gzipQ = wildcardQ;
+        }
+        if (deflateQ < 0) {
+            deflateQ = wildcardQ;
+        }
+        if (gzipQ > 0 && gzipQ >= deflateQ) {
+            return Coding.GZIP;
+        }
+        if (deflateQ > 0) {
+            return Coding.DEFLATE;
+        }
+        return Coding.IDENTITY;
+    }
+
+    /**
+     * Strong entity tag for a content hash served with the given coding.
+     */
+    public static String etag(String contentHash, Coding coding) {
+        return "\"" + contentHash + coding.etagSuffix() + "\"";
+    }
+
+    /**
+     * True when an {@code If-None-Match} header names any coding of the content
+     * identified by {@code contentHash}, or is {@code *}.
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String contentHash) {
+        if (ifNoneMatch == null || contentHash == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.length() < 2 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+                continue;
+            }
+            String opaque = tag.substring(1, tag.length() - 1);
+            for (Coding coding : Coding.values()) {
+                if (opaque.equals(contentHash + coding.etagSuffix())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of bytes {@code text} takes in UTF-8, without encoding it.
+     */
+    public static long utf8Length(CharSequence text) {
+        long bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,67 @@
+package com.wizdevtech.util;
+
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * LZ4 storage format for large cached payloads.
+ *
+ * A blob is the uncompressed length as a 4-byte big-endian int followed by a
+ * standard LZ4 frame (64 KB independent blocks), so the size is known without
+ * decompressing and the frame can be decoded as a stream, block by block.
+ */
+public final class Lz4Codec {
+
+    private static final int LENGTH_PREFIX_BYTES = Integer.BYTES;
+
+    private Lz4Codec() {
+    }
+
+    public static byte[] compress(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 3));
+        out.writeBytes(ByteBuffer.allocate(LENGTH_PREFIX_BYTES).putInt(raw.length).array());
+        try (LZ4FrameOutputStream lz4 = new LZ4FrameOutputStream(out, LZ4FrameOutputStream.BLOCKSIZE.SIZE_64KB,
+                LZ4FrameOutputStream.FLG.Bits.BLOCK_INDEPENDENCE)) {
+            lz4.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static byte[] decompress(byte[] blob) {
+        byte[] raw = new byte[uncompressedLength(blob)];
+        try (InputStream in = open(blob)) {
+            int read = in.readNBytes(raw, 0, raw.length);
+            if (read != raw.length) {
+                throw new IOException("LZ4 payload truncated: " + read + " of " + raw.length + " bytes");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return raw;
+    }
+
+    /**
+     * The uncompressed bytes of {@code blob} as a stream, decoded one block at a time.
+     */
+    public static InputStream open(byte[] blob) {
+        try {
+            return new LZ4FrameInputStream(new ByteArrayInputStream(blob, LENGTH_PREFIX_BYTES,
+                    blob.length - LENGTH_PREFIX_BYTES));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static int uncompressedLength(byte[] blob) {
+        return ByteBuffer.wrap(blob, 0, LENGTH_PREFIX_BYTES).getInt();
+    }
+}
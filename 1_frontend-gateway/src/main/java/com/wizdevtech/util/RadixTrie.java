@@ -0,0 +1,168 @@
+package com.wizdevtech.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Set of strings in a radix tree: edges carry whole runs of characters, so
+ * routes sharing a prefix such as {@code /products/} share its nodes, and
+ * {@link #withPrefix} visits only the subtree under the prefix instead of
+ * every key.
+ *
+ * Not thread-safe.
+ */
+public class RadixTrie {
+
+    private final Node root = new Node("");
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    /** Adds {@code key}; false if it was already present. */
+    public boolean add(String key) {
+        Node node = root;
+        int i = 0;
+        while (true) {
+            if (i == key.length()) {
+                if (node.terminal) {
+                    return false;
+                }
+                node.terminal = true;
+                size++;
+                return true;
+            }
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                Node leaf = new Node(key.substring(i));
+                leaf.terminal = true;
+                node.children.put(key.charAt(i), leaf);
+                size++;
+                return true;
+            }
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // Split the edge where the key leaves it
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children.put(child.label.charAt(0), child);
+                node.children.put(middle.label.charAt(0), middle);
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+    }
+
+    /** Removes {@code key}; false if it was not present. */
+    public boolean remove(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return false;
+            }
+            path.add(node);
+            node = child;
+            i += child.label.length();
+        }
+        if (!node.terminal) {
+            return false;
+        }
+        node.terminal = false;
+        size--;
+
+        // Prune the emptied leaf, then merge a parent left with a single child into it
+        Node parent = path.isEmpty() ? null : path.get(path.size() - 1);
+        if (parent != null && node.children.isEmpty()) {
+            parent.children.remove(node.label.charAt(0));
+            node = parent;
+            parent = path.size() > 1 ? path.get(path.size() - 2) : null;
+        }
+        if (parent != null && !node.terminal && node.children.size() == 1) {
+            Node only = node.children.firstEntry().getValue();
+            only.label = node.label + only.label;
+            parent.children.put(only.label.charAt(0), only);
+        }
+        return true;
+    }
+
+    public void clear() {
+        root.children.clear();
+        root.terminal = false;
+        size = 0;
+    }
+
+    public boolean contains(String key) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return false;
+            }
+            node = child;
+            i += child.label.length();
+        }
+        return node.terminal;
+    }
+
+    /** Every key starting with {@code prefix}, in lexicographic order. */
+    public List<String> withPrefix(String prefix) {
+        List<String> keys = new ArrayList<>();
+        Node node = root;
+        StringBuilder path = new StringBuilder();
+        int i = 0;
+        while (i < prefix.length()) {
+            Node child = node.children.get(prefix.charAt(i));
+            if (child == null) {
+                return keys;
+            }
+            int common = commonPrefix(child.label, prefix, i);
+            if (i + common < prefix.length() && common < child.label.length()) {
+                return keys; // diverges inside the edge
+            }
+            path.append(child.label);
+            node = child;
+            i += common;
+        }
+        collect(node, path, keys);
+        return keys;
+    }
+
+    private static void collect(Node node, StringBuilder path, List<String> keys) {
+        if (node.terminal) {
+            keys.add(path.toString());
+        }
+        for (Node child : node.children.values()) {
+            int length = path.length();
+            path.append(child.label);
+            collect(child, path, keys);
+            path.setLength(length);
+        }
+    }
+
+    // Length of the common prefix of label and key.substring(from)
+    private static int commonPrefix(String label, String key, int from) {
+        int max = Math.min(label.length(), key.length() - from);
+        int n = 0;
+        while (n < max && label.charAt(n) == key.charAt(from + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    private static final class Node {
+        String label;
+        boolean terminal;
+        final TreeMap<Character, Node> children = new TreeMap<>();
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+}
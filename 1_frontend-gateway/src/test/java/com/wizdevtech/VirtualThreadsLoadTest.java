@@ -0,0 +1,151 @@
+package com.wizdevtech;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load comparison of the {@code virtual-threads} profile against Tomcat's platform
+ * worker pool on {@code GET /api/products/{id}}.
+ *
+ * Every request is a cold miss (its own id), so it reads {@code api_responses} and
+ * then waits {@value #UPSTREAM_MS} ms on a stubbed product-service, the blocking
+ * shape virtual threads are meant for. {@value #REQUESTS} requests are sent at once
+ * against {@value #TOMCAT_THREADS} Tomcat workers; each mode's throughput, latency
+ * percentiles and peak upstream concurrency are logged. Needs a Java 21 runtime,
+ * where {@code spring.threads.virtual.enabled} takes effect.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadsLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsLoadTest.class);
+
+    private static final int REQUESTS = 200;
+    private static final int TOMCAT_THREADS = 8;
+    private static final long UPSTREAM_MS = 100;
+
+    private HttpServer upstream;
+    private ExecutorService upstreamThreads;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+
+    @BeforeEach
+    void startUpstream() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        upstream.createContext("/api/products/", exchange -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(UPSTREAM_MS);
+                String id = exchange.getRequestURI().getPath().substring("/api/products/".length());
+                byte[] body = ("{\"id\":\"" + id + "\"}").getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        upstreamThreads = Executors.newCachedThreadPool();
+        upstream.setExecutor(upstreamThreads);
+        upstream.start();
+    }
+
+    @AfterEach
+    void stopUpstream() {
+        upstream.stop(0);
+        upstreamThreads.shutdownNow();
+    }
+
+    @Test
+    void virtualThreadsLiftTheTomcatPoolCapOnProductMisses() throws Exception {
+        Run platform = run("platform", false);
+        Run virtual = run("virtual", true);
+        log.info("{}", platform);
+        log.info("{}", virtual);
+
+        assertTrue(platform.peakUpstream() <= TOMCAT_THREADS, "platform mode is capped by the worker pool: " + platform);
+        assertTrue(virtual.peakUpstream() > TOMCAT_THREADS * 4, "virtual mode runs far more misses at once: " + virtual);
+        assertTrue(virtual.throughput() > platform.throughput() * 2, virtual + " vs " + platform);
+        assertTrue(virtual.p99Ms() < platform.p99Ms(), virtual + " vs " + platform);
+    }
+
+    private Run run(String mode, boolean virtualThreads) throws Exception {
+        inFlight.set(0);
+        peak.set(0);
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(GatewayApplication.class);
+        builder.profiles(virtualThreads ? new String[]{"test", "virtual-threads"} : new String[]{"test"});
+        try (ConfigurableApplicationContext context = builder.run(
+                "--server.port=0",
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "--spring.jpa.show-sql=false",
+                "--gateway.cache.invalidation.transport=none",
+                "--gateway.sweeper.interval-ms=3600000",
+                // Measure the threading model, not the limiter or hedging
+                "--gateway.admission.enabled=false",
+                "--gateway.upstream.product.base-url=http://localhost:" + upstream.getAddress().getPort() + "/api",
+                "--gateway.upstream.product.hedge-delay=0ms",
+                "--gateway.upstream.product.default-timeout=30s",
+                "--gateway.upstream.product.route-timeouts.product=30s")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            long[] latencies = new long[REQUESTS];
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>(REQUESTS);
+            long start = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                int request = i;
+                long sent = System.nanoTime();
+                URI uri = URI.create("http://localhost:" + port + "/api/products/" + mode + "-" + i);
+                responses.add(client.sendAsync(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString())
+                        .whenComplete((response, error) -> latencies[request] = System.nanoTime() - sent));
+            }
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                assertEquals(200, response.get().statusCode());
+            }
+            long elapsed = System.nanoTime() - start;
+
+            Arrays.sort(latencies);
+            return new Run(mode, REQUESTS * 1e9 / elapsed,
+                    latencies[REQUESTS / 2] / 1_000_000, latencies[REQUESTS * 99 / 100] / 1_000_000, peak.get());
+        }
+    }
+
+    private record Run(String mode, double throughput, long p50Ms, long p99Ms, int peakUpstream) {
+
+        @Override
+        public String toString() {
+            return String.format("%s threads: %.0f req/s, p50 %d ms, p99 %d ms, peak %d upstream calls in flight",
+                    mode, throughput, p50Ms, p99Ms, peakUpstream);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.wizdevtech.controller;
+
+import com.sun.net.httpserver.HttpServer;
+import com.wizdevtech.GatewayApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * {@code POST /api/products:batchGet} against a stubbed product-service that, like
+ * the real one, rejects a whole batch holding an id that is not a number.
+ */
+@SpringBootTest(classes = GatewayApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BatchGetUpstreamTest {
+
+    private static final List<String> batches = new CopyOnWriteArrayList<>();
+    private static final HttpServer upstream = startUpstream();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void upstreamUrl(DynamicPropertyRegistry registry) {
+        registry.add("gateway.upstream.product.base-url",
+                () -> "http://localhost:" + upstream.getAddress().getPort() + "/api");
+        registry.add("gateway.upstream.product.hedge-delay", () -> "0ms");
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.stop(0);
+    }
+
+    @Test
+    void invalidIdGetsItsOwnErrorWhileValidIdsAreLoaded() throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/products:batchGet")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"abc\",\"920001\"]}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().json("["
+                        + "{\"id\":\"abc\",\"error\":\"Invalid product id\"},"
+                        + "{\"id\":\"920001\",\"cache\":\"MISS\",\"product\":{\"id\":920001,\"name\":\"p\"}}]", true));
+        assertEquals(List.of("[\"920001\"]"), batches);
+    }
+
+    private static HttpServer startUpstream() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/api/products/batch", exchange -> {
+                String ids = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                batches.add(ids);
+                boolean numeric = ids.matches("\\[(\"-?\\d+\"(,\"-?\\d+\")*)?]");
+                byte[] body = (numeric ? "[{\"id\":920001,\"name\":\"p\"}]" : "").getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(numeric ? 200 : 400, body.length == 0 ? -1 : body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
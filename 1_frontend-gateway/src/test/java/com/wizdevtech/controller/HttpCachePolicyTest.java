@@ -0,0 +1,36 @@
+package com.wizdevtech.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpCachePolicyTest {
+
+    private final HttpCachePolicy policy = new HttpCachePolicy(300, 30, 3600);
+
+    @Test
+    void maxAgeIsTheRemainingTtlUpToTheCap() {
+        Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        assertEquals("max-age=42, public, stale-if-error=3600, stale-while-revalidate=30",
+                policy.cacheControl(now.plusSeconds(42), false, now).getHeaderValue());
+        assertEquals("max-age=300, public, stale-if-error=3600, stale-while-revalidate=30",
+                policy.cacheControl(now.plusSeconds(3600), false, now).getHeaderValue());
+        assertEquals("no-cache", policy.cacheControl(now.minusSeconds(1), false, now).getHeaderValue());
+        assertEquals("no-cache", policy.cacheControl(now.plusSeconds(60), true, now).getHeaderValue());
+    }
+
+    @Test
+    void ifNoneMatchTakesPrecedenceOverIfModifiedSince() {
+        Instant stored = Instant.parse("2024-01-01T00:00:00.750Z");
+        String sameSecond = "Mon, 01 Jan 2024 00:00:00 GMT";
+
+        assertTrue(policy.notModified(null, sameSecond, "abc", stored));
+        assertFalse(policy.notModified(null, "Sun, 31 Dec 2023 23:59:59 GMT", "abc", stored));
+        assertFalse(policy.notModified("\"other\"", sameSecond, "abc", stored));
+        assertTrue(policy.notModified("W/\"abc\"", null, "abc", stored));
+        assertFalse(policy.notModified(null, "yesterday", "abc", stored));
+    }
+}
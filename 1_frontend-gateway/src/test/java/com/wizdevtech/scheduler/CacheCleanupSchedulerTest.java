@@ -0,0 +1,89 @@
+package com.wizdevtech.scheduler;
+
+import com.wizdevtech.GatewayApplication;
+import com.wizdevtech.model.ApiResponse;
+import com.wizdevtech.model.SsrCache;
+import com.wizdevtech.repository.ApiResponseRepository;
+import com.wizdevtech.repository.SsrCacheRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = GatewayApplication.class, properties = {
+        "gateway.sweeper.interval-ms=3600000",
+        "gateway.sweeper.chunk-size=2",
+        "gateway.sweeper.max-chunks-per-run=2",
+        "gateway.ssr.stale-grace-seconds=300",
+        "gateway.cache.api-responses.stale-if-error-seconds=0"
+})
+@ActiveProfiles("test")
+class CacheCleanupSchedulerTest {
+
+    @Autowired
+    private CacheCleanupScheduler scheduler;
+
+    @Autowired
+    private ApiResponseRepository apiResponseRepository;
+
+    @Autowired
+    private SsrCacheRepository ssrCacheRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void sweepsExpiredRowsInBoundedChunks() {
+        apiResponseRepository.deleteAll();
+        Instant past = Instant.now().minusSeconds(60);
+        for (int i = 0; i < 5; i++) {
+            apiResponseRepository.save(new ApiResponse("old-" + i, "product-api", "{}", past.plusMillis(i)));
+        }
+        apiResponseRepository.save(new ApiResponse("fresh", "product-api", "{}", Instant.now().plusSeconds(60)));
+
+        // At most 2 chunks of 2 per run
+        scheduler.cleanExpiredCache();
+        assertEquals(2, apiResponseRepository.count());
+        assertEquals(1, scheduler.backlog("api_responses"));
+
+        scheduler.cleanExpiredCache();
+        assertEquals(1, apiResponseRepository.count());
+        assertTrue(apiResponseRepository.existsById("fresh"));
+        assertEquals(0, scheduler.backlog("api_responses"));
+        assertEquals(0, meterRegistry.get("gateway.sweeper.backlog").tag("table", "api_responses").gauge().value());
+        assertEquals(scheduler.sweptCount("api_responses"),
+                meterRegistry.get("gateway.sweeper.swept").tag("table", "api_responses").functionCounter().count());
+    }
+
+    @Test
+    void backlogCountStopsAtOneRunsCapacity() {
+        apiResponseRepository.deleteAll();
+        Instant past = Instant.now().minusSeconds(60);
+        for (int i = 0; i < 9; i++) {
+            apiResponseRepository.save(new ApiResponse("old-" + i, "product-api", "{}", past.plusMillis(i)));
+        }
+
+        // 2 chunks of 2 per run: 5 rows are counted, 4 swept, at least 1 left
+        scheduler.cleanExpiredCache();
+        assertEquals(5, apiResponseRepository.count());
+        assertEquals(1, scheduler.backlog("api_responses"));
+        assertEquals(1, meterRegistry.get("gateway.sweeper.backlog").tag("table", "api_responses").gauge().value());
+    }
+
+    @Test
+    void keepsSsrRowsInsideStaleGrace() {
+        ssrCacheRepository.deleteAll();
+        ssrCacheRepository.save(new SsrCache("/grace", "<p/>", Instant.now().minusSeconds(60)));
+        ssrCacheRepository.save(new SsrCache("/gone", "<p/>", Instant.now().minusSeconds(3600)));
+
+        scheduler.cleanExpiredCache();
+
+        assertTrue(ssrCacheRepository.existsById("/grace"));
+        assertFalse(ssrCacheRepository.existsById("/gone"));
+    }
+}
@@ -0,0 +1,199 @@
+package com.wizdevtech.service;
+
+import com.wizdevtech.GatewayApplication;
+import com.wizdevtech.model.ApiResponse;
+import com.wizdevtech.repository.ApiResponseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = GatewayApplication.class)
+@ActiveProfiles("test")
+class ApiResponseCacheTest {
+
+    @Autowired
+    private ApiResponseCache cache;
+
+    @Autowired
+    private ApiResponseRepository repository;
+
+    @Autowired
+    private ApiResponseWriteBehind writeBehind;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void reset() {
+        writeBehind.flush();
+        repository.deleteAll();
+        cache.invalidateAllLocal();
+    }
+
+    @Test
+    void writesAreBatchedIntoTheTable() {
+        cache.put("p-5", "product-api", "{\"v\":1}", Instant.now().plusSeconds(60));
+        cache.put("p-5", "product-api", "{\"v\":2}", Instant.now().plusSeconds(60));
+        cache.put("p-6", "product-api", "{}", Instant.now().plusSeconds(60));
+        writeBehind.flush();
+
+        assertEquals("{\"v\":2}", repository.findById("p-5").orElseThrow().getResponseJson());
+        assertTrue(repository.findById("p-6").isPresent());
+    }
+
+    @Test
+    void hotKeyIsServedFromMemoryAfterRowIsGone() {
+        cache.put("p-1", "product-api", "{\"name\":\"Hot\"}", Instant.now().plusSeconds(60));
+        writeBehind.flush();
+        repository.deleteAll();
+
+        Optional<ApiResponse> hit = cache.get("p-1");
+
+        assertTrue(hit.isPresent());
+        assertEquals("{\"name\":\"Hot\"}", hit.get().getResponseJson());
+    }
+
+    @Test
+    void databaseHitIsPromotedToMemory() {
+        repository.save(new ApiResponse("p-2", "product-api", "{}", Instant.now().plusSeconds(60)));
+
+        assertTrue(cache.get("p-2").isPresent());
+        repository.deleteAll();
+
+        assertTrue(cache.get("p-2").isPresent());
+    }
+
+    @Test
+    void expiredEntriesAreNotServed() {
+        repository.save(new ApiResponse("p-3", "product-api", "{}", Instant.now().minusSeconds(1)));
+        cache.put("p-4", "product-api", "{}", Instant.now().minusSeconds(1));
+
+        assertFalse(cache.get("p-3").isPresent());
+        assertFalse(cache.get("p-4").isPresent());
+    }
+
+    @Test
+    void largePayloadsAreStoredCompressedAndReadBackTransparently() {
+        String json = productJson(20_000);
+        String hash = new ApiResponse("p-big", "product-api", json, null).getContentHash();
+
+        ApiResponse stored = cache.put("p-big", "product-api", json, Instant.now().plusSeconds(60));
+        writeBehind.flush();
+        cache.invalidateAllLocal();
+
+        assertTrue(stored.isCompressed());
+        ApiResponse row = cache.get("p-big").orElseThrow();
+        assertTrue(row.isCompressed());
+        assertTrue(row.getResponseLz4().length < json.length() / 4);
+        assertEquals(json, row.getResponseJson());
+        assertEquals(hash, row.getContentHash());
+        assertEquals(json.length(), row.getPayloadLength());
+    }
+
+    @Test
+    void payloadsOverTheLimitAreServedButNotCached() {
+        long rejected = cache.rejectedPuts();
+        String json = productJson(2_000_000);
+
+        ApiResponse response = cache.put("p-huge", "product-api", json, Instant.now().plusSeconds(60));
+        writeBehind.flush();
+
+        assertEquals(json, response.getResponseJson());
+        assertEquals(rejected + 1, cache.rejectedPuts());
+        assertFalse(cache.get("p-huge").isPresent());
+        assertFalse(repository.existsById("p-huge"));
+    }
+
+    @Test
+    void loadMissGoesStraightToTheLoaderButReusesL1() {
+        // Only in the table: a caller that already missed in get() does not read it again
+        repository.save(new ApiResponse("p-stored", "product-api", "{\"v\":\"db\"}", Instant.now().plusSeconds(60)));
+        ApiResponse loaded = cache.loadMiss("p-stored", "product-api", Duration.ofMinutes(1), () -> "{\"v\":\"upstream\"}");
+        assertEquals("{\"v\":\"upstream\"}", loaded.getResponseJson());
+
+        ApiResponse reused = cache.loadMiss("p-stored", "product-api", Duration.ofMinutes(1), () -> {
+            throw new AssertionError("L1 already holds p-stored");
+        });
+        assertSame(loaded, reused);
+    }
+
+    @Test
+    void coalescedMissesAreMetered() throws Exception {
+        double loaded = missFills("loaded");
+        double coalesced = missFills("coalesced");
+        int callers = 6;
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<ApiResponse>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> cache.getOrLoad("p-burst", "product-api", Duration.ofMinutes(1), () -> {
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "{}";
+                })));
+            }
+            // Release the load once every other caller is waiting on it
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (missFills("coalesced") < coalesced + callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<ApiResponse> result : results) {
+                assertEquals("{}", result.get(5, TimeUnit.SECONDS).getResponseJson());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(loaded + 1, missFills("loaded"));
+        assertEquals(coalesced + callers - 1, missFills("coalesced"));
+    }
+
+    @Test
+    void writesAfterShutdownGoStraightToTheTable() {
+        writeBehind.stop();
+        try {
+            long pending = writeBehind.pending();
+            cache.put("p-late", "product-api", "{}", Instant.now().plusSeconds(60));
+
+            assertEquals(pending, writeBehind.pending());
+            assertTrue(repository.existsById("p-late"));
+        } finally {
+            writeBehind.start();
+        }
+    }
+
+    private double missFills(String result) {
+        return meterRegistry.get("gateway.cache.miss.fills")
+                .tags("cache", ApiResponseCache.CACHE_NAME, "result", result)
+                .functionCounter().count();
+    }
+
+    private static String productJson(int bytes) {
+        StringBuilder json = new StringBuilder("{\"reviews\":[");
+        for (int i = 0; json.length() < bytes; i++) {
+            json.append("{\"id\":").append(i).append(",\"text\":\"Works as described\"},");
+        }
+        return json.append("{}]}").toString();
+    }
+}
@@ -0,0 +1,57 @@
+package com.wizdevtech.service;
+
+import com.wizdevtech.GatewayApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = GatewayApplication.class)
+@ActiveProfiles("test")
+class CacheServiceTest {
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private ApiResponseCache cache;
+
+    @Autowired
+    private ApiResponseWriteBehind writeBehind;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void clearTestDataInvalidatesOnlyOnceTheDeleteCommits() {
+        cache.put("test-clear", "product-api", "{}", Instant.now().plusSeconds(60));
+        writeBehind.flush();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(cacheService.clearTestData() >= 1);
+            assertTrue(cache.getLocal("test-clear").isPresent(), "still cached while the DELETE is uncommitted");
+        });
+
+        assertTrue(cache.getLocal("test-clear").isEmpty());
+        assertTrue(cache.get("test-clear").isEmpty());
+    }
+
+    @Test
+    void rolledBackClearLeavesTheCacheAlone() {
+        cache.put("test-kept", "product-api", "{}", Instant.now().plusSeconds(60));
+        writeBehind.flush();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cacheService.clearTestData();
+            status.setRollbackOnly();
+        });
+
+        assertTrue(cache.getLocal("test-kept").isPresent());
+        cacheService.clearTestData();
+    }
+}
@@ -0,0 +1,90 @@
+package com.wizdevtech.service;
+
+import com.wizdevtech.GatewayApplication;
+import com.wizdevtech.model.ApiResponse;
+import com.wizdevtech.model.SsrCache;
+import com.wizdevtech.repository.ApiResponseRepository;
+import com.wizdevtech.repository.SsrCacheRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = GatewayApplication.class, properties = {
+        "gateway.warmup.api-responses=2",
+        "gateway.warmup.page-size=1",
+        "gateway.access-tracking.flush-interval-ms=3600000",
+        "gateway.ssr.snapshot.enabled=false"
+})
+@ActiveProfiles("test")
+class CacheWarmupTest {
+
+    @Autowired
+    private CacheWarmup warmup;
+
+    @Autowired
+    private CacheAccessTracker accessTracker;
+
+    @Autowired
+    private ApiResponseCache apiResponseCache;
+
+    @Autowired
+    private SsrFallbackService ssrFallbackService;
+
+    @Autowired
+    private ApiResponseRepository apiResponseRepository;
+
+    @Autowired
+    private SsrCacheRepository ssrCacheRepository;
+
+    @BeforeEach
+    void reset() {
+        apiResponseRepository.deleteAll();
+        ssrCacheRepository.deleteAll();
+        accessTracker.flush();
+        apiResponseCache.invalidateAllLocal();
+        ssrFallbackService.invalidateAllLocal();
+    }
+
+    @Test
+    void hottestRowsAreLoadedUpToTheLimit() {
+        Instant expiry = Instant.now().plusSeconds(600);
+        apiResponseRepository.save(new ApiResponse("p-cold", "product-api", "{}", expiry));
+        apiResponseRepository.save(new ApiResponse("p-warm", "product-api", "{}", expiry));
+        apiResponseRepository.save(new ApiResponse("p-hot", "product-api", "{}", expiry));
+        apiResponseRepository.save(new ApiResponse("p-gone", "product-api", "{}", Instant.now().minusSeconds(1)));
+
+        apiResponseCache.get("p-warm");
+        apiResponseCache.get("p-hot");
+        apiResponseCache.get("p-hot");
+        assertEquals(2, accessTracker.flush());
+        assertEquals(2L, apiResponseRepository.findById("p-hot").orElseThrow().getHitCount());
+        apiResponseCache.invalidateAllLocal();
+
+        CacheWarmup.Result result = warmup.warm();
+        apiResponseRepository.deleteAll();
+
+        assertTrue(result.complete());
+        assertEquals(2, result.apiResponses());
+        assertTrue(apiResponseCache.get("p-hot").isPresent(), "served from memory without the row");
+        assertTrue(apiResponseCache.get("p-warm").isPresent());
+        assertTrue(apiResponseCache.get("p-cold").isEmpty());
+        assertTrue(apiResponseCache.get("p-gone").isEmpty());
+    }
+
+    @Test
+    void servableSsrPagesAreLoaded() {
+        ssrCacheRepository.save(new SsrCache("/home", "<html></html>", Instant.now().plusSeconds(600)));
+
+        CacheWarmup.Result result = warmup.warm();
+        ssrCacheRepository.deleteAll();
+
+        assertEquals(1, result.ssrPages());
+        assertTrue(ssrFallbackService.find("/home").isPresent());
+    }
+}
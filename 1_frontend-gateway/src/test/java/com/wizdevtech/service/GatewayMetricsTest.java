@@ -0,0 +1,95 @@
+package com.wizdevtech.service;
+
+import com.wizdevtech.GatewayApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = GatewayApplication.class)
+@ActiveProfiles("test")
+// Tests get a plain registry by default; this one checks what Prometheus scrapes
+@AutoConfigureObservability(tracing = false)
+class GatewayMetricsTest {
+
+    @Autowired
+    private ApiResponseCache cache;
+
+    @Autowired
+    private ApiResponseWriteBehind writeBehind;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PrometheusMeterRegistry prometheus;
+
+    @Test
+    void writeBehindQueueIsMetered() {
+        writeBehind.flush();
+        double enqueued = writeBehindRows("enqueued");
+        double written = writeBehindRows("written");
+        double batches = meterRegistry.get("gateway.cache.write.behind.batches").functionCounter().count();
+
+        cache.put("m-1", "product-api", "{}", Instant.now().plusSeconds(60));
+        cache.put("m-2", "product-api", "{}", Instant.now().plusSeconds(60));
+        writeBehind.flush();
+
+        assertEquals(enqueued + 2, writeBehindRows("enqueued"));
+        assertEquals(written + 2, writeBehindRows("written"));
+        assertEquals(batches + 1, meterRegistry.get("gateway.cache.write.behind.batches").functionCounter().count());
+        assertEquals(0, meterRegistry.get("gateway.cache.write.behind.pending").gauge().value());
+    }
+
+    @Test
+    void cacheManagerMissesAreMetered() {
+        Cache managed = cacheManager.getCache(CacheService.TEST_CACHE);
+        double loaded = missFills(CacheService.TEST_CACHE, "loaded");
+
+        String key = "metered-" + System.nanoTime();
+        managed.get(key, () -> "value");
+        managed.get(key, () -> "ignored");
+
+        assertEquals(loaded + 1, missFills(CacheService.TEST_CACHE, "loaded"));
+        assertEquals(0, missFills(CacheService.TEST_CACHE, "coalesced"));
+    }
+
+    @Test
+    void scrapeShowsTheQueueSweeperAndCoalescingSeries() {
+        cacheManager.getCache(CacheService.TEST_CACHE);
+
+        String scrape = prometheus.scrape();
+
+        assertTrue(scrape.contains("gateway_cache_write_behind_rows_total{"), scrape);
+        assertTrue(scrape.contains("result=\"enqueued\""));
+        assertTrue(scrape.contains("result=\"failed\""));
+        assertTrue(scrape.contains("gateway_cache_write_behind_inline_flushes_total"));
+        assertTrue(scrape.contains("gateway_cache_write_behind_pending"));
+        assertTrue(scrape.contains("gateway_sweeper_swept_total{"));
+        assertTrue(scrape.contains("gateway_sweeper_backlog{"));
+        assertTrue(scrape.contains("gateway_cache_miss_fills_total{"));
+        assertTrue(scrape.contains("cache=\"" + CacheService.TEST_CACHE + "\""));
+    }
+
+    private double writeBehindRows(String result) {
+        return meterRegistry.get("gateway.cache.write.behind.rows").tag("result", result).functionCounter().count();
+    }
+
+    private double missFills(String cache, String result) {
+        return meterRegistry.get("gateway.cache.miss.fills")
+                .tags("cache", cache, "result", result)
+                .functionCounter().count();
+    }
+}
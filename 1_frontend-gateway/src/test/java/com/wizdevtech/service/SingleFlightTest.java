@@ -0,0 +1,62 @@
+package com.wizdevtech.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        int callers = 8;
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> flight.load("p-1", () -> {
+                    loads.incrementAndGet();
+                    awaitCoalesced(flight, callers - 1);
+                    return "value";
+                })));
+            }
+
+            for (Future<String> result : results) {
+                assertEquals("value", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, flight.leaderCount());
+        assertEquals(callers - 1, flight.coalescedCount());
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    void failedLoadIsRethrownAndReleasesKey() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+
+        assertThrows(IllegalStateException.class,
+                () -> flight.load("p-2", () -> { throw new IllegalStateException("boom"); }));
+        assertEquals("ok", flight.load("p-2", () -> "ok"));
+    }
+
+    private static void awaitCoalesced(SingleFlight<?, ?> flight, long expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.coalescedCount() < expected && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.wizdevtech.service;
+
+import com.wizdevtech.model.SsrCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SsrSnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void pagesRoundTripAndTheLatestVersionWins() throws IOException {
+        Path path = dir.resolve("nested/ssr.bin");
+        try (SsrSnapshotFile file = new SsrSnapshotFile(path)) {
+            assertEquals(List.of(), file.load());
+            file.append(List.of(page("/home", "<p>v1</p>"), page("/about", "<p>about</p>")));
+            file.append(List.of(page("/home", "<p>v2</p>")));
+        }
+
+        try (SsrSnapshotFile file = new SsrSnapshotFile(path)) {
+            List<SsrCache> pages = file.load();
+            assertEquals(3, file.records());
+            assertEquals(List.of("/about", "/home"), pages.stream().map(SsrCache::getRoute).toList());
+
+            SsrCache home = pages.get(1);
+            assertEquals("<p>v2</p>", home.getHtml(), "decoded from the gzip copy");
+            assertEquals(page("/home", "<p>v2</p>").getContentHash(), home.getContentHash());
+            assertNotNull(home.getHtmlDeflate());
+            assertNotNull(home.getStoredAt());
+        }
+    }
+
+    @Test
+    void recordCutShortByACrashIsTruncatedAway() throws IOException {
+        Path path = dir.resolve("ssr.bin");
+        try (SsrSnapshotFile file = new SsrSnapshotFile(path)) {
+            file.load();
+            file.append(List.of(page("/kept", "<p>kept</p>"), page("/torn", "<p>torn</p>")));
+        }
+        long size = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        try (SsrSnapshotFile file = new SsrSnapshotFile(path)) {
+            assertEquals(List.of("/kept"), file.load().stream().map(SsrCache::getRoute).toList());
+            file.append(List.of(page("/after", "<p>after</p>")));
+        }
+        try (SsrSnapshotFile file = new SsrSnapshotFile(path)) {
+            assertEquals(List.of("/kept", "/after"), file.load().stream().map(SsrCache::getRoute).toList());
+        }
+    }
+
+    @Test
+    void rewriteKeepsOnlyTheGivenPages() throws IOException {
+        Path path = dir.resolve("ssr.bin");
+        try (SsrSnapshotFile file = new SsrSnapshotFile(path)) {
+            file.load();
+            file.append(List.of(page("/a", "a"), page("/a", "a2"), page("/b", "b")));
+            file.rewrite(List.of(page("/b", "b")));
+            file.append(List.of(page("/c", "c")));
+            assertEquals(2, file.records());
+        }
+
+        try (SsrSnapshotFile file = new SsrSnapshotFile(path)) {
+            assertEquals(List.of("/b", "/c"), file.load().stream().map(SsrCache::getRoute).toList());
+        }
+        assertFalse(Files.exists(dir.resolve("ssr.bin.tmp")));
+    }
+
+    private static SsrCache page(String route, String html) {
+        SsrCache page = new SsrCache(route, html, Instant.now().plusSeconds(600));
+        page.encode();
+        return page;
+    }
+}
@@ -0,0 +1,110 @@
+package com.wizdevtech.service;
+
+import com.wizdevtech.GatewayApplication;
+import com.wizdevtech.model.SsrCache;
+import com.wizdevtech.repository.SsrCacheRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = GatewayApplication.class)
+@ActiveProfiles("test")
+class SsrSnapshotTest {
+
+    private static final Duration GRACE = Duration.ofMinutes(5);
+
+    @Autowired
+    private SsrCacheRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clean() {
+        jdbcTemplate.update("DELETE FROM ssr_cache WHERE route LIKE '/snap/%'");
+    }
+
+    @Test
+    void incrementalRefreshPicksUpNewPagesEditsAndInvalidations() {
+        SsrSnapshot snapshot = snapshot(Duration.ofHours(1));
+        repository.save(new SsrCache("/snap/a", "<p>a1</p>", inOneHour()));
+        snapshot.refresh();
+        assertEquals("<p>a1</p>", snapshot.get("/snap/a").getHtml());
+
+        repository.save(new SsrCache("/snap/b", "<p>b</p>", inOneHour()));
+        repository.save(new SsrCache("/snap/a", "<p>a2</p>", inOneHour()));
+        snapshot.refresh();
+        assertEquals("<p>b</p>", snapshot.get("/snap/b").getHtml());
+        assertEquals("<p>a2</p>", snapshot.get("/snap/a").getHtml());
+
+        // Far below the expiry already seen, but stored_at moves with it
+        Instant now = Instant.now().plusSeconds(1).truncatedTo(ChronoUnit.MICROS);
+        repository.expireByRoutePattern(SsrCacheRepository.prefixPattern("/snap/a"), now);
+        snapshot.refresh();
+        assertEquals(now, snapshot.get("/snap/a").getExpiry());
+    }
+
+    @Test
+    void rowsWithoutStoredAtWaitForTheNextFullLoad() {
+        SsrSnapshot snapshot = snapshot(Duration.ofHours(1));
+        repository.save(new SsrCache("/snap/late", "<p>late</p>", Instant.now().plus(Duration.ofDays(1))));
+        snapshot.refresh();
+
+        // Another service's row: no stored_at and an expiry below the newest one held
+        jdbcTemplate.update("INSERT INTO ssr_cache (route, html, expiry) VALUES (?, ?, ?)",
+                "/snap/foreign", "<p>foreign</p>", OffsetDateTime.now(ZoneOffset.UTC).plusHours(1));
+        snapshot.refresh();
+        assertNull(snapshot.get("/snap/foreign"));
+
+        SsrSnapshot reloading = snapshot(Duration.ZERO);
+        reloading.refresh();
+        assertEquals("<p>foreign</p>", reloading.get("/snap/foreign").getHtml());
+    }
+
+    @Test
+    void newExpiryReplacesTheHeldPageInsteadOfChangingIt() {
+        SsrSnapshot snapshot = snapshot(Duration.ZERO);
+        Instant expiry = inOneHour();
+        repository.save(new SsrCache("/snap/renewed", "<p>r</p>", expiry));
+        repository.save(new SsrCache("/snap/expired", "<p>e</p>", expiry));
+        snapshot.refresh();
+        SsrCache renewedBefore = snapshot.get("/snap/renewed");
+        SsrCache expiredBefore = snapshot.get("/snap/expired");
+
+        // Same body, later expiry: the full load swaps in a copy
+        Instant later = expiry.plus(Duration.ofHours(1));
+        jdbcTemplate.update("UPDATE ssr_cache SET expiry = ? WHERE route = ?",
+                OffsetDateTime.ofInstant(later, ZoneOffset.UTC), "/snap/renewed");
+        snapshot.refresh();
+        Instant now = Instant.now();
+        assertEquals(1, snapshot.expire(List.of("/snap/expired"), now));
+
+        assertEquals(expiry, renewedBefore.getExpiry());
+        assertEquals(later, snapshot.get("/snap/renewed").getExpiry());
+        assertEquals(renewedBefore.getContentHash(), snapshot.get("/snap/renewed").getContentHash());
+        assertEquals(expiry, expiredBefore.getExpiry());
+        assertEquals(now, snapshot.get("/snap/expired").getExpiry());
+        assertEquals("<p>e</p>", snapshot.get("/snap/expired").getHtml());
+    }
+
+    private SsrSnapshot snapshot(Duration fullReloadInterval) {
+        return new SsrSnapshot(repository, () -> GRACE, Duration.ofSeconds(5), fullReloadInterval, null);
+    }
+
+    // Microseconds, the precision the table keeps
+    private static Instant inOneHour() {
+        return Instant.now().plus(Duration.ofHours(1)).truncatedTo(ChronoUnit.MICROS);
+    }
+}
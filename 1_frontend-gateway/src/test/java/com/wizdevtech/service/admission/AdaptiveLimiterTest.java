@@ -0,0 +1,44 @@
+package com.wizdevtech.service.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimiterTest {
+
+    @Test
+    void rejectsBeyondTheLimitAndGrowsWhileBusyAndFast() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 10, 0.5, 2.0);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.inflight());
+
+        limiter.onSuccess(1_000_000);
+        assertEquals(3, limiter.limit());
+        // One in flight out of three: not busy enough to grow
+        limiter.onSuccess(1_000_000);
+        assertEquals(3, limiter.limit());
+        assertEquals(0, limiter.inflight());
+    }
+
+    @Test
+    void backsOffOnDropsAndLatencyRisesButNotBelowTheMinimum() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(8, 2, 10, 0.5, 2.0);
+        limiter.tryAcquire();
+        limiter.onSuccess(1_000_000);
+        assertEquals(8, limiter.limit());
+
+        limiter.tryAcquire();
+        limiter.onDropped();
+        assertEquals(4, limiter.limit());
+
+        // Ten times the usual latency lifts the short average past twice the long one
+        limiter.tryAcquire();
+        limiter.onSuccess(10_000_000);
+        assertEquals(2, limiter.limit());
+        limiter.tryAcquire();
+        limiter.onDropped();
+        assertEquals(2, limiter.limit());
+    }
+}
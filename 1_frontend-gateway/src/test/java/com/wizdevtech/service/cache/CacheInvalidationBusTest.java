@@ -0,0 +1,94 @@
+package com.wizdevtech.service.cache;
+
+import com.wizdevtech.service.ApiResponseCache;
+import com.wizdevtech.service.ApiResponseWriteBehind;
+import com.wizdevtech.support.GatewayCluster;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheInvalidationBusTest {
+
+    private static GatewayCluster cluster;
+
+    @BeforeAll
+    static void startCluster() {
+        cluster = GatewayCluster.start(2);
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        if (cluster != null) {
+            cluster.close();
+        }
+    }
+
+    @Test
+    void prefixEvictionReachesOtherNodes() throws InterruptedException {
+        CacheStore first = cluster.bean(0, CacheRegistry.class).store("bus_test");
+        CacheStore second = cluster.bean(1, CacheRegistry.class).store("bus_test");
+        first.put("test-1", "a");
+        second.put("test-1", "a");
+        second.put("keep", "b");
+
+        cluster.bean(0, CacheInvalidationBus.class).invalidatePrefix("bus_test", "test-");
+
+        assertNull(first.get("test-1"), "evicted locally straight away");
+        awaitTrue(() -> second.get("test-1") == null);
+        assertEquals("b", second.get("keep"));
+    }
+
+    @Test
+    void writeOnOneNodeDropsStaleCopyOnAnother() throws InterruptedException {
+        ApiResponseCache writer = cluster.bean(0, ApiResponseCache.class);
+        ApiResponseCache reader = cluster.bean(1, ApiResponseCache.class);
+
+        writer.put("p-bus", "product-api", "{\"v\":1}", Instant.now().plusSeconds(60));
+        cluster.bean(0, ApiResponseWriteBehind.class).flush();
+        assertEquals("{\"v\":1}", reader.get("p-bus").orElseThrow().getResponseJson());
+
+        writer.put("p-bus", "product-api", "{\"v\":2}", Instant.now().plusSeconds(60));
+        cluster.bean(0, ApiResponseWriteBehind.class).flush();
+
+        awaitTrue(() -> "{\"v\":2}".equals(reader.get("p-bus").orElseThrow().getResponseJson()));
+    }
+
+    @Test
+    void largeBatchesAreSplitIntoNotifySizedPayloads() throws Exception {
+        List<InvalidationEvent> events = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            events.add(InvalidationEvent.key("api_responses", "product-" + i));
+        }
+        events.add(InvalidationEvent.key("api_responses", "x".repeat(10_000)));
+
+        List<String> payloads = PostgresInvalidationTransport.encode(new InvalidationBatch("node", events));
+
+        assertTrue(payloads.size() > 1);
+        int decoded = 0;
+        for (String payload : payloads) {
+            assertTrue(payload.getBytes(StandardCharsets.UTF_8).length
+                    <= PostgresInvalidationTransport.MAX_PAYLOAD_BYTES);
+            decoded += PostgresInvalidationTransport.decode(payload).events().size();
+        }
+        assertEquals(events.size(), decoded);
+        InvalidationBatch last = PostgresInvalidationTransport.decode(payloads.get(payloads.size() - 1));
+        assertEquals(InvalidationEvent.all("api_responses"), last.events().get(last.events().size() - 1),
+                "an oversized key is widened to clearing its cache");
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.wizdevtech.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheProviderTest {
+
+    @Test
+    void inProcessStoreHonoursPerEntryTtlAndPrefixInvalidation() throws Exception {
+        CacheStore store = new InProcessCacheProvider().create("in-process-test", spec(InProcessCacheProvider.TYPE));
+        exercise(store);
+    }
+
+    @Test
+    void localRedisStoreRoundTripsSerializedValues() throws Exception {
+        LocalRedisCacheProvider provider = new LocalRedisCacheProvider();
+        try {
+            CacheStore store = provider.create("local-redis-test", spec(LocalRedisCacheProvider.TYPE));
+            exercise(store);
+        } finally {
+            provider.shutdown();
+        }
+    }
+
+    @Test
+    void localRedisStoreStaysWithinMaxSizeAndExpiresUntouchedKeys() throws Exception {
+        LocalRedisCacheProvider provider = new LocalRedisCacheProvider();
+        try {
+            CacheStore store = provider.create("local-redis-bounded", spec(LocalRedisCacheProvider.TYPE));
+            for (int i = 0; i < 1000; i++) {
+                store.put("key-" + i, i);
+            }
+            assertEquals(100, store.estimatedSize());
+            assertEquals(900L, store.metrics().evictionsByCause().get("size"));
+
+            store.invalidatePrefix("key-");
+            assertEquals(0, store.estimatedSize());
+
+            for (int i = 0; i < 50; i++) {
+                store.put("short-" + i, i, Duration.ofMillis(20));
+            }
+            // Never read again, so only the background cycle can drop them
+            for (int i = 0; i < 50 && store.estimatedSize() > 0; i++) {
+                Thread.sleep(50);
+            }
+            assertEquals(0, store.estimatedSize());
+        } finally {
+            provider.shutdown();
+        }
+    }
+
+    private static void exercise(CacheStore store) throws InterruptedException {
+        store.put("test-1", "one");
+        store.put("test-2", "two");
+        store.put("keep", "three");
+        store.put("short", "four", Duration.ofMillis(50));
+
+        assertEquals("one", store.get("test-1"));
+        assertEquals(1, store.metrics().hitCount());
+
+        Thread.sleep(120);
+        assertNull(store.get("short"), "entry should expire after its own TTL");
+
+        store.invalidatePrefix("test-");
+        assertNull(store.get("test-1"));
+        assertNull(store.get("test-2"));
+        assertEquals("three", store.get("keep"));
+
+        store.put("keep", "gone", Duration.ZERO);
+        assertNull(store.get("keep"), "a non-positive TTL drops the key");
+    }
+
+    private static CacheProperties.Spec spec(String provider) {
+        CacheProperties.Spec spec = new CacheProperties.Spec();
+        spec.setProvider(provider);
+        spec.setMaxSize(100);
+        spec.setTtl(Duration.ofMinutes(5));
+        return spec;
+    }
+}
@@ -0,0 +1,43 @@
+package com.wizdevtech.service.cache;
+
+import com.wizdevtech.model.ApiResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NullValue;
+
+import java.io.InvalidClassException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheValueCodecTest {
+
+    @Test
+    void roundTripsModelAndJdkValueTypes() {
+        Instant expiry = Instant.parse("2030-01-01T00:00:00Z");
+        ApiResponse decoded = (ApiResponse) CacheValueCodec.decodeText(
+                CacheValueCodec.encodeText(new ApiResponse("p-1", "product-api", "{}", expiry)));
+
+        assertEquals("p-1", decoded.getId());
+        assertEquals(expiry, decoded.getExpiry());
+        assertEquals(List.of(1L, "two"), CacheValueCodec.decode(CacheValueCodec.encode(List.of(1L, "two"))));
+        assertSame(NullValue.INSTANCE, CacheValueCodec.decode(CacheValueCodec.encode(NullValue.INSTANCE)));
+        assertEquals("text", CacheValueCodec.decodeText(CacheValueCodec.encodeText("text")));
+    }
+
+    @Test
+    void refusesClassesOutsideTheAllowList() {
+        byte[] foreign = CacheValueCodec.encode(new Unlisted("payload"));
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> CacheValueCodec.decode(foreign));
+        assertInstanceOf(InvalidClassException.class, e.getCause());
+
+        byte[] nested = CacheValueCodec.encode(List.of(new ConcurrentHashMap<>()));
+        assertThrows(UncheckedIOException.class, () -> CacheValueCodec.decode(nested));
+    }
+
+    private record Unlisted(String value) implements Serializable {
+    }
+}
@@ -0,0 +1,73 @@
+package com.wizdevtech.service.cache;
+
+import com.wizdevtech.GatewayApplication;
+import com.wizdevtech.scheduler.CacheCleanupScheduler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = GatewayApplication.class)
+@ActiveProfiles("test")
+class PostgresCacheProviderTest {
+
+    @Autowired
+    private PostgresCacheProvider provider;
+
+    @Autowired
+    private CacheCleanupScheduler sweeper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void entriesLiveInTheirOwnTableAndNeverInApiResponses() {
+        long apiResponses = count("api_responses");
+        CacheStore store = provider.create("pg_test", spec());
+
+        store.put("a:1", "one");
+        store.put("a:1", "uno");
+        store.put("b_%", 42L);
+
+        assertEquals("uno", store.get("a:1"));
+        assertEquals(42L, store.get("b_%"));
+        assertEquals(2, store.estimatedSize());
+        assertEquals(apiResponses, count("api_responses"));
+
+        store.invalidatePrefix("a:");
+        assertNull(store.get("a:1"));
+        store.clear();
+        assertEquals(0, store.estimatedSize());
+        assertEquals(apiResponses, count("api_responses"));
+    }
+
+    @Test
+    void expiredEntriesAreMissesAndSwept() throws Exception {
+        CacheStore store = provider.create("pg_expiring", spec());
+        store.put("short", "gone soon", Duration.ofMillis(50));
+        Thread.sleep(100);
+
+        assertNull(store.get("short"));
+        assertEquals(1, store.estimatedSize());
+        long swept = sweeper.sweptCount("gateway_cache_entries");
+        sweeper.cleanExpiredCache();
+        assertEquals(0, store.estimatedSize());
+        assertEquals(swept + 1, sweeper.sweptCount("gateway_cache_entries"));
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private static CacheProperties.Spec spec() {
+        CacheProperties.Spec spec = new CacheProperties.Spec();
+        spec.setProvider(PostgresCacheProvider.TYPE);
+        spec.setTtl(Duration.ofMinutes(5));
+        return spec;
+    }
+}
@@ -0,0 +1,59 @@
+package com.wizdevtech.service.upstream;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(4, 4, 50, Duration.ofSeconds(10), 2, now::get);
+
+    @Test
+    void opensAtFailureRateAndRejectsUntilOpenDurationPasses() {
+        call(true);
+        call(false);
+        call(true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state(), "fewer than minimum calls");
+        call(false);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+    }
+
+    @Test
+    void halfOpenClosesAfterAllTrialsSucceedAndReopensOnFailure() {
+        for (int i = 0; i < 4; i++) {
+            call(false);
+        }
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire(), "only half-open-calls trials");
+        breaker.onSuccess();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        call(true);
+        call(true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    private void call(boolean success) {
+        assertTrue(breaker.tryAcquire());
+        if (success) {
+            breaker.onSuccess();
+        } else {
+            breaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.wizdevtech.service.upstream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductUpstreamClientTest {
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile Handler handler = (exchange, call) -> respond(exchange, 200, "{\"id\":1}");
+
+    private static final long OPEN_MS = 200;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/products/", exchange -> handler.handle(exchange, calls.incrementAndGet()));
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void returnsProductJson() {
+        assertEquals("{\"id\":1}", client(Duration.ZERO).fetchProduct("1"));
+    }
+
+    @Test
+    void batchFetchKeysProductsById() {
+        handler = (exchange, call) -> {
+            String ids = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals("POST", exchange.getRequestMethod());
+            assertEquals("[\"1\",\"2\",\"3\"]", ids);
+            respond(exchange, 200, "[{\"id\":3,\"name\":\"c\"},{\"id\":1,\"name\":\"a\"}]");
+        };
+
+        Map<String, String> products = client(Duration.ZERO).fetchProducts(List.of("1", "2", "3"));
+
+        assertEquals(Map.of("1", "{\"id\":1,\"name\":\"a\"}", "3", "{\"id\":3,\"name\":\"c\"}"), products);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void slowFirstAttemptIsHedged() {
+        handler = (exchange, call) -> {
+            if (call == 1) {
+                sleep(1500);
+            }
+            respond(exchange, 200, "{\"attempt\":" + call + "}");
+        };
+        ProductUpstreamClient client = client(Duration.ofMillis(50));
+
+        long start = System.nanoTime();
+        String body = client.fetchProduct("1");
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("{\"attempt\":2}", body);
+        assertTrue(elapsedMs < 1000, "answered by the hedge, took " + elapsedMs + " ms");
+        assertEquals(1.0, meterRegistry.get("gateway.upstream.hedges").counter().count());
+    }
+
+    @Test
+    void circuitOpensOnServerErrorsAndStopsCallingUpstream() {
+        handler = (exchange, call) -> respond(exchange, 503, "down");
+        ProductUpstreamClient client = client(Duration.ZERO);
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(UpstreamUnavailableException.class, () -> client.fetchProduct("1"));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.circuitState());
+
+        assertThrows(UpstreamUnavailableException.class, () -> client.fetchProduct("1"));
+        assertEquals(4, calls.get(), "open circuit fails without a request");
+    }
+
+    @Test
+    void notFoundIsAClientErrorAndKeepsTheCircuitClosed() {
+        handler = (exchange, call) -> respond(exchange, 404, "");
+        ProductUpstreamClient client = client(Duration.ZERO);
+
+        for (int i = 0; i < 5; i++) {
+            UpstreamClientErrorException e =
+                    assertThrows(UpstreamClientErrorException.class, () -> client.fetchProduct("404"));
+            assertEquals(404, e.status());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, client.circuitState());
+    }
+
+    @Test
+    void malformedPathDoesNotHoldTheHalfOpenTrial() {
+        handler = (exchange, call) -> respond(exchange, 503, "down");
+        ProductUpstreamClient client = client(Duration.ZERO);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(UpstreamUnavailableException.class, () -> client.fetchProduct("1"));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.circuitState());
+        sleep(OPEN_MS + 20);
+
+        assertThrows(IllegalArgumentException.class, () -> client.get(ProductUpstreamClient.PRODUCT_ROUTE, "/bad path"));
+
+        handler = (exchange, call) -> respond(exchange, 200, "{\"id\":1}");
+        assertEquals("{\"id\":1}", client.fetchProduct("1"), "the trial permit is still free");
+        assertEquals(CircuitBreaker.State.CLOSED, client.circuitState());
+    }
+
+    private ProductUpstreamClient client(Duration hedgeDelay) {
+        UpstreamProperties properties = new UpstreamProperties();
+        properties.setBaseUrl("http://localhost:" + server.getAddress().getPort() + "/api/");
+        properties.setDefaultTimeout(Duration.ofSeconds(3));
+        properties.setHedgeDelay(hedgeDelay);
+        properties.getBreaker().setWindowSize(4);
+        properties.getBreaker().setMinimumCalls(4);
+        properties.getBreaker().setOpenDuration(Duration.ofMillis(OPEN_MS));
+        properties.getBreaker().setHalfOpenCalls(1);
+        return new ProductUpstreamClient(properties, meterRegistry);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpExchange exchange, int call) throws IOException;
+    }
+}
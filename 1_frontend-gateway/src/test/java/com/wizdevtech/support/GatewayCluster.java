@@ -0,0 +1,69 @@
+package com.wizdevtech.support;
+
+import com.wizdevtech.GatewayApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Runs several gateway application contexts in one JVM, sharing one in-memory
+ * database and the in-JVM invalidation transport, to test cross-node behaviour.
+ */
+public final class GatewayCluster implements AutoCloseable {
+
+    private final List<ConfigurableApplicationContext> nodes;
+
+    private GatewayCluster(List<ConfigurableApplicationContext> nodes) {
+        this.nodes = nodes;
+    }
+
+    /**
+     * Starts {@code size} nodes; {@code properties} are added to every node.
+     */
+    public static GatewayCluster start(int size, String... properties) {
+        String[] defaults = {
+                "server.port=0",
+                // Own database so closing the cluster cannot drop tables under other test contexts
+                "spring.datasource.url=jdbc:h2:mem:cluster;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "spring.jpa.show-sql=false",
+                "gateway.cache.invalidation.transport=in-jvm",
+                "gateway.sweeper.interval-ms=3600000"
+        };
+        // As command-line arguments, so they win over the test profile's datasource settings
+        String[] args = Stream.concat(Stream.of(defaults), Stream.of(properties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+
+        List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+        try {
+            for (int i = 0; i < size; i++) {
+                nodes.add(new SpringApplicationBuilder(GatewayApplication.class)
+                        .profiles("test")
+                        .run(args));
+            }
+        } catch (RuntimeException e) {
+            nodes.forEach(ConfigurableApplicationContext::close);
+            throw e;
+        }
+        return new GatewayCluster(nodes);
+    }
+
+    public <T> T bean(int node, Class<T> type) {
+        return nodes.get(node).getBean(type);
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    @Override
+    public void close() {
+        // Reverse order: the first node created the schema
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            nodes.get(i).close();
+        }
+    }
+}
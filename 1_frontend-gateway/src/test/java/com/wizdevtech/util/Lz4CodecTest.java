@@ -0,0 +1,37 @@
+package com.wizdevtech.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Lz4CodecTest {
+
+    @Test
+    void roundTripsAcrossBlocksAndStreams() throws Exception {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 20_000; i++) {
+            json.append("{\"id\":").append(i).append(",\"name\":\"Prodüct ").append(i % 50).append("\"},");
+        }
+        byte[] raw = json.append("{}]").toString().getBytes(StandardCharsets.UTF_8);
+
+        byte[] blob = Lz4Codec.compress(raw);
+
+        assertTrue(blob.length < raw.length / 4, "compressed to " + blob.length + " of " + raw.length);
+        assertEquals(raw.length, Lz4Codec.uncompressedLength(blob));
+        assertArrayEquals(raw, Lz4Codec.decompress(blob));
+        try (InputStream in = Lz4Codec.open(blob)) {
+            assertArrayEquals(raw, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void emptyPayloadRoundTrips() {
+        byte[] blob = Lz4Codec.compress(new byte[0]);
+
+        assertEquals(0, Lz4Codec.uncompressedLength(blob));
+        assertArrayEquals(new byte[0], Lz4Codec.decompress(blob));
+    }
+}
@@ -0,0 +1,48 @@
+package com.wizdevtech.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadixTrieTest {
+
+    @Test
+    void findsKeysByPrefixAcrossSplitEdges() {
+        RadixTrie trie = new RadixTrie();
+        for (String route : List.of("/products/42", "/products/420", "/products/7", "/product", "/home")) {
+            assertTrue(trie.add(route));
+        }
+        assertFalse(trie.add("/products/42"));
+        assertEquals(5, trie.size());
+
+        assertEquals(List.of("/products/42", "/products/420"), trie.withPrefix("/products/4"));
+        assertEquals(List.of("/product", "/products/42", "/products/420", "/products/7"), trie.withPrefix("/prod"));
+        assertEquals(List.of("/products/7"), trie.withPrefix("/products/7"));
+        assertEquals(List.of(), trie.withPrefix("/products/8"));
+        assertEquals(List.of(), trie.withPrefix("/homepage"));
+        assertEquals(5, trie.withPrefix("").size());
+    }
+
+    @Test
+    void removalPrunesAndMergesNodes() {
+        RadixTrie trie = new RadixTrie();
+        trie.add("/a/b");
+        trie.add("/a/c");
+        trie.add("/a");
+
+        assertTrue(trie.remove("/a/b"));
+        assertFalse(trie.remove("/a/b"));
+        assertFalse(trie.remove("/a/"));
+        assertTrue(trie.remove("/a"));
+
+        assertEquals(1, trie.size());
+        assertTrue(trie.contains("/a/c"));
+        assertFalse(trie.contains("/a"));
+        assertEquals(List.of("/a/c"), trie.withPrefix("/a"));
+
+        trie.add("/a/cd");
+        assertEquals(List.of("/a/c", "/a/cd"), trie.withPrefix("/a/c"));
+    }
+}
@@ -3,12 +3,14 @@ package com.productcatalog;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * # Main Spring Boot application class
  */
 @SpringBootApplication
 @EnableJpaAuditing
+@EnableScheduling
 public class ProductCatalogApplication {
 
     /**
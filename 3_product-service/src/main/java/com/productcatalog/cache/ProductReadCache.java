@@ -0,0 +1,153 @@
+package com.productcatalog.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.productcatalog.dto.ProductDetail;
+import com.productcatalog.event.ProductChangedEvent;
+import com.productcatalog.event.ProductStockChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * # Read-through cache of product read models, by id and by category
+ *
+ * Entries are immutable {@link ProductDetail} graphs, each loaded by a few
+ * batched queries in one repeatable-read transaction, so a reader never sees a
+ * product with SKUs or color variants from another point in time.
+ *
+ * A load registers a token for its key before it queries, and invalidating the
+ * key discards the token. The load only stores its result if its token is
+ * still there, so a read that raced with a write can never put the pre-write
+ * graph back into the cache after the write's invalidation. Tokens live only
+ * while their load runs.
+ *
+ * Product writes and inventory changes made here invalidate the product's id
+ * entry and the category lists it is in (before and after the write) once they
+ * commit. The lists come from a product id to category index kept in step with
+ * the cached lists, so an invalidation never scans the cache. Writes through
+ * other instances are picked up when entries expire, after
+ * {@code product-service.cache.products.ttl}.
+ */
+@Component
+public class ProductReadCache {
+
+    private record ProductKey(long id) {
+    }
+
+    private record CategoryKey(String category) {
+    }
+
+    private final Cache<Object, Object> entries;
+    // key -> token of the newest load started since the key was last invalidated
+    private final Map<Object, Object> loads = new ConcurrentHashMap<>();
+    // product id -> category of the cached list holding it; changed only under that list's entry lock
+    private final Map<Long, String> listedIn = new ConcurrentHashMap<>();
+
+    public ProductReadCache(@Value("${product-service.cache.products.max-size:10000}") long maxSize,
+                            @Value("${product-service.cache.products.ttl:PT5M}") Duration ttl) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                // Runs inside the eviction's atomic operation, so it orders with stores of the same key
+                .evictionListener((key, value, cause) -> unlist(key, value))
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public Optional<ProductDetail> product(long id, Supplier<Optional<ProductDetail>> loader) {
+        return (Optional<ProductDetail>) get(new ProductKey(id), loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<ProductDetail> category(String category, Supplier<List<ProductDetail>> loader) {
+        return (List<ProductDetail>) get(new CategoryKey(category), loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidateProduct(event.productId());
+        if (event.product() != null) {
+            invalidate(new CategoryKey(event.product().category()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        invalidateProduct(event.productId());
+    }
+
+    public void invalidateAll() {
+        entries.asMap().keySet().forEach(this::invalidate);
+        loads.keySet().forEach(this::invalidate);
+    }
+
+    private Object get(Object key, Supplier<?> loader) {
+        Object cached = entries.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        Object token = new Object();
+        loads.put(key, token);
+        try {
+            Object loaded = loader.get();
+            Object stored = entries.asMap().compute(key, (k, current) -> {
+                // A value already here was stored after the last invalidation too; keep it
+                if (current != null || !loads.remove(k, token)) {
+                    return current;
+                }
+                list(k, loaded);
+                return loaded;
+            });
+            return stored != null ? stored : loaded;
+        } finally {
+            loads.remove(key, token);
+        }
+    }
+
+    private void invalidateProduct(long id) {
+        ProductKey key = new ProductKey(id);
+        Object cached = entries.getIfPresent(key);
+        invalidate(key);
+        // The category the cached copy was in, and the list that holds the product
+        if (cached instanceof Optional<?> detail && detail.isPresent()) {
+            invalidate(new CategoryKey(((ProductDetail) detail.get()).category()));
+        }
+        String category = listedIn.get(id);
+        if (category != null) {
+            invalidate(new CategoryKey(category));
+        }
+    }
+
+    private void invalidate(Object key) {
+        // Under the entry's lock, so it orders with the token check in get
+        entries.asMap().compute(key, (k, current) -> {
+            loads.remove(k);
+            unlist(k, current);
+            return null;
+        });
+    }
+
+    private void list(Object key, Object value) {
+        if (key instanceof CategoryKey categoryKey) {
+            for (Object product : (List<?>) value) {
+                listedIn.put(((ProductDetail) product).id(), categoryKey.category());
+            }
+        }
+    }
+
+    private void unlist(Object key, Object value) {
+        if (key instanceof CategoryKey categoryKey && value != null) {
+            for (Object product : (List<?>) value) {
+                listedIn.remove(((ProductDetail) product).id(), categoryKey.category());
+            }
+        }
+    }
+}
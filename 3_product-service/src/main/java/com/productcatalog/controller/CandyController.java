@@ -1,5 +1,6 @@
 package com.productcatalog.controller;
 
+import com.productcatalog.dto.ProductDetail;
 import com.productcatalog.model.Product;
 import com.productcatalog.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -26,31 +27,31 @@ public class CandyController {
 
     @GetMapping
     @Operation(summary = "Get all candy products", description = "Retrieves a list of all candy products")
-    public ResponseEntity<List<Product>> getAllCandyProducts() {
+    public ResponseEntity<List<ProductDetail>> getAllCandyProducts() {
         return ResponseEntity.ok(productService.getProductsByCategory(CANDY_CATEGORY));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get candy product by ID", description = "Retrieves a candy product by its ID")
-    public ResponseEntity<Product> getCandyProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductDetail> getCandyProductById(@PathVariable Long id) {
         return productService.getProductById(id)
-                .filter(product -> CANDY_CATEGORY.equals(product.getCategory()))
+                .filter(product -> CANDY_CATEGORY.equals(product.category()))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
     @Operation(summary = "Create a new candy product", description = "Creates a new candy product")
-    public ResponseEntity<Product> createCandyProduct(@RequestBody Product product) {
+    public ResponseEntity<ProductDetail> createCandyProduct(@RequestBody Product product) {
         product.setCategory(CANDY_CATEGORY);
         return new ResponseEntity<>(productService.createProduct(product), HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update a candy product", description = "Updates an existing candy product")
-    public ResponseEntity<Product> updateCandyProduct(@PathVariable Long id, @RequestBody Product product) {
+    public ResponseEntity<ProductDetail> updateCandyProduct(@PathVariable Long id, @RequestBody Product product) {
         return productService.getProductById(id)
-                .filter(existingProduct -> CANDY_CATEGORY.equals(existingProduct.getCategory()))
+                .filter(existingProduct -> CANDY_CATEGORY.equals(existingProduct.category()))
                 .map(existingProduct -> {
                     product.setId(id);
                     product.setCategory(CANDY_CATEGORY);
@@ -62,8 +63,8 @@ public class CandyController {
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a candy product", description = "Deletes a candy product by ID")
     public ResponseEntity<Void> deleteCandyProduct(@PathVariable Long id) {
-        Optional<Product> productOptional = productService.getProductById(id)
-                .filter(product -> CANDY_CATEGORY.equals(product.getCategory()));
+        Optional<ProductDetail> productOptional = productService.getProductById(id)
+                .filter(product -> CANDY_CATEGORY.equals(product.category()));
 
         if (productOptional.isPresent()) {
             productService.deleteProduct(id);
@@ -1,5 +1,6 @@
 package com.productcatalog.controller;
 
+import com.productcatalog.dto.ProductDetail;
 import com.productcatalog.model.Product;
 import com.productcatalog.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -26,31 +27,31 @@ public class FashionController {
 
     @GetMapping
     @Operation(summary = "Get all fashion products", description = "Retrieves a list of all fashion products")
-    public ResponseEntity<List<Product>> getAllFashionProducts() {
+    public ResponseEntity<List<ProductDetail>> getAllFashionProducts() {
         return ResponseEntity.ok(productService.getProductsByCategory(FASHION_CATEGORY));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get fashion product by ID", description = "Retrieves a fashion product by its ID")
-    public ResponseEntity<Product> getFashionProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductDetail> getFashionProductById(@PathVariable Long id) {
         return productService.getProductById(id)
-                .filter(product -> FASHION_CATEGORY.equals(product.getCategory()))
+                .filter(product -> FASHION_CATEGORY.equals(product.category()))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
     @Operation(summary = "Create a new fashion product", description = "Creates a new fashion product")
-    public ResponseEntity<Product> createFashionProduct(@RequestBody Product product) {
+    public ResponseEntity<ProductDetail> createFashionProduct(@RequestBody Product product) {
         product.setCategory(FASHION_CATEGORY);
         return new ResponseEntity<>(productService.createProduct(product), HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update a fashion product", description = "Updates an existing fashion product")
-    public ResponseEntity<Product> updateFashionProduct(@PathVariable Long id, @RequestBody Product product) {
+    public ResponseEntity<ProductDetail> updateFashionProduct(@PathVariable Long id, @RequestBody Product product) {
         return productService.getProductById(id)
-                .filter(existingProduct -> FASHION_CATEGORY.equals(existingProduct.getCategory()))
+                .filter(existingProduct -> FASHION_CATEGORY.equals(existingProduct.category()))
                 .map(existingProduct -> {
                     product.setId(id);
                     product.setCategory(FASHION_CATEGORY);
@@ -62,8 +63,8 @@ public class FashionController {
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a fashion product", description = "Deletes a fashion product by ID")
     public ResponseEntity<Void> deleteFashionProduct(@PathVariable Long id) {
-        Optional<Product> productOptional = productService.getProductById(id)
-                .filter(product -> FASHION_CATEGORY.equals(product.getCategory()));
+        Optional<ProductDetail> productOptional = productService.getProductById(id)
+                .filter(product -> FASHION_CATEGORY.equals(product.category()));
 
         if (productOptional.isPresent()) {
             productService.deleteProduct(id);
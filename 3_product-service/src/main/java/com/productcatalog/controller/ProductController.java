@@ -1,5 +1,10 @@
 package com.productcatalog.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productcatalog.dto.ProductDetail;
+import com.productcatalog.dto.ProductPage;
+import com.productcatalog.dto.ProductSearchPage;
+import com.productcatalog.dto.ProductSuggestion;
 import com.productcatalog.model.Product;
 import com.productcatalog.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -7,10 +12,15 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * # API endpoints for Product operations
@@ -21,26 +31,72 @@ import java.util.List;
 @Tag(name = "Product API", description = "Endpoints for product management")
 public class ProductController {
 
+    // Upper bound on IDs per batch lookup, so one request stays one bounded IN query
+    static final int MAX_BATCH_IDS = 100;
+
+    // Upper bound on products per listing page
+    static final int MAX_PAGE_SIZE = 500;
+
+    // Upper bound on ranked search results per page
+    static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+    // Upper bound on typeahead suggestions per request
+    static final int MAX_SUGGESTIONS = 20;
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    @Operation(summary = "Get all products", description = "Retrieves a list of all available products")
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    @Operation(summary = "List products", description = "Retrieves one page of products in id order; pass nextCursor back as cursor for the next page")
+    public ResponseEntity<ProductPage> getProducts(
+            @Parameter(description = "Continuation token from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, up to 500") @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.getProductPage(cursor, limit));
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Export all products", description = "Streams every product as newline-delimited JSON, in id order")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        StreamingResponseBody body = out -> productService.exportProducts(product -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(product));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Retrieves a product by its ID")
-    public ResponseEntity<Product> getProductById(
+    public ResponseEntity<ProductDetail> getProductById(
             @Parameter(description = "Product ID", required = true) @PathVariable Long id) {
         return productService.getProductById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Get products by IDs", description = "Retrieves up to 100 products in one call; unknown IDs are left out")
+    public ResponseEntity<List<ProductDetail>> getProductsByIds(@RequestBody List<Long> ids) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinct.size() > MAX_BATCH_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.getProductsByIds(distinct));
+    }
+
     @GetMapping("/with-skus/{id}")
     @Operation(summary = "Get product with SKUs by ID", description = "Retrieves a product with its SKUs by ID")
-    public ResponseEntity<Product> getProductWithSkusById(
+    public ResponseEntity<ProductDetail> getProductWithSkusById(
             @Parameter(description = "Product ID", required = true) @PathVariable Long id) {
         return productService.getProductWithSkusById(id)
                 .map(ResponseEntity::ok)
@@ -49,33 +105,51 @@ public class ProductController {
 
     @GetMapping("/category/{category}")
     @Operation(summary = "Get products by category", description = "Retrieves products by their category")
-    public ResponseEntity<List<Product>> getProductsByCategory(
+    public ResponseEntity<List<ProductDetail>> getProductsByCategory(
             @Parameter(description = "Category", required = true) @PathVariable String category) {
         return ResponseEntity.ok(productService.getProductsByCategory(category));
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search products by name", description = "Searches products by name (case insensitive)")
-    public ResponseEntity<List<Product>> searchProductsByName(
-            @Parameter(description = "Search term", required = true) @RequestParam String name) {
-        return ResponseEntity.ok(productService.searchProductsByName(name));
+    @Operation(summary = "Search products", description = "Ranked search over name, category and description; tolerates typos and matches the last word as a prefix")
+    public ResponseEntity<ProductSearchPage> searchProducts(
+            @Parameter(description = "Search terms") @RequestParam(required = false) String q,
+            @Parameter(description = "Search terms (older name for q)") @RequestParam(required = false) String name,
+            @Parameter(description = "Zero-based page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size, up to 100") @RequestParam(defaultValue = "20") int size) {
+        String query = q != null ? q : name;
+        if (query == null || query.isBlank() || page < 0 || size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.searchProducts(query.trim(), page, size));
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest products", description = "Typeahead: product names with a word starting with the typed text, in-stock products first; served from memory")
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(
+            @Parameter(description = "Text typed so far", required = true) @RequestParam String q,
+            @Parameter(description = "Number of suggestions, up to 20") @RequestParam(defaultValue = "8") int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.suggestProducts(q, limit));
     }
 
     @GetMapping("/available")
     @Operation(summary = "Get products with available inventory", description = "Retrieves products with available SKUs")
-    public ResponseEntity<List<Product>> getProductsWithAvailableInventory() {
+    public ResponseEntity<List<ProductDetail>> getProductsWithAvailableInventory() {
         return ResponseEntity.ok(productService.getProductsWithAvailableInventory());
     }
 
     @PostMapping
     @Operation(summary = "Create a new product", description = "Creates a new product")
-    public ResponseEntity<Product> createProduct(@RequestBody Product product) {
+    public ResponseEntity<ProductDetail> createProduct(@RequestBody Product product) {
         return new ResponseEntity<>(productService.createProduct(product), HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update a product", description = "Updates an existing product")
-    public ResponseEntity<Product> updateProduct(
+    public ResponseEntity<ProductDetail> updateProduct(
             @Parameter(description = "Product ID", required = true) @PathVariable Long id,
             @RequestBody Product product) {
         product.setId(id);
@@ -0,0 +1,14 @@
+package com.productcatalog.dto;
+
+import com.productcatalog.model.ColorVariant;
+
+/**
+ * # Color variant fields as returned with a SKU
+ */
+public record ColorVariantDetail(Long id, String colorName, String colorCode, String imageUrl) {
+
+    public static ColorVariantDetail of(ColorVariant colorVariant) {
+        return new ColorVariantDetail(colorVariant.getId(), colorVariant.getColorName(), colorVariant.getColorCode(),
+                colorVariant.getImageUrl());
+    }
+}
@@ -0,0 +1,11 @@
+package com.productcatalog.dto;
+
+/**
+ * # A color variant row with its SKU's id, selected by JPQL constructor expression for batched loading
+ */
+public record ColorVariantRow(Long skuId, Long id, String colorName, String colorCode, String imageUrl) {
+
+    public ColorVariantDetail toDetail() {
+        return new ColorVariantDetail(id, colorName, colorCode, imageUrl);
+    }
+}
@@ -0,0 +1,32 @@
+package com.productcatalog.dto;
+
+import com.productcatalog.model.Product;
+
+import java.util.List;
+
+/**
+ * # Immutable read model of a product with its SKUs and their color variants
+ *
+ * Built from one consistent read, so it can be cached and shared between
+ * requests without exposing managed entities or lazy associations.
+ */
+public record ProductDetail(Long id, String name, String description, String category, boolean active,
+                            List<SkuDetail> skus) {
+
+    public ProductDetail {
+        skus = List.copyOf(skus);
+    }
+
+    /**
+     * Map a product whose SKUs and color variants are already loaded
+     */
+    public static ProductDetail of(Product product) {
+        return new ProductDetail(product.getId(), product.getName(), product.getDescription(), product.getCategory(),
+                product.isActive(), product.getSkus().stream().map(SkuDetail::of).toList());
+    }
+
+    public static ProductDetail of(ProductSummary summary, List<SkuDetail> skus) {
+        return new ProductDetail(summary.id(), summary.name(), summary.description(), summary.category(),
+                summary.active(), skus);
+    }
+}
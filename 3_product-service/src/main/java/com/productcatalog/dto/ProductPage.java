@@ -0,0 +1,11 @@
+package com.productcatalog.dto;
+
+import java.util.List;
+
+/**
+ * # One page of a keyset-paginated product listing
+ *
+ * {@code nextCursor} is an opaque token for the following page, or null on the last page.
+ */
+public record ProductPage(List<ProductSummary> items, String nextCursor) {
+}
@@ -0,0 +1,11 @@
+package com.productcatalog.dto;
+
+import java.util.List;
+
+/**
+ * # One page of ranked product search results
+ *
+ * {@code total} counts all matches, not just this page.
+ */
+public record ProductSearchPage(List<ProductSummary> items, int page, int size, long total) {
+}
@@ -0,0 +1,7 @@
+package com.productcatalog.dto;
+
+/**
+ * # An active product's name with the number of its active SKUs in stock
+ */
+public record ProductStockSummary(Long id, String name, long inStockSkus) {
+}
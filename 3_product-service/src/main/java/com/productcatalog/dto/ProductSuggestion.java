@@ -0,0 +1,7 @@
+package com.productcatalog.dto;
+
+/**
+ * # One typeahead suggestion
+ */
+public record ProductSuggestion(Long id, String name, boolean inStock) {
+}
@@ -0,0 +1,17 @@
+package com.productcatalog.dto;
+
+import com.productcatalog.model.Product;
+
+/**
+ * # Product fields for listings, without SKUs
+ *
+ * Selected directly by JPQL constructor expressions, so listing rows are never
+ * managed entities and never trigger lazy SKU loads.
+ */
+public record ProductSummary(Long id, String name, String description, String category, boolean active) {
+
+    public static ProductSummary of(Product product) {
+        return new ProductSummary(product.getId(), product.getName(), product.getDescription(),
+                product.getCategory(), product.isActive());
+    }
+}
@@ -0,0 +1,29 @@
+package com.productcatalog.dto;
+
+import com.productcatalog.model.SKU;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * # SKU fields, with color variants, as returned with a product
+ */
+public record SkuDetail(Long id, String skuCode, BigDecimal price, int availableQuantity, boolean active,
+                        List<ColorVariantDetail> colorVariants) {
+
+    public SkuDetail {
+        colorVariants = List.copyOf(colorVariants);
+    }
+
+    /**
+     * Map a SKU whose color variants are already loaded
+     */
+    public static SkuDetail of(SKU sku) {
+        return new SkuDetail(sku.getId(), sku.getSkuCode(), sku.getPrice(), sku.getAvailableQuantity(), sku.isActive(),
+                sku.getColorVariants().stream().map(ColorVariantDetail::of).toList());
+    }
+
+    public static SkuDetail of(SkuRow row, List<ColorVariantDetail> colorVariants) {
+        return new SkuDetail(row.id(), row.skuCode(), row.price(), row.availableQuantity(), row.active(), colorVariants);
+    }
+}
@@ -0,0 +1,10 @@
+package com.productcatalog.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * # A SKU row with its product's id, selected by JPQL constructor expression for batched loading
+ */
+public record SkuRow(Long productId, Long id, String skuCode, BigDecimal price, Integer availableQuantity,
+                     boolean active) {
+}
@@ -0,0 +1,19 @@
+package com.productcatalog.event;
+
+import com.productcatalog.dto.ProductSummary;
+
+/**
+ * # Published by product writes so in-memory read models can follow them
+ *
+ * {@code product} is the stored state after the write, or null when the product was deleted.
+ */
+public record ProductChangedEvent(long productId, ProductSummary product) {
+
+    public static ProductChangedEvent saved(ProductSummary product) {
+        return new ProductChangedEvent(product.id(), product);
+    }
+
+    public static ProductChangedEvent deleted(long productId) {
+        return new ProductChangedEvent(productId, null);
+    }
+}
@@ -0,0 +1,9 @@
+package com.productcatalog.event;
+
+/**
+ * # Published when the available quantity of one of a product's SKUs changes
+ *
+ * {@code inStockChanged} is true when the SKU went in or out of stock.
+ */
+public record ProductStockChangedEvent(long productId, boolean inStockChanged) {
+}
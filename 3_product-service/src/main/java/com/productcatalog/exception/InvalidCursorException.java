@@ -0,0 +1,15 @@
+package com.productcatalog.exception;
+
+/**
+ * # Exception for continuation tokens that cannot be decoded
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
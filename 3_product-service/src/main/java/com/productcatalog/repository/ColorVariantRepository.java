@@ -0,0 +1,25 @@
+package com.productcatalog.repository;
+
+import com.productcatalog.dto.ColorVariantRow;
+import com.productcatalog.model.ColorVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * # JPA repository for ColorVariant entities
+ */
+@Repository
+public interface ColorVariantRepository extends JpaRepository<ColorVariant, Long> {
+
+    /**
+     * Find the color variants of many SKUs in one query, as rows keyed by SKU id
+     */
+    @Query("SELECT new com.productcatalog.dto.ColorVariantRow(c.sku.id, c.id, c.colorName, c.colorCode, c.imageUrl) "
+            + "FROM ColorVariant c WHERE c.sku.id IN :skuIds ORDER BY c.id")
+    List<ColorVariantRow> findRowsBySkuIdIn(@Param("skuIds") Collection<Long> skuIds);
+}
@@ -1,15 +1,23 @@
 package com.productcatalog.repository;
 
+import com.productcatalog.dto.ProductStockSummary;
+import com.productcatalog.dto.ProductSummary;
 import com.productcatalog.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * # JPA repository for Product entities
@@ -17,11 +25,29 @@ import java.util.Optional;
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    // Must match the expression of idx_products_search_tsv (V3 migration) for the index to be used
+    String SEARCH_DOCUMENT = "to_tsvector('simple', coalesce(p.name, '') || ' ' || coalesce(p.category, '') "
+            + "|| ' ' || coalesce(p.description, ''))";
+
+    String STOCK_SUMMARY = "SELECT new com.productcatalog.dto.ProductStockSummary(p.id, p.name, COUNT(s.id)) "
+            + "FROM Product p LEFT JOIN p.skus s ON s.active = true AND s.availableQuantity > 0 "
+            + "WHERE p.active = true ";
+
+    String TEXT_MATCH = SEARCH_DOCUMENT + " @@ plainto_tsquery('simple', :query) "
+            + "OR p.name ILIKE :pattern OR p.name % :query";
+
     /**
      * Find products by category
      */
     List<Product> findByCategory(String category);
 
+    /**
+     * Find the summaries of the products in a category, in id order
+     */
+    @Query("SELECT new com.productcatalog.dto.ProductSummary(p.id, p.name, p.description, p.category, p.active) "
+            + "FROM Product p WHERE p.category = :category ORDER BY p.id")
+    List<ProductSummary> findSummariesByCategory(@Param("category") String category);
+
     /**
      * Find active products by category with pagination
      */
@@ -33,14 +59,59 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByNameContainingIgnoreCase(String name);
 
     /**
-     * Find a product with all its SKUs eagerly loaded
+     * Database-side product search, used while the in-memory search index is unavailable:
+     * full-text match on name, category and description, substring and trigram similarity on name.
+     * Ranked by text rank plus name similarity; {@code pattern} is the escaped {@code %query%} ILIKE pattern.
+     */
+    @Query(value = "SELECT p.id FROM products p WHERE " + TEXT_MATCH
+            + " ORDER BY ts_rank(" + SEARCH_DOCUMENT + ", plainto_tsquery('simple', :query)) "
+            + "+ similarity(p.name, :query) DESC, p.id",
+            countQuery = "SELECT count(*) FROM products p WHERE " + TEXT_MATCH,
+            nativeQuery = true)
+    Page<Long> searchIdsByText(@Param("query") String query, @Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Find the summaries of the products with the given IDs, in no particular order
+     */
+    @Query("SELECT new com.productcatalog.dto.ProductSummary(p.id, p.name, p.description, p.category, p.active) "
+            + "FROM Product p WHERE p.id IN :ids")
+    List<ProductSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find the summaries of active products with available SKUs, in id order
+     */
+    @Query("SELECT new com.productcatalog.dto.ProductSummary(p.id, p.name, p.description, p.category, p.active) "
+            + "FROM Product p WHERE p.active = true "
+            + "AND EXISTS (SELECT 1 FROM SKU s WHERE s.product = p AND s.availableQuantity > 0) ORDER BY p.id")
+    List<ProductSummary> findSummariesWithAvailableSkus();
+
+    /**
+     * Find the next page of product summaries after the given id (keyset pagination on the primary key)
+     */
+    @Query("SELECT new com.productcatalog.dto.ProductSummary(p.id, p.name, p.description, p.category, p.active) "
+            + "FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductSummary> findSummariesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Stream all product summaries in id order through a server-side cursor.
+     * Must be consumed, and closed, inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.productcatalog.dto.ProductSummary(p.id, p.name, p.description, p.category, p.active) "
+            + "FROM Product p ORDER BY p.id")
+    Stream<ProductSummary> streamAllSummaries();
+
+    /**
+     * Stream every active product with its count of in-stock SKUs, for building typeahead suggestions.
+     * Must be consumed, and closed, inside a transaction.
      */
-    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.skus WHERE p.id = :id")
-    Optional<Product> findByIdWithSkus(@Param("id") Long id);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(STOCK_SUMMARY + "GROUP BY p.id, p.name")
+    Stream<ProductStockSummary> streamStockSummaries();
 
     /**
-     * Find products with available SKUs
+     * Find one active product with its count of in-stock SKUs
      */
-    @Query("SELECT DISTINCT p FROM Product p JOIN p.skus s WHERE s.availableQuantity > 0 AND p.active = true")
-    List<Product> findProductsWithAvailableSkus();
-}
\ No newline at end of file
+    @Query(STOCK_SUMMARY + "AND p.id = :id GROUP BY p.id, p.name")
+    Optional<ProductStockSummary> findStockSummary(@Param("id") Long id);
+}
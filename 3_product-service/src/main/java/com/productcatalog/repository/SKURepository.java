@@ -1,11 +1,13 @@
 package com.productcatalog.repository;
 
+import com.productcatalog.dto.SkuRow;
 import com.productcatalog.model.SKU;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +27,13 @@ public interface SKURepository extends JpaRepository<SKU, Long> {
      */
     List<SKU> findByProductId(Long productId);
 
+    /**
+     * Find the SKUs of many products in one query, as rows keyed by product id
+     */
+    @Query("SELECT new com.productcatalog.dto.SkuRow(s.product.id, s.id, s.skuCode, s.price, s.availableQuantity, s.active) "
+            + "FROM SKU s WHERE s.product.id IN :productIds ORDER BY s.id")
+    List<SkuRow> findRowsByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
     /**
      * Find all active SKUs for a product
      */
@@ -0,0 +1,123 @@
+package com.productcatalog.search;
+
+import com.productcatalog.dto.ProductSummary;
+import com.productcatalog.event.ProductChangedEvent;
+import com.productcatalog.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * # Keeps the product {@link SearchIndex} up to date
+ *
+ * The index is built from the products table at startup and rebuilt
+ * periodically, which also picks up writes made through other instances.
+ * Writes made here reach it as {@link ProductChangedEvent}s once their
+ * transaction commits; changes arriving during a rebuild are replayed onto the
+ * new index before it replaces the old one.
+ *
+ * Until the first build completes, or with {@code product-service.search.index.enabled=false},
+ * {@link #search} returns empty and callers use the database instead.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex implements ApplicationRunner {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private final Object changes = new Object();
+    private volatile SearchIndex current;
+    // Changes seen while a rebuild is reading the table; guarded by changes
+    private List<ProductChangedEvent> changedDuringRebuild;
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${product-service.search.index.enabled:true}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product-service.search.index.rebuild-interval:PT10M}",
+            initialDelayString = "${product-service.search.index.rebuild-interval:PT10M}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Build a fresh index from the table and swap it in; on failure the previous one stays
+     */
+    public synchronized void rebuild() {
+        synchronized (changes) {
+            changedDuringRebuild = new ArrayList<>();
+        }
+        long start = System.nanoTime();
+        SearchIndex fresh = new SearchIndex();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductSummary> products = productRepository.streamAllSummaries()) {
+                    products.forEach(fresh::put);
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (changes) {
+                changedDuringRebuild = null;
+            }
+            log.error("Search index rebuild failed, keeping the previous index: {}", e.getMessage());
+            return;
+        }
+        synchronized (changes) {
+            changedDuringRebuild.forEach(fresh::apply);
+            changedDuringRebuild = null;
+            current = fresh;
+        }
+        log.info("Search index rebuilt with {} products in {} ms", fresh.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (changes) {
+            SearchIndex index = current;
+            if (index != null) {
+                index.apply(event);
+            }
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(event);
+            }
+        }
+    }
+
+    /**
+     * Ranked matches for {@code query}, or empty when the index is not available
+     */
+    public Optional<List<SearchHit>> search(String query) {
+        SearchIndex index = current;
+        if (!enabled || index == null) {
+            return Optional.empty();
+        }
+        return Optional.of(index.search(query));
+    }
+}
@@ -0,0 +1,219 @@
+package com.productcatalog.search;
+
+import com.productcatalog.dto.ProductStockSummary;
+import com.productcatalog.dto.ProductSuggestion;
+import com.productcatalog.event.ProductChangedEvent;
+import com.productcatalog.event.ProductStockChangedEvent;
+import com.productcatalog.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * # Typeahead suggestions for active product names, answered from memory
+ *
+ * Each name is keyed from every word it contains, so "shi" suggests "Cotton
+ * T-Shirt" as well as "Shirt Dress". Suggestions are weighted by the number of
+ * the product's SKUs in stock, which puts in-stock products first; the schema
+ * has no popularity signal yet, and {@link #weight} is where one would go.
+ *
+ * Built at startup and rebuilt on the search index interval. Product and stock
+ * changes made here are applied after commit by re-reading that one product;
+ * until the first build completes, no suggestions are returned.
+ */
+@Slf4j
+@Component
+public class ProductSuggester implements ApplicationRunner {
+
+    // Keys start at each of a name's first words; later words rarely start a query
+    private static final int MAX_KEYS_PER_PRODUCT = 6;
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Object changes = new Object();
+    private volatile Suggestions current;
+    // Products changed while a rebuild is reading the table; guarded by changes
+    private List<Long> changedDuringRebuild;
+
+    public ProductSuggester(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${product-service.search.index.rebuild-interval:PT10M}",
+            initialDelayString = "${product-service.search.index.rebuild-interval:PT10M}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Build fresh suggestions from the table and swap them in; on failure the previous ones stay
+     */
+    public synchronized void rebuild() {
+        synchronized (changes) {
+            changedDuringRebuild = new ArrayList<>();
+        }
+        Suggestions fresh = new Suggestions();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductStockSummary> products = productRepository.streamStockSummaries()) {
+                    products.forEach(fresh::put);
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (changes) {
+                changedDuringRebuild = null;
+            }
+            log.error("Suggestion rebuild failed, keeping the previous suggestions: {}", e.getMessage());
+            return;
+        }
+        synchronized (changes) {
+            for (Long productId : changedDuringRebuild) {
+                reload(fresh, productId);
+            }
+            changedDuringRebuild = null;
+            current = fresh;
+        }
+        log.info("Suggestions rebuilt for {} products", fresh.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        changed(event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        // Weights count in-stock SKUs, so only a change of stock status matters
+        if (event.inStockChanged()) {
+            changed(event.productId());
+        }
+    }
+
+    /**
+     * Up to {@code limit} suggestions for what has been typed so far, best first
+     */
+    public List<ProductSuggestion> suggest(String typed, int limit) {
+        Suggestions suggestions = current;
+        String prefix = String.join(" ", Tokenizer.tokenize(typed));
+        if (suggestions == null || prefix.isEmpty()) {
+            return List.of();
+        }
+        // A trailing space means the last word is complete
+        if (Character.isWhitespace(typed.charAt(typed.length() - 1))) {
+            prefix += " ";
+        }
+        return suggestions.top(prefix, limit).stream()
+                .map(s -> new ProductSuggestion(s.productId(), s.name(), s.inStock()))
+                .toList();
+    }
+
+    private void changed(long productId) {
+        synchronized (changes) {
+            Suggestions suggestions = current;
+            if (suggestions != null) {
+                reload(suggestions, productId);
+            }
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(productId);
+            }
+        }
+    }
+
+    private void reload(Suggestions suggestions, long productId) {
+        productRepository.findStockSummary(productId).ifPresentOrElse(
+                suggestions::put,
+                () -> suggestions.remove(productId));
+    }
+
+    static long weight(ProductStockSummary product) {
+        return product.inStockSkus();
+    }
+
+    static List<String> keys(String name) {
+        List<String> terms = Tokenizer.tokenize(name);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < Math.min(terms.size(), MAX_KEYS_PER_PRODUCT); i++) {
+            keys.add(String.join(" ", terms.subList(i, terms.size())));
+        }
+        return keys;
+    }
+
+    /**
+     * The trie plus each product's keys, so a product can be re-keyed when renamed
+     */
+    private static final class Suggestions {
+
+        private final SuggestTrie trie = new SuggestTrie();
+        private final Map<Long, List<String>> keysByProduct = new HashMap<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        void put(ProductStockSummary product) {
+            SuggestTrie.Suggestion suggestion = new SuggestTrie.Suggestion(product.id(), product.name(),
+                    product.inStockSkus() > 0, weight(product));
+            List<String> keys = keys(product.name());
+            lock.writeLock().lock();
+            try {
+                unkey(product.id());
+                keys.forEach(key -> trie.add(key, suggestion));
+                keysByProduct.put(product.id(), keys);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long productId) {
+            lock.writeLock().lock();
+            try {
+                unkey(productId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<SuggestTrie.Suggestion> top(String prefix, int limit) {
+            lock.readLock().lock();
+            try {
+                return trie.top(prefix, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return keysByProduct.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void unkey(long productId) {
+            List<String> keys = keysByProduct.remove(productId);
+            if (keys != null) {
+                keys.forEach(key -> trie.remove(key, productId));
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.productcatalog.search;
+
+/**
+ * # A product matching a search, with its relevance score
+ */
+public record SearchHit(long productId, double score) {
+}
@@ -0,0 +1,247 @@
+package com.productcatalog.search;
+
+import com.productcatalog.dto.ProductSummary;
+import com.productcatalog.event.ProductChangedEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * # In-memory inverted index over product name, category and description
+ *
+ * Each term maps to the products containing it, with a field-weighted term
+ * frequency (a name occurrence counts 3, category 2, description 1). Results
+ * are ranked with BM25 over those weighted frequencies.
+ *
+ * Every query term must match. The last one also matches as a prefix, for
+ * search-as-you-type, and terms of 4 or more characters that are not in the
+ * index match terms within one edit (two from 8 characters) that start with the
+ * same letter. Prefix and typo matches score less than exact ones.
+ *
+ * Safe for concurrent use: searches share a read lock, updates take the write lock.
+ */
+class SearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final double PREFIX_MATCH = 0.8;
+    private static final double TYPO_MATCH = 0.6;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_TYPO_LENGTH = 4;
+    private static final int TWO_TYPOS_LENGTH = 8;
+
+    // term -> product id -> weighted term frequency
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    // product id -> its terms' frequencies, to unindex it on update or delete
+    private final Map<Long, Document> documents = new HashMap<>();
+    private double totalLength;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record Document(Map<String, Float> frequencies, float length) {
+    }
+
+    /**
+     * Index a product, replacing any previous version of it
+     */
+    void put(ProductSummary product) {
+        Map<String, Float> frequencies = new HashMap<>();
+        addTerms(frequencies, product.name(), NAME_WEIGHT);
+        addTerms(frequencies, product.category(), CATEGORY_WEIGHT);
+        addTerms(frequencies, product.description(), DESCRIPTION_WEIGHT);
+        float length = 0;
+        for (float frequency : frequencies.values()) {
+            length += frequency;
+        }
+
+        lock.writeLock().lock();
+        try {
+            unindex(product.id());
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(product.id(), frequency));
+            documents.put(product.id(), new Document(frequencies, length));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            unindex(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void apply(ProductChangedEvent event) {
+        if (event.product() == null) {
+            remove(event.productId());
+        } else {
+            put(event.product());
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * All products matching every term of {@code query}, best first (ties by id)
+     */
+    List<SearchHit> search(String query) {
+        List<String> terms = Tokenizer.tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = totalLength / documents.size();
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                Map<Long, Double> termScores = score(expand(terms.get(i), i == terms.size() - 1), averageLength);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<SearchHit> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> hits.add(new SearchHit(id, score)));
+            hits.sort(Comparator.comparingDouble(SearchHit::score).reversed()
+                    .thenComparingLong(SearchHit::productId));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The indexed terms a query term stands for, each with the fraction of a full match it is worth
+     */
+    private Map<String, Double> expand(String term, boolean last) {
+        Map<String, Double> expansions = new HashMap<>();
+        if (postings.containsKey(term)) {
+            expansions.put(term, 1.0);
+        } else if (term.length() >= MIN_TYPO_LENGTH) {
+            int maxEdits = term.length() >= TWO_TYPOS_LENGTH ? 2 : 1;
+            String first = term.substring(0, 1);
+            for (String candidate : postings.subMap(first, true, first + Character.MAX_VALUE, true).keySet()) {
+                if (Math.abs(candidate.length() - term.length()) <= maxEdits
+                        && editDistance(term, candidate, maxEdits) <= maxEdits) {
+                    expansions.put(candidate, TYPO_MATCH);
+                }
+            }
+        }
+        if (last && term.length() >= MIN_PREFIX_LENGTH) {
+            int added = 0;
+            for (String candidate : postings.subMap(term, false, term + Character.MAX_VALUE, true).keySet()) {
+                if (added++ == MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                expansions.putIfAbsent(candidate, PREFIX_MATCH);
+            }
+        }
+        return expansions;
+    }
+
+    /**
+     * BM25 score per product for one query term; the best-scoring expansion counts
+     */
+    private Map<Long, Double> score(Map<String, Double> expansions, double averageLength) {
+        Map<Long, Double> scores = new HashMap<>();
+        int documentCount = documents.size();
+        expansions.forEach((term, match) -> {
+            Map<Long, Float> matches = postings.get(term);
+            double idf = Math.log(1 + (documentCount - matches.size() + 0.5) / (matches.size() + 0.5));
+            matches.forEach((id, frequency) -> {
+                double norm = K1 * (1 - B + B * documents.get(id).length() / averageLength);
+                double score = match * idf * frequency * (K1 + 1) / (frequency + norm);
+                scores.merge(id, score, Math::max);
+            });
+        });
+        return scores;
+    }
+
+    private void unindex(long productId) {
+        Document previous = documents.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length();
+        for (String term : previous.frequencies().keySet()) {
+            Map<Long, Float> matches = postings.get(term);
+            matches.remove(productId);
+            if (matches.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Float> frequencies, String text, float weight) {
+        for (String term : Tokenizer.tokenize(text)) {
+            frequencies.merge(term, weight, Float::sum);
+        }
+    }
+
+    /**
+     * Optimal string alignment distance (edits, including adjacent swaps), or
+     * {@code max + 1} as soon as it is known to exceed {@code max}
+     */
+    static int editDistance(String a, String b, int max) {
+        int[] before = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, before[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = before;
+            before = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,216 @@
+package com.productcatalog.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * # Compressed trie of suggestion keys with weighted completions
+ *
+ * Chains of single-child nodes are merged into one edge, so keys sharing a
+ * prefix share its nodes. Every node records the highest weight below it;
+ * {@link #top} walks the subtree under a prefix best-first on that bound and
+ * stops after {@code limit} distinct products, without visiting the rest.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+class SuggestTrie {
+
+    private static final Comparator<Suggestion> BEST_FIRST = Comparator.comparingLong(Suggestion::weight).reversed()
+            .thenComparing(Suggestion::name)
+            .thenComparingLong(Suggestion::productId);
+
+    private static final Comparator<Object> QUEUE_ORDER = Comparator.comparingLong(SuggestTrie::bound).reversed()
+            .thenComparing(entry -> entry instanceof Suggestion)
+            .thenComparing((a, b) -> a instanceof Suggestion sa && b instanceof Suggestion sb
+                    ? BEST_FIRST.compare(sa, sb) : 0);
+
+    private final Node root = new Node("");
+
+    /**
+     * A product a key completes to; higher weights are suggested first
+     */
+    record Suggestion(long productId, String name, boolean inStock, long weight) {
+    }
+
+    private static final class Node {
+        private String edge;
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        // Products whose key ends at this node
+        private final Map<Long, Suggestion> suggestions = new HashMap<>(2);
+        private long maxWeight = Long.MIN_VALUE;
+
+        Node(String edge) {
+            this.edge = edge;
+        }
+
+        void updateMaxWeight() {
+            long max = Long.MIN_VALUE;
+            for (Suggestion suggestion : suggestions.values()) {
+                max = Math.max(max, suggestion.weight());
+            }
+            for (Node child : children.values()) {
+                max = Math.max(max, child.maxWeight);
+            }
+            maxWeight = max;
+        }
+    }
+
+    void add(String key, Suggestion suggestion) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                child = new Node(key.substring(i));
+                node.children.put(key.charAt(i), child);
+                node = child;
+                path.add(node);
+                break;
+            }
+            int common = commonPrefix(child.edge, key, i);
+            if (common < child.edge.length()) {
+                // Split the edge where the key leaves it
+                Node split = new Node(child.edge.substring(0, common));
+                child.edge = child.edge.substring(common);
+                split.children.put(child.edge.charAt(0), child);
+                split.maxWeight = child.maxWeight;
+                node.children.put(split.edge.charAt(0), split);
+                child = split;
+            }
+            node = child;
+            path.add(node);
+            i += common;
+        }
+        node.suggestions.put(suggestion.productId(), suggestion);
+        for (Node onPath : path) {
+            onPath.maxWeight = Math.max(onPath.maxWeight, suggestion.weight());
+        }
+    }
+
+    void remove(String key, long productId) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null || !key.startsWith(child.edge, i)) {
+                return;
+            }
+            i += child.edge.length();
+            node = child;
+            path.add(node);
+        }
+        if (node.suggestions.remove(productId) == null) {
+            return;
+        }
+
+        for (int depth = path.size() - 1; depth > 0; depth--) {
+            Node current = path.get(depth);
+            Node parent = path.get(depth - 1);
+            if (current.suggestions.isEmpty() && current.children.isEmpty()) {
+                parent.children.remove(current.edge.charAt(0));
+            } else if (current.suggestions.isEmpty() && current.children.size() == 1) {
+                // Merge a pass-through node into its only child
+                Node only = current.children.firstEntry().getValue();
+                only.edge = current.edge + only.edge;
+                parent.children.put(only.edge.charAt(0), only);
+            } else {
+                current.updateMaxWeight();
+            }
+        }
+        root.updateMaxWeight();
+    }
+
+    /**
+     * Up to {@code limit} best suggestions for keys starting with {@code prefix},
+     * one per product
+     */
+    List<Suggestion> top(String prefix, int limit) {
+        Node node = find(prefix);
+        if (node == null) {
+            return List.of();
+        }
+
+        // Nodes are expanded in order of the best weight they could still yield, and
+        // before suggestions of equal weight; a suggestion is final once nothing left
+        // in the queue can beat it
+        PriorityQueue<Object> queue = new PriorityQueue<>(QUEUE_ORDER);
+        queue.add(node);
+        Set<Long> seen = new LinkedHashSet<>();
+        List<Suggestion> results = new ArrayList<>(limit);
+        while (!queue.isEmpty() && results.size() < limit) {
+            Object next = queue.poll();
+            if (next instanceof Suggestion suggestion) {
+                if (seen.add(suggestion.productId())) {
+                    results.add(suggestion);
+                }
+            } else {
+                Node expanded = (Node) next;
+                queue.addAll(expanded.suggestions.values());
+                queue.addAll(expanded.children.values());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * The highest weight among keys starting with {@code prefix}, as recorded in the trie
+     */
+    long maxWeight(String prefix) {
+        Node node = find(prefix);
+        return node == null ? Long.MIN_VALUE : node.maxWeight;
+    }
+
+    int nodeCount() {
+        int count = 0;
+        List<Node> pending = new ArrayList<>(List.of(root));
+        while (!pending.isEmpty()) {
+            Node node = pending.remove(pending.size() - 1);
+            count++;
+            pending.addAll(node.children.values());
+        }
+        return count;
+    }
+
+    // The node whose subtree holds exactly the keys starting with prefix, or null
+    private Node find(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node child = node.children.get(prefix.charAt(i));
+            if (child == null) {
+                return null;
+            }
+            int common = commonPrefix(child.edge, prefix, i);
+            if (common < child.edge.length() && i + common < prefix.length()) {
+                return null;
+            }
+            i += common;
+            node = child;
+        }
+        return node;
+    }
+
+    private static long bound(Object entry) {
+        return entry instanceof Suggestion suggestion ? suggestion.weight() : ((Node) entry).maxWeight;
+    }
+
+    private static int commonPrefix(String edge, String key, int offset) {
+        int max = Math.min(edge.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && edge.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+}
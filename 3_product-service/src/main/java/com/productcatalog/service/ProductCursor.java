@@ -0,0 +1,43 @@
+package com.productcatalog.service;
+
+import com.productcatalog.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * # Opaque continuation tokens for product listings
+ *
+ * A token holds the last id of the page it follows. It is base64url-encoded
+ * and versioned so the keyset can change without clients parsing it.
+ */
+public final class ProductCursor {
+
+    private static final String PREFIX = "v1:";
+
+    private ProductCursor() {
+    }
+
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The last id before the requested page; 0 for a null or empty token (the first page)
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String token = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!token.startsWith(PREFIX)) {
+                throw new InvalidCursorException("Unsupported cursor: " + cursor);
+            }
+            return Long.parseLong(token.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor: " + cursor, e);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.productcatalog.service;
 
+import com.productcatalog.dto.ProductDetail;
+import com.productcatalog.dto.ProductPage;
+import com.productcatalog.dto.ProductSearchPage;
+import com.productcatalog.dto.ProductSuggestion;
+import com.productcatalog.dto.ProductSummary;
 import com.productcatalog.model.Product;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * # Business logic interface for Products
@@ -13,37 +19,52 @@ public interface ProductService {
     /**
      * Create a new product
      */
-    Product createProduct(Product product);
+    ProductDetail createProduct(Product product);
 
     /**
-     * Get a product by ID
+     * Get a product, with its SKUs, by ID; served from the product read cache
      */
-    Optional<Product> getProductById(Long id);
+    Optional<ProductDetail> getProductById(Long id);
 
     /**
-     * Get a product with its SKUs by ID
+     * Get a product with its SKUs by ID; the same read model as {@link #getProductById}
      */
-    Optional<Product> getProductWithSkusById(Long id);
+    Optional<ProductDetail> getProductWithSkusById(Long id);
 
     /**
-     * Get all products
+     * Get the products with the given IDs, with their SKUs, in the order given; unknown IDs are skipped
      */
-    List<Product> getAllProducts();
+    List<ProductDetail> getProductsByIds(List<Long> ids);
 
     /**
-     * Get products by category
+     * Get the page of products after the given continuation token (null for the first page)
      */
-    List<Product> getProductsByCategory(String category);
+    ProductPage getProductPage(String cursor, int limit);
 
     /**
-     * Search products by name
+     * Pass every product, in id order, to the sink without holding the catalog in memory
      */
-    List<Product> searchProductsByName(String name);
+    void exportProducts(Consumer<ProductSummary> sink);
+
+    /**
+     * Get products, with their SKUs, by category; served from the product read cache
+     */
+    List<ProductDetail> getProductsByCategory(String category);
+
+    /**
+     * Search products by name, category and description, best matches first
+     */
+    ProductSearchPage searchProducts(String query, int page, int size);
+
+    /**
+     * Suggest product names for a partly typed query, from memory only
+     */
+    List<ProductSuggestion> suggestProducts(String typed, int limit);
 
     /**
      * Update a product
      */
-    Product updateProduct(Product product);
+    ProductDetail updateProduct(Product product);
 
     /**
      * Delete a product
@@ -56,7 +77,7 @@ public interface ProductService {
     void deactivateProduct(Long id);
 
     /**
-     * Get products with available inventory
+     * Get products, with their SKUs, that have available inventory
      */
-    List<Product> getProductsWithAvailableInventory();
+    List<ProductDetail> getProductsWithAvailableInventory();
 }
\ No newline at end of file
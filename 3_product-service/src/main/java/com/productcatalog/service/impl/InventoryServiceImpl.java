@@ -2,7 +2,9 @@ package com.productcatalog.service.impl;
 
 import com.productcatalog.model.SKU;
 import com.productcatalog.repository.SKURepository;
+import com.productcatalog.event.ProductStockChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +18,7 @@ import java.util.Optional;
 public class InventoryServiceImpl {
 
     private final SKURepository skuRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Check if a SKU is in stock
@@ -38,8 +41,7 @@ public class InventoryServiceImpl {
         SKU sku = skuRepository.findBySkuCode(skuCode)
                 .orElseThrow(() -> new RuntimeException("SKU not found: " + skuCode));
 
-        sku.setAvailableQuantity(sku.getAvailableQuantity() + quantity);
-        return skuRepository.save(sku);
+        return setQuantity(sku, sku.getAvailableQuantity() + quantity);
     }
 
     /**
@@ -58,8 +60,7 @@ public class InventoryServiceImpl {
             throw new RuntimeException("Insufficient inventory for SKU: " + skuCode);
         }
 
-        sku.setAvailableQuantity(sku.getAvailableQuantity() - quantity);
-        return skuRepository.save(sku);
+        return setQuantity(sku, sku.getAvailableQuantity() - quantity);
     }
 
     /**
@@ -74,7 +75,14 @@ public class InventoryServiceImpl {
         SKU sku = skuRepository.findBySkuCode(skuCode)
                 .orElseThrow(() -> new RuntimeException("SKU not found: " + skuCode));
 
-        sku.setAvailableQuantity(newQuantity);
-        return skuRepository.save(sku);
+        return setQuantity(sku, newQuantity);
+    }
+
+    private SKU setQuantity(SKU sku, int quantity) {
+        boolean wasInStock = sku.getAvailableQuantity() > 0;
+        sku.setAvailableQuantity(quantity);
+        SKU saved = skuRepository.save(sku);
+        eventPublisher.publishEvent(new ProductStockChangedEvent(saved.getProduct().getId(), wasInStock != quantity > 0));
+        return saved;
     }
 }
\ No newline at end of file
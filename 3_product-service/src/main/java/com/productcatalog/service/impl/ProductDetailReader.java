@@ -0,0 +1,122 @@
+package com.productcatalog.service.impl;
+
+import com.productcatalog.dto.ColorVariantDetail;
+import com.productcatalog.dto.ColorVariantRow;
+import com.productcatalog.dto.ProductDetail;
+import com.productcatalog.dto.ProductSummary;
+import com.productcatalog.dto.SkuDetail;
+import com.productcatalog.dto.SkuRow;
+import com.productcatalog.repository.ColorVariantRepository;
+import com.productcatalog.repository.ProductRepository;
+import com.productcatalog.repository.SKURepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * # Builds ProductDetail read models with a fixed number of queries
+ *
+ * Products, their SKUs and the SKUs' color variants are read as flat rows in
+ * one query per level, with IN lists over the ids of the level above, and
+ * assembled in memory. No entities are loaded, so nothing is lazily fetched
+ * per product or per SKU: a page of 100 products costs 3 queries.
+ *
+ * Each method runs in one repeatable-read transaction, so the three levels
+ * come from the same snapshot even while products are being written.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductDetailReader {
+
+    // Keeps IN lists well under the PostgreSQL bind parameter limit
+    private static final int MAX_IN_LIST = 1000;
+
+    private final ProductRepository productRepository;
+    private final SKURepository skuRepository;
+    private final ColorVariantRepository colorVariantRepository;
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Optional<ProductDetail> byId(Long id) {
+        return withSkus(productRepository.findSummariesByIdIn(List.of(id))).stream().findFirst();
+    }
+
+    /**
+     * The products with the given IDs, in the order given; unknown IDs are skipped
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public List<ProductDetail> byIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductDetail> found = new HashMap<>();
+        for (ProductDetail product : withSkus(inChunks(ids, productRepository::findSummariesByIdIn))) {
+            found.put(product.id(), product);
+        }
+        List<ProductDetail> ordered = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            ProductDetail product = found.get(id);
+            if (product != null) {
+                ordered.add(product);
+            }
+        }
+        return ordered;
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public List<ProductDetail> byCategory(String category) {
+        return withSkus(productRepository.findSummariesByCategory(category));
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public List<ProductDetail> withAvailableInventory() {
+        return withSkus(productRepository.findSummariesWithAvailableSkus());
+    }
+
+    private List<ProductDetail> withSkus(List<ProductSummary> products) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+        List<SkuRow> skus = inChunks(products.stream().map(ProductSummary::id).toList(),
+                skuRepository::findRowsByProductIdIn);
+
+        Map<Long, List<ColorVariantDetail>> colorsBySku = new HashMap<>();
+        if (!skus.isEmpty()) {
+            for (ColorVariantRow row : inChunks(skus.stream().map(SkuRow::id).toList(),
+                    colorVariantRepository::findRowsBySkuIdIn)) {
+                colorsBySku.computeIfAbsent(row.skuId(), id -> new ArrayList<>()).add(row.toDetail());
+            }
+        }
+
+        Map<Long, List<SkuDetail>> skusByProduct = new HashMap<>();
+        for (SkuRow row : skus) {
+            skusByProduct.computeIfAbsent(row.productId(), id -> new ArrayList<>())
+                    .add(SkuDetail.of(row, colorsBySku.getOrDefault(row.id(), List.of())));
+        }
+
+        List<ProductDetail> details = new ArrayList<>(products.size());
+        for (ProductSummary product : products) {
+            details.add(ProductDetail.of(product, skusByProduct.getOrDefault(product.id(), List.of())));
+        }
+        return details;
+    }
+
+    private static <T> List<T> inChunks(List<Long> ids, Function<Collection<Long>, List<T>> query) {
+        if (ids.size() <= MAX_IN_LIST) {
+            return query.apply(ids);
+        }
+        List<T> rows = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MAX_IN_LIST) {
+            rows.addAll(query.apply(ids.subList(from, Math.min(from + MAX_IN_LIST, ids.size()))));
+        }
+        return rows;
+    }
+}
@@ -1,16 +1,37 @@
 package com.productcatalog.service.impl;
 
+import com.productcatalog.cache.ProductReadCache;
+import com.productcatalog.dto.ProductDetail;
+import com.productcatalog.dto.ProductPage;
+import com.productcatalog.dto.ProductSearchPage;
+import com.productcatalog.dto.ProductSuggestion;
+import com.productcatalog.dto.ProductSummary;
+import com.productcatalog.event.ProductChangedEvent;
 import com.productcatalog.exception.InvalidSKUException;
 import com.productcatalog.model.Product;
 import com.productcatalog.repository.ProductRepository;
+import com.productcatalog.search.ProductSearchIndex;
+import com.productcatalog.search.ProductSuggester;
+import com.productcatalog.search.SearchHit;
+import com.productcatalog.service.ProductCursor;
 import com.productcatalog.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * # Implementation of Product service
@@ -20,13 +41,18 @@ import java.util.regex.Pattern;
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductSearchIndex searchIndex;
+    private final ProductSuggester suggester;
+    private final ProductReadCache productCache;
+    private final ProductDetailReader detailReader;
+    private final ApplicationEventPublisher eventPublisher;
 
     // SKU code pattern: 2 uppercase letters followed by 6 digits
     private static final Pattern SKU_PATTERN = Pattern.compile("[A-Z]{2}\\d{6}");
 
     @Override
     @Transactional
-    public Product createProduct(Product product) {
+    public ProductDetail createProduct(Product product) {
         // Validate SKUs if any
         if (product.getSkus() != null) {
             product.getSkus().forEach(sku -> {
@@ -36,42 +62,92 @@ public class ProductServiceImpl implements ProductService {
             });
         }
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(ProductSummary.of(saved)));
+        return ProductDetail.of(saved);
     }
 
+    // Not transactional: cache hits must not open a transaction or take a connection;
+    // each load runs in its own repeatable-read transaction, so a product, its SKUs
+    // and their color variants are one snapshot
     @Override
-    @Transactional(readOnly = true)
-    public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+    public Optional<ProductDetail> getProductById(Long id) {
+        return productCache.product(id, () -> detailReader.byId(id));
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public Optional<Product> getProductWithSkusById(Long id) {
-        return productRepository.findByIdWithSkus(id);
+    public Optional<ProductDetail> getProductWithSkusById(Long id) {
+        return getProductById(id);
+    }
+
+    @Override
+    public List<ProductDetail> getProductsByIds(List<Long> ids) {
+        return detailReader.byIds(ids);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    public ProductPage getProductPage(String cursor, int limit) {
+        // One extra row tells whether another page follows
+        List<ProductSummary> rows = productRepository.findSummariesAfter(ProductCursor.decode(cursor), Limit.of(limit + 1));
+        if (rows.size() <= limit) {
+            return new ProductPage(rows, null);
+        }
+        List<ProductSummary> page = rows.subList(0, limit);
+        return new ProductPage(List.copyOf(page), ProductCursor.encode(page.get(limit - 1).id()));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Product> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category);
+    public void exportProducts(Consumer<ProductSummary> sink) {
+        try (Stream<ProductSummary> products = productRepository.streamAllSummaries()) {
+            products.forEach(sink);
+        }
+    }
+
+    @Override
+    public List<ProductDetail> getProductsByCategory(String category) {
+        return productCache.category(category, () -> detailReader.byCategory(category));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Product> searchProductsByName(String name) {
-        return productRepository.findByNameContainingIgnoreCase(name);
+    public ProductSearchPage searchProducts(String query, int page, int size) {
+        Optional<List<SearchHit>> ranked = searchIndex.search(query);
+        if (ranked.isEmpty()) {
+            Page<Long> ids = productRepository.searchIdsByText(query, likePattern(query), PageRequest.of(page, size));
+            return new ProductSearchPage(summariesInOrder(ids.getContent()), page, size, ids.getTotalElements());
+        }
+
+        List<SearchHit> hits = ranked.get();
+        int from = (int) Math.min((long) page * size, hits.size());
+        int to = Math.min(from + size, hits.size());
+        List<Long> ids = hits.subList(from, to).stream().map(SearchHit::productId).toList();
+        return new ProductSearchPage(summariesInOrder(ids), page, size, hits.size());
+    }
+
+    @Override
+    public List<ProductSuggestion> suggestProducts(String typed, int limit) {
+        return suggester.suggest(typed, limit);
+    }
+
+    // One IN query for the page; ids deleted since they were matched are skipped
+    private List<ProductSummary> summariesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductSummary> found = productRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductSummary::id, Function.identity()));
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    private static String likePattern(String query) {
+        return "%" + query.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
     }
 
     @Override
     @Transactional
-    public Product updateProduct(Product product) {
+    public ProductDetail updateProduct(Product product) {
         // Check if product exists
         if (!productRepository.existsById(product.getId())) {
             throw new RuntimeException("Product not found with id: " + product.getId());
@@ -86,13 +162,16 @@ public class ProductServiceImpl implements ProductService {
             });
         }
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(ProductSummary.of(saved)));
+        return ProductDetail.of(saved);
     }
 
     @Override
     @Transactional
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 
     @Override
@@ -100,13 +179,13 @@ public class ProductServiceImpl implements ProductService {
     public void deactivateProduct(Long id) {
         productRepository.findById(id).ifPresent(product -> {
             product.setActive(false);
-            productRepository.save(product);
+            Product saved = productRepository.save(product);
+            eventPublisher.publishEvent(ProductChangedEvent.saved(ProductSummary.of(saved)));
         });
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<Product> getProductsWithAvailableInventory() {
-        return productRepository.findProductsWithAvailableSkus();
+    public List<ProductDetail> getProductsWithAvailableInventory() {
+        return detailReader.withAvailableInventory();
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+-- # Flyway migration: Add search indexes
+-- Indexes behind the database-side product search, used while the in-memory index is unavailable
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Substring (ILIKE '%term%') and similarity (%) matches on product names
+CREATE INDEX idx_products_name_trgm ON products USING gin (name gin_trgm_ops);
+
+-- Full-text matches; the expression must stay identical to ProductRepository.SEARCH_DOCUMENT
+CREATE INDEX idx_products_search_tsv ON products USING gin (
+    to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(category, '') || ' ' || coalesce(description, ''))
+);
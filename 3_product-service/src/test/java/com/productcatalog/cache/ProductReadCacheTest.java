@@ -0,0 +1,88 @@
+package com.productcatalog.cache;
+
+import com.productcatalog.dto.ProductDetail;
+import com.productcatalog.dto.ProductSummary;
+import com.productcatalog.event.ProductChangedEvent;
+import com.productcatalog.event.ProductStockChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * # Unit tests for ProductReadCache
+ */
+public class ProductReadCacheTest {
+
+    private final ProductReadCache cache = new ProductReadCache(100, Duration.ofMinutes(5));
+
+    @Test
+    public void testLoadsOncePerKey() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.product(1L, () -> {
+            loads.incrementAndGet();
+            return Optional.of(detail(1L, "CANDY"));
+        });
+        Optional<ProductDetail> cached = cache.product(1L, () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertEquals(1, loads.get());
+        assertEquals("CANDY", cached.orElseThrow().category());
+    }
+
+    @Test
+    public void testStockChangeDropsTheCategoryListHoldingTheProduct() {
+        cache.category("CANDY", () -> List.of(detail(1L, "CANDY"), detail(2L, "CANDY")));
+        cache.category("FASHION", () -> List.of(detail(3L, "FASHION")));
+
+        cache.onStockChanged(new ProductStockChangedEvent(2L, true));
+
+        assertEquals(List.of(), cache.category("CANDY", List::of));
+        assertEquals(1, cache.category("FASHION", List::of).size());
+    }
+
+    @Test
+    public void testMovingAProductDropsBothCategoryLists() {
+        cache.category("CANDY", () -> List.of(detail(1L, "CANDY")));
+        cache.category("FASHION", () -> List.of(detail(3L, "FASHION")));
+
+        // Product 1 is not cached by id, so only the index knows it was listed under CANDY
+        cache.onProductChanged(ProductChangedEvent.saved(new ProductSummary(1L, "Moved", null, "FASHION", true)));
+
+        assertEquals(List.of(), cache.category("CANDY", List::of));
+        assertEquals(List.of(), cache.category("FASHION", List::of));
+    }
+
+    @Test
+    public void testLoadRacingAnInvalidationIsNotStored() {
+        Optional<ProductDetail> returned = cache.product(1L, () -> {
+            // The write commits while this read is in flight
+            cache.onProductChanged(ProductChangedEvent.deleted(1L));
+            return Optional.of(detail(1L, "CANDY"));
+        });
+
+        assertTrue(returned.isPresent());
+        assertEquals(Optional.empty(), cache.product(1L, Optional::empty));
+    }
+
+    @Test
+    public void testFailedLoadDoesNotBlockLaterLoads() {
+        assertThrows(IllegalStateException.class, () -> cache.product(1L, () -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        assertTrue(cache.product(1L, () -> Optional.of(detail(1L, "CANDY"))).isPresent());
+        assertTrue(cache.product(1L, Optional::empty).isPresent());
+    }
+
+    private static ProductDetail detail(long id, String category) {
+        return new ProductDetail(id, "Product " + id, null, category, true, List.of());
+    }
+}
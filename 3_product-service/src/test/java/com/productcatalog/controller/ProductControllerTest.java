@@ -0,0 +1,119 @@
+package com.productcatalog.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productcatalog.dto.ProductPage;
+import com.productcatalog.dto.ProductSummary;
+import com.productcatalog.exception.InvalidCursorException;
+import com.productcatalog.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * # Unit tests for ProductController
+ */
+@WebMvcTest(ProductController.class)
+public class ProductControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ProductService productService;
+
+    // @EnableJpaAuditing on the application class needs it; the web slice has no JPA
+    @MockBean
+    private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+
+    @Test
+    public void testPageCarriesTheNextCursor() throws Exception {
+        when(productService.getProductPage("abc", 2))
+                .thenReturn(new ProductPage(List.of(summary(3L), summary(4L)), "next"));
+
+        mockMvc.perform(get("/products").param("cursor", "abc").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(3))
+                .andExpect(jsonPath("$.items[1].id").value(4))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    public void testLastPageHasANullCursor() throws Exception {
+        when(productService.getProductPage(null, 100)).thenReturn(new ProductPage(List.of(summary(1L)), null));
+
+        mockMvc.perform(get("/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    public void testMalformedCursorIsABadRequest() throws Exception {
+        when(productService.getProductPage("garbage", 100))
+                .thenThrow(new InvalidCursorException("Malformed cursor: garbage"));
+
+        mockMvc.perform(get("/products").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Malformed cursor: garbage"));
+    }
+
+    @Test
+    public void testPageSizeOutOfRangeIsABadRequest() throws Exception {
+        mockMvc.perform(get("/products").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/products").param("limit", "501"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExportWritesOneJsonObjectPerLine() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ProductSummary> sink = invocation.getArgument(0);
+            sink.accept(summary(1L));
+            sink.accept(new ProductSummary(2L, "Line\nbreak", "with \"quotes\"", "CANDY", false));
+            return null;
+        }).when(productService).exportProducts(any(Consumer.class));
+
+        MvcResult started = mockMvc.perform(get("/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode product = objectMapper.readTree(lines[i]);
+            assertTrue(product.isObject());
+            assertEquals(i + 1, product.get("id").asInt());
+        }
+        assertEquals("Line\nbreak", objectMapper.readTree(lines[1]).get("name").asText());
+    }
+
+    private static ProductSummary summary(long id) {
+        return new ProductSummary(id, "Product " + id, null, "CANDY", true);
+    }
+}
@@ -0,0 +1,149 @@
+package com.productcatalog.search;
+
+import com.productcatalog.dto.ProductSummary;
+import com.productcatalog.event.ProductChangedEvent;
+import com.productcatalog.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * # Unit tests for ProductSearchIndex
+ */
+public class ProductSearchIndexTest {
+
+    private AnnotationConfigApplicationContext context;
+    private ProductRepository productRepository;
+    private ProductSearchIndex searchIndex;
+
+    @Configuration
+    @EnableTransactionManagement
+    static class Config {
+
+        @Bean
+        ProductRepository productRepository() {
+            return mock(ProductRepository.class);
+        }
+
+        // Commits and rolls back nothing, but runs transaction synchronizations like a real one
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new AbstractPlatformTransactionManager() {
+                @Override
+                protected Object doGetTransaction() {
+                    return new Object();
+                }
+
+                @Override
+                protected void doBegin(Object transaction, TransactionDefinition definition) {
+                }
+
+                @Override
+                protected void doCommit(DefaultTransactionStatus status) {
+                }
+
+                @Override
+                protected void doRollback(DefaultTransactionStatus status) {
+                }
+            };
+        }
+
+        @Bean
+        ProductSearchIndex productSearchIndex(ProductRepository productRepository,
+                                              PlatformTransactionManager transactionManager) {
+            return new ProductSearchIndex(productRepository, transactionManager, true);
+        }
+    }
+
+    @BeforeEach
+    public void setup() {
+        context = new AnnotationConfigApplicationContext(Config.class);
+        productRepository = context.getBean(ProductRepository.class);
+        searchIndex = context.getBean(ProductSearchIndex.class);
+    }
+
+    @AfterEach
+    public void teardown() {
+        context.close();
+    }
+
+    @Test
+    public void testUnavailableUntilTheFirstBuild() {
+        assertEquals(Optional.empty(), searchIndex.search("chocolate"));
+
+        when(productRepository.streamAllSummaries()).thenReturn(Stream.of(summary(1L, "Chocolate Bar")));
+        searchIndex.rebuild();
+
+        assertEquals(List.of(1L), ids(searchIndex.search("chocolate")));
+    }
+
+    @Test
+    public void testFailedRebuildKeepsThePreviousIndex() {
+        when(productRepository.streamAllSummaries()).thenReturn(Stream.of(summary(1L, "Chocolate Bar")));
+        searchIndex.rebuild();
+
+        when(productRepository.streamAllSummaries()).thenThrow(new IllegalStateException("database down"));
+        searchIndex.rebuild();
+
+        assertEquals(List.of(1L), ids(searchIndex.search("chocolate")));
+    }
+
+    @Test
+    public void testChangesAreIndexedOnlyOnceTheirTransactionCommits() {
+        when(productRepository.streamAllSummaries()).thenReturn(Stream.empty());
+        searchIndex.rebuild();
+        ApplicationEventPublisher publisher = context;
+
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            publisher.publishEvent(ProductChangedEvent.saved(summary(1L, "Chocolate Bar")));
+            assertEquals(List.of(), ids(searchIndex.search("chocolate")));
+        });
+        assertEquals(List.of(1L), ids(searchIndex.search("chocolate")));
+
+        TransactionTemplate rolledBack = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        rolledBack.executeWithoutResult(status -> {
+            publisher.publishEvent(ProductChangedEvent.deleted(1L));
+            status.setRollbackOnly();
+        });
+        assertEquals(List.of(1L), ids(searchIndex.search("chocolate")));
+    }
+
+    @Test
+    public void testChangesDuringARebuildAreReplayedOntoTheNewIndex() {
+        // The table read sees product 1 before it is renamed and deleted, and not product 2
+        when(productRepository.streamAllSummaries()).thenAnswer(invocation -> Stream.of(summary(1L, "Chocolate Bar"))
+                .onClose(() -> {
+                    searchIndex.onProductChanged(ProductChangedEvent.saved(summary(2L, "Chocolate Truffles")));
+                    searchIndex.onProductChanged(ProductChangedEvent.deleted(1L));
+                }));
+
+        searchIndex.rebuild();
+
+        assertEquals(List.of(2L), ids(searchIndex.search("chocolate")));
+    }
+
+    private static ProductSummary summary(long id, String name) {
+        return new ProductSummary(id, name, null, "candy", true);
+    }
+
+    private static List<Long> ids(Optional<List<SearchHit>> hits) {
+        return hits.orElseThrow().stream().map(SearchHit::productId).toList();
+    }
+}
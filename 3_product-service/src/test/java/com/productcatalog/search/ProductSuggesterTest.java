@@ -0,0 +1,107 @@
+package com.productcatalog.search;
+
+import com.productcatalog.dto.ProductStockSummary;
+import com.productcatalog.dto.ProductSuggestion;
+import com.productcatalog.event.ProductChangedEvent;
+import com.productcatalog.event.ProductStockChangedEvent;
+import com.productcatalog.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * # Unit tests for ProductSuggester
+ */
+public class ProductSuggesterTest {
+
+    private ProductRepository productRepository;
+    private ProductSuggester suggester;
+
+    @BeforeEach
+    public void setup() {
+        productRepository = mock(ProductRepository.class);
+        suggester = new ProductSuggester(productRepository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    public void testNoSuggestionsUntilTheFirstBuild() {
+        assertEquals(List.of(), suggester.suggest("shi", 5));
+    }
+
+    @Test
+    public void testMatchesAnyWordAndPutsInStockProductsFirst() {
+        build(new ProductStockSummary(1L, "Cotton T-Shirt", 0),
+                new ProductStockSummary(2L, "Shirt Dress", 2),
+                new ProductStockSummary(3L, "Sneakers", 1));
+
+        List<ProductSuggestion> suggestions = suggester.suggest("SHI", 5);
+
+        assertEquals(List.of(2L, 1L), ids(suggestions));
+        assertTrue(suggestions.get(0).inStock());
+        assertFalse(suggestions.get(1).inStock());
+    }
+
+    @Test
+    public void testTrailingSpaceCompletesTheLastWord() {
+        build(new ProductStockSummary(1L, "Shirt Dress", 1),
+                new ProductStockSummary(2L, "Shirtwaist Blouse", 1),
+                new ProductStockSummary(3L, "Cotton Shirt", 1));
+
+        assertEquals(List.of(3L, 1L, 2L), ids(suggester.suggest("shirt", 5)));
+        // Only keys that continue past the complete word "shirt"
+        assertEquals(List.of(1L), ids(suggester.suggest("shirt ", 5)));
+        assertEquals(List.of(1L), ids(suggester.suggest("shirt d", 5)));
+        assertEquals(List.of(), ids(suggester.suggest("   ", 5)));
+    }
+
+    @Test
+    public void testStockChangesReweighOnlyWhenStockStatusChanges() {
+        build(new ProductStockSummary(1L, "Shirt Blue", 0),
+                new ProductStockSummary(2L, "Shirt Red", 1));
+
+        when(productRepository.findStockSummary(1L)).thenReturn(Optional.of(new ProductStockSummary(1L, "Shirt Blue", 3)));
+        suggester.onStockChanged(new ProductStockChangedEvent(1L, false));
+        assertEquals(List.of(2L, 1L), ids(suggester.suggest("shirt", 5)));
+        verify(productRepository, never()).findStockSummary(1L);
+
+        suggester.onStockChanged(new ProductStockChangedEvent(1L, true));
+        assertEquals(List.of(1L, 2L), ids(suggester.suggest("shirt", 5)));
+    }
+
+    @Test
+    public void testChangesDuringARebuildAreReplayed() {
+        build(new ProductStockSummary(1L, "Shirt Blue", 1));
+
+        // The table read misses a rename and a deactivation that commit while it runs
+        when(productRepository.streamStockSummaries()).thenAnswer(invocation -> Stream.of(
+                        new ProductStockSummary(1L, "Shirt Blue", 1),
+                        new ProductStockSummary(2L, "Shirt Red", 1))
+                .onClose(() -> {
+                    suggester.onProductChanged(ProductChangedEvent.deleted(1L));
+                    suggester.onProductChanged(ProductChangedEvent.deleted(2L));
+                }));
+        when(productRepository.findStockSummary(1L)).thenReturn(Optional.of(new ProductStockSummary(1L, "Sweater Blue", 1)));
+        when(productRepository.findStockSummary(2L)).thenReturn(Optional.empty());
+
+        suggester.rebuild();
+
+        assertEquals(List.of(), ids(suggester.suggest("shirt", 5)));
+        assertEquals(List.of(1L), ids(suggester.suggest("swe", 5)));
+    }
+
+    private void build(ProductStockSummary... products) {
+        when(productRepository.streamStockSummaries()).thenReturn(Stream.of(products));
+        suggester.rebuild();
+    }
+
+    private static List<Long> ids(List<ProductSuggestion> suggestions) {
+        return suggestions.stream().map(ProductSuggestion::id).toList();
+    }
+}
@@ -0,0 +1,97 @@
+package com.productcatalog.search;
+
+import com.productcatalog.dto.ProductSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * # Unit tests for SearchIndex
+ */
+public class SearchIndexTest {
+
+    private SearchIndex index;
+
+    @BeforeEach
+    public void setup() {
+        index = new SearchIndex();
+        index.put(new ProductSummary(1L, "Chocolate Bar", "Milk chocolate", "candy", true));
+        index.put(new ProductSummary(2L, "Gummy Bears", "Fruit gummies with a chocolate coating", "candy", true));
+        index.put(new ProductSummary(3L, "Sneakers", "Running shoes", "fashion", true));
+    }
+
+    @Test
+    public void testNameMatchesRankAboveDescriptionMatches() {
+        List<SearchHit> hits = index.search("chocolate");
+
+        assertEquals(List.of(1L, 2L), ids(hits));
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    public void testShorterProductsRankHigherForTheSameMatch() {
+        List<SearchHit> hits = index.search("candy");
+
+        assertEquals(List.of(1L, 2L), ids(hits));
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    public void testEqualScoresAreOrderedById() {
+        index.put(new ProductSummary(5L, "Sneakers", "Running shoes", "fashion", true));
+
+        assertEquals(List.of(3L, 5L), ids(index.search("sneakers")));
+    }
+
+    @Test
+    public void testEveryTermMustMatch() {
+        assertEquals(List.of(1L), ids(index.search("milk chocolate")));
+        assertEquals(List.of(), index.search("chocolate sneakers"));
+    }
+
+    @Test
+    public void testOnlyTheLastTermMatchesAsAPrefix() {
+        assertEquals(List.of(1L, 2L), ids(index.search("choc")));
+        assertEquals(List.of(2L), ids(index.search("gum")));
+        assertEquals(List.of(), index.search("choc bar"));
+    }
+
+    @Test
+    public void testTyposMatchButScoreBelowExactMatches() {
+        double exact = index.search("sneakers").get(0).score();
+
+        List<SearchHit> swapped = index.search("snaekers");
+        assertEquals(List.of(3L), ids(swapped));
+        assertTrue(swapped.get(0).score() < exact);
+
+        // Two edits are tolerated from 8 characters, one below that, none under 4
+        assertEquals(List.of(1L, 2L), ids(index.search("chocolte bars")));
+        assertEquals(List.of(), index.search("shoxx running"));
+        assertEquals(List.of(), index.search("bxr"));
+    }
+
+    @Test
+    public void testUpdatesReplaceAndRemoveProducts() {
+        index.put(new ProductSummary(3L, "Boots", "Running shoes", "fashion", true));
+        index.remove(1L);
+
+        assertEquals(List.of(), index.search("sneakers"));
+        assertEquals(List.of(3L), ids(index.search("boots")));
+        assertEquals(List.of(2L), ids(index.search("chocolate")));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testEditDistanceCountsAdjacentSwapsAsOneEdit() {
+        assertEquals(1, SearchIndex.editDistance("snaekers", "sneakers", 2));
+        assertEquals(1, SearchIndex.editDistance("chocolte", "chocolate", 2));
+        assertEquals(3, SearchIndex.editDistance("abcdef", "uvwxyz", 2));
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::productId).toList();
+    }
+}
@@ -0,0 +1,86 @@
+package com.productcatalog.search;
+
+import com.productcatalog.search.SuggestTrie.Suggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * # Unit tests for SuggestTrie
+ */
+public class SuggestTrieTest {
+
+    private final SuggestTrie trie = new SuggestTrie();
+
+    @Test
+    public void testAddSplitsEdgesAndRemoveMergesThemBack() {
+        trie.add("shirt", suggestion(1L, "Shirt", 1));
+        assertEquals(2, trie.nodeCount());
+
+        // "sh" becomes a node of its own with "irt" and "oe" below it
+        trie.add("shoe", suggestion(2L, "Shoe", 1));
+        assertEquals(4, trie.nodeCount());
+        assertEquals(List.of(1L, 2L), ids(trie.top("sh", 10)));
+        assertEquals(List.of(1L), ids(trie.top("shi", 10)));
+        assertEquals(List.of(), ids(trie.top("shx", 10)));
+
+        // Removing the last key under "sh" but one folds "sh" and "irt" back into one edge
+        trie.remove("shoe", 2L);
+        assertEquals(2, trie.nodeCount());
+        assertEquals(List.of(1L), ids(trie.top("sh", 10)));
+        assertEquals(List.of(), ids(trie.top("sho", 10)));
+
+        trie.remove("shirt", 1L);
+        assertEquals(1, trie.nodeCount());
+        assertEquals(List.of(), ids(trie.top("", 10)));
+    }
+
+    @Test
+    public void testKeyEndingInsideAnEdgeKeepsTheLongerKey() {
+        trie.add("shirt dress", suggestion(1L, "Shirt Dress", 1));
+        trie.add("shirt", suggestion(2L, "Shirt", 1));
+
+        assertEquals(List.of(2L, 1L), ids(trie.top("shirt", 10)));
+        assertEquals(List.of(1L), ids(trie.top("shirt ", 10)));
+    }
+
+    @Test
+    public void testMaxWeightFollowsRemovals() {
+        trie.add("sock", suggestion(1L, "Sock", 9));
+        trie.add("sandal", suggestion(2L, "Sandal", 4));
+        trie.add("scarf", suggestion(3L, "Scarf", 2));
+        assertEquals(9, trie.maxWeight("s"));
+
+        trie.remove("sock", 1L);
+        assertEquals(4, trie.maxWeight("s"));
+        assertEquals(4, trie.maxWeight(""));
+        assertEquals(2, trie.maxWeight("sc"));
+        assertEquals(Long.MIN_VALUE, trie.maxWeight("so"));
+
+        trie.remove("sandal", 2L);
+        assertEquals(2, trie.maxWeight("s"));
+    }
+
+    @Test
+    public void testTopIsBestFirstWithOneSuggestionPerProduct() {
+        trie.add("shirt dress shirt", suggestion(1L, "Shirt Dress Shirt", 1));
+        trie.add("shirt", suggestion(1L, "Shirt Dress Shirt", 1));
+        trie.add("shirt blue", suggestion(2L, "Shirt Blue", 5));
+        trie.add("shirtwaist", suggestion(3L, "Shirtwaist", 0));
+        trie.add("shirt red", suggestion(4L, "Shirt Red", 5));
+
+        // Equal weights are ordered by name
+        assertEquals(List.of(2L, 4L, 1L, 3L), ids(trie.top("shirt", 10)));
+        assertEquals(List.of(2L, 4L), ids(trie.top("shirt", 2)));
+    }
+
+    private static Suggestion suggestion(long productId, String name, long weight) {
+        return new Suggestion(productId, name, weight > 0, weight);
+    }
+
+    private static List<Long> ids(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::productId).toList();
+    }
+}
@@ -0,0 +1,29 @@
+package com.productcatalog.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * # Unit tests for Tokenizer
+ */
+public class TokenizerTest {
+
+    @Test
+    public void testFoldsCaseAndAccentsAndSplitsOnPunctuation() {
+        assertEquals(List.of("creme", "brulee", "2", "pack"), Tokenizer.tokenize("Crème BRÛLÉE, 2-pack!"));
+    }
+
+    @Test
+    public void testKeepsLettersOutsideLatin() {
+        assertEquals(List.of("кофе", "green"), Tokenizer.tokenize("Кофе  green"));
+    }
+
+    @Test
+    public void testBlankTextHasNoTerms() {
+        assertEquals(List.of(), Tokenizer.tokenize(null));
+        assertEquals(List.of(), Tokenizer.tokenize("  -- "));
+    }
+}
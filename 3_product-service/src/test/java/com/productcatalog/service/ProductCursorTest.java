@@ -0,0 +1,40 @@
+package com.productcatalog.service;
+
+import com.productcatalog.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * # Unit tests for ProductCursor
+ */
+public class ProductCursorTest {
+
+    @Test
+    public void testRoundTrip() {
+        String cursor = ProductCursor.encode(9_000_000_000L);
+
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"), "URL-safe without padding: " + cursor);
+        assertEquals(9_000_000_000L, ProductCursor.decode(cursor));
+    }
+
+    @Test
+    public void testMissingCursorStartsAtTheBeginning() {
+        assertEquals(0L, ProductCursor.decode(null));
+        assertEquals(0L, ProductCursor.decode(""));
+    }
+
+    @Test
+    public void testMalformedCursorsAreRejected() {
+        assertThrows(InvalidCursorException.class, () -> ProductCursor.decode("not base64!"));
+        assertThrows(InvalidCursorException.class, () -> ProductCursor.decode(encoded("v2:42")));
+        assertThrows(InvalidCursorException.class, () -> ProductCursor.decode(encoded("v1:forty-two")));
+    }
+
+    private static String encoded(String token) {
+        return Base64.getUrlEncoder().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+}
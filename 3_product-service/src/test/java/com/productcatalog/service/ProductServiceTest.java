@@ -0,0 +1,120 @@
+package com.productcatalog.service;
+
+import com.productcatalog.dto.ProductPage;
+import com.productcatalog.dto.ProductSearchPage;
+import com.productcatalog.dto.ProductSummary;
+import com.productcatalog.repository.ProductRepository;
+import com.productcatalog.search.ProductSearchIndex;
+import com.productcatalog.search.SearchHit;
+import com.productcatalog.service.impl.ProductServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * # Unit tests for ProductService
+ */
+@ExtendWith(MockitoExtension.class)
+public class ProductServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductSearchIndex searchIndex;
+
+    @InjectMocks
+    private ProductServiceImpl productService;
+
+    @Test
+    public void testFullPageCarriesACursorToTheNextOne() {
+        when(productRepository.findSummariesAfter(0L, Limit.of(3)))
+                .thenReturn(List.of(summary(1L), summary(2L), summary(3L)));
+
+        ProductPage page = productService.getProductPage(null, 2);
+
+        assertEquals(List.of(1L, 2L), page.items().stream().map(ProductSummary::id).toList());
+        assertEquals(2L, ProductCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    public void testLastPageHasNoNextCursor() {
+        when(productRepository.findSummariesAfter(2L, Limit.of(3)))
+                .thenReturn(List.of(summary(3L), summary(4L)));
+
+        ProductPage page = productService.getProductPage(ProductCursor.encode(2L), 2);
+
+        assertEquals(List.of(3L, 4L), page.items().stream().map(ProductSummary::id).toList());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    public void testExportPassesEveryProductAndClosesTheStream() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(productRepository.streamAllSummaries())
+                .thenReturn(Stream.of(summary(1L), summary(2L)).onClose(() -> closed.set(true)));
+        List<Long> exported = new ArrayList<>();
+
+        productService.exportProducts(product -> exported.add(product.id()));
+
+        assertEquals(List.of(1L, 2L), exported);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testExportClosesTheStreamWhenTheClientGoesAway() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(productRepository.streamAllSummaries())
+                .thenReturn(Stream.of(summary(1L), summary(2L)).onClose(() -> closed.set(true)));
+
+        assertThrows(IllegalStateException.class, () -> productService.exportProducts(product -> {
+            throw new IllegalStateException("connection reset");
+        }));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testSearchPagesThroughTheIndexRanking() {
+        when(searchIndex.search("chocolate")).thenReturn(Optional.of(List.of(
+                new SearchHit(3L, 9.0), new SearchHit(1L, 5.0), new SearchHit(2L, 1.0))));
+        when(productRepository.findSummariesByIdIn(List.of(2L))).thenReturn(List.of(summary(2L)));
+
+        ProductSearchPage page = productService.searchProducts("chocolate", 1, 2);
+
+        assertEquals(List.of(2L), page.items().stream().map(ProductSummary::id).toList());
+        assertEquals(3L, page.total());
+        verify(productRepository, never()).searchIdsByText(any(), any(), any());
+    }
+
+    @Test
+    public void testSearchFallsBackToTheDatabaseUntilTheIndexIsBuilt() {
+        when(searchIndex.search("50%_off")).thenReturn(Optional.empty());
+        // The text-search ranking is kept; ILIKE wildcards in the query are escaped
+        when(productRepository.searchIdsByText("50%_off", "%50\\%\\_off%", PageRequest.of(0, 20)))
+                .thenReturn(new PageImpl<>(List.of(3L, 1L), PageRequest.of(0, 20), 2));
+        when(productRepository.findSummariesByIdIn(List.of(3L, 1L))).thenReturn(List.of(summary(1L), summary(3L)));
+
+        ProductSearchPage page = productService.searchProducts("50%_off", 0, 20);
+
+        assertEquals(List.of(3L, 1L), page.items().stream().map(ProductSummary::id).toList());
+        assertEquals(2L, page.total());
+    }
+
+    private static ProductSummary summary(long id) {
+        return new ProductSummary(id, "Product " + id, null, "CANDY", true);
+    }
+}
@@ -0,0 +1,159 @@
+package com.productcatalog.service.impl;
+
+import com.productcatalog.dto.ColorVariantDetail;
+import com.productcatalog.dto.ProductDetail;
+import com.productcatalog.dto.SkuDetail;
+import com.productcatalog.model.ColorVariant;
+import com.productcatalog.model.Product;
+import com.productcatalog.model.SKU;
+import com.productcatalog.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * # Query-count tests for ProductDetailReader
+ *
+ * Runs against in-memory H2 with the schema generated from the entities; the
+ * Flyway migrations use PostgreSQL-only features.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(ProductDetailReader.class)
+// The reader opens its own transactions, as it does when called from the cache
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ProductDetailReaderTest {
+
+    @Autowired
+    private ProductDetailReader reader;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    public void teardown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    public void testDetailLoadRunsThreeQueries() {
+        Product saved = productRepository.save(product("CANDY", 0, 2, 3));
+        statistics.clear();
+
+        ProductDetail detail = reader.byId(saved.getId()).orElseThrow();
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(2, detail.skus().size());
+        for (SkuDetail sku : detail.skus()) {
+            assertEquals(3, sku.colorVariants().size());
+            assertTrue(sku.colorVariants().stream().map(ColorVariantDetail::colorName)
+                    .allMatch(name -> name.startsWith(sku.skuCode())));
+        }
+    }
+
+    @Test
+    public void testBatchLoadRunsThreeQueriesWhateverTheNumberOfProducts() {
+        List<Long> few = ids(productRepository.saveAll(products("CANDY", 0, 2)));
+        List<Long> many = ids(productRepository.saveAll(products("CANDY", 2, 150)));
+
+        statistics.clear();
+        assertEquals(2, reader.byIds(few).size());
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        List<ProductDetail> details = reader.byIds(many);
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(150, details.size());
+        assertTrue(details.stream().allMatch(product -> product.skus().size() == 2
+                && product.skus().stream().allMatch(sku -> sku.colorVariants().size() == 2)));
+    }
+
+    @Test
+    public void testCategoryLoadRunsThreeQueries() {
+        productRepository.saveAll(products("CANDY", 0, 40));
+        productRepository.saveAll(products("FASHION", 40, 5));
+        statistics.clear();
+
+        List<ProductDetail> candy = reader.byCategory("CANDY");
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(40, candy.size());
+        assertTrue(candy.stream().allMatch(product -> "CANDY".equals(product.category())));
+    }
+
+    @Test
+    public void testMissingIdsAreLeftOutAndOrderIsKept() {
+        List<Long> ids = ids(productRepository.saveAll(products("CANDY", 0, 3)));
+        statistics.clear();
+
+        List<ProductDetail> details = reader.byIds(List.of(ids.get(2), -1L, ids.get(0)));
+
+        assertEquals(List.of(ids.get(2), ids.get(0)), details.stream().map(ProductDetail::id).toList());
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        // Nothing found: no SKU or color queries at all
+        statistics.clear();
+        assertTrue(reader.byId(-1L).isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private static List<Product> products(String category, int first, int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = first; i < first + count; i++) {
+            products.add(product(category, i, 2, 2));
+        }
+        return products;
+    }
+
+    private static Product product(String category, int n, int skus, int colors) {
+        Product product = new Product();
+        product.setName("Product " + n);
+        product.setCategory(category);
+        for (int s = 0; s < skus; s++) {
+            SKU sku = new SKU();
+            sku.setSkuCode(String.format("AB%04d%02d", n, s));
+            sku.setPrice(new BigDecimal("9.99"));
+            sku.setAvailableQuantity(s);
+            sku.setProduct(product);
+            for (int c = 0; c < colors; c++) {
+                ColorVariant color = new ColorVariant();
+                color.setColorName(sku.getSkuCode() + "-color-" + c);
+                color.setSku(sku);
+                sku.getColorVariants().add(color);
+            }
+            product.getSkus().add(sku);
+        }
+        return product;
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+}